@@ -0,0 +1,290 @@
+package aux;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import core.Sentence;
+import core.SymbolTable;
+
+/**
+ * <p>
+ * This class selects the pairs of sentences whose similarity may reach a
+ * threshold, so that only those pairs are compared.
+ * </p>
+ * <p>
+ * The sentences are indexed by the interned keys of their words. For each pair
+ * of sentences, the index counts the words of one sentence that represent
+ * some word of the other. Since the overlap and the subsequences of
+ * Utils.computeSentence2SentenceSimilarity only consider such words, this
+ * count bounds the similarity of the pair, and the pairs whose bound is below
+ * the threshold are never similar.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class SimilarityCandidates {
+
+	/**
+	 * <p>
+	 * Margin given to the threshold, covering the rounding of the similarity
+	 * to two decimal places.
+	 * </p>
+	 **/
+	private static final double ROUNDING_MARGIN = 0.01;
+
+	/**
+	 * <p>
+	 * Position of each indexed sentence.
+	 * </p>
+	 **/
+	private IdentityHashMap<Sentence, Integer> positions;
+	/**
+	 * <p>
+	 * Indexed sentences, by position.
+	 * </p>
+	 **/
+	private ArrayList<Sentence> indexed;
+	/**
+	 * <p>
+	 * For each sentence, the sorted positions of the sentences that share a
+	 * word with it.
+	 * </p>
+	 **/
+	private int[][] neighbours;
+	/**
+	 * <p>
+	 * For each sentence, the number of its words that represent some word of
+	 * each neighbour.
+	 * </p>
+	 **/
+	private int[][] shared;
+	/**
+	 * <p>
+	 * Minimum similarity of the candidate pairs.
+	 * </p>
+	 **/
+	private double threshold;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new SimilarityCandidates for the given sentences.
+	 * </p>
+	 *
+	 * @param sentences
+	 *            the sentences to be compared.
+	 * @param threshold
+	 *            the minimum similarity of the candidate pairs.
+	 */
+	public SimilarityCandidates(Collection<Sentence> sentences, double threshold) {
+		this.threshold = threshold;
+		this.positions = new IdentityHashMap<Sentence, Integer>();
+
+		this.indexed = new ArrayList<Sentence>();
+		for (Sentence sentence : sentences) {
+			if (!positions.containsKey(sentence)) {
+				positions.put(sentence, indexed.size());
+				indexed.add(sentence);
+			}
+		}
+
+		int total = indexed.size();
+		this.neighbours = new int[total][];
+		this.shared = new int[total][];
+
+		// The keys of every sentence are interned in the same symbol table
+		// (the table of their run).
+		SymbolTable symbols = null;
+		for (int i = 0; i < total && symbols == null; i++)
+			symbols = indexed.get(i).getSymbols();
+		if (symbols == null)
+			symbols = new SymbolTable();
+
+		// Postings: the sentences in which each key occurs.
+		HashMap<Integer, List<Integer>> postings = new HashMap<Integer, List<Integer>>();
+
+		for (int i = 0; i < total; i++) {
+			for (int[] keys : indexed.get(i).getWordKeys(symbols)) {
+				for (int key : keys) {
+					List<Integer> posting = postings.get(key);
+
+					if (posting == null) {
+						posting = new ArrayList<Integer>();
+						postings.put(key, posting);
+					}
+
+					if (posting.isEmpty() || posting.get(posting.size() - 1) != i)
+						posting.add(i);
+				}
+			}
+		}
+
+		// Counts, for each sentence, its words that share a key with each
+		// other sentence (each word is counted once per sentence).
+		int[] counts = new int[total];
+		int[] lastWord = new int[total];
+		int[] touched = new int[total];
+		int word = 0;
+
+		for (int i = 0; i < total; i++) {
+			int numberOfTouched = 0;
+
+			for (int[] keys : indexed.get(i).getWordKeys(symbols)) {
+				word++;
+
+				for (int key : keys) {
+					for (Integer j : postings.get(key)) {
+						if (j == i || lastWord[j] == word)
+							continue;
+
+						lastWord[j] = word;
+
+						if (counts[j] == 0)
+							touched[numberOfTouched++] = j;
+						counts[j]++;
+					}
+				}
+			}
+
+			Arrays.sort(touched, 0, numberOfTouched);
+			neighbours[i] = new int[numberOfTouched];
+			shared[i] = new int[numberOfTouched];
+
+			for (int k = 0; k < numberOfTouched; k++) {
+				neighbours[i][k] = touched[k];
+				shared[i][k] = counts[touched[k]];
+				counts[touched[k]] = 0;
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * Checks if the similarity between the two given sentences may reach the
+	 * threshold.
+	 * </p>
+	 * <p>
+	 * Sentences that were not indexed are always candidates.
+	 * </p>
+	 *
+	 * @param first
+	 *            the first sentence.
+	 * @param second
+	 *            the second sentence.
+	 * @return true if the sentences must be compared; false if their
+	 *         similarity is surely below the threshold.
+	 */
+	public boolean isCandidate(Sentence first, Sentence second) {
+		Integer firstPosition = positions.get(first);
+		Integer secondPosition = positions.get(second);
+
+		if (firstPosition == null || secondPosition == null
+				|| firstPosition.equals(secondPosition))
+			return true;
+
+		// The similarity takes the shortest sentence as the first one.
+		Sentence s1 = first, s2 = second;
+		int p1 = firstPosition, p2 = secondPosition;
+
+		if (first.getTotalWords() > second.getTotalWords()) {
+			s1 = second;
+			s2 = first;
+			p1 = secondPosition;
+			p2 = firstPosition;
+		}
+
+		double bound = similarityBound(sharedWords(p1, p2),
+				s1.getTotalWords(), s2.getTotalWords());
+
+		return bound >= threshold - ROUNDING_MARGIN;
+	}
+
+	/**
+	 * <p>
+	 * Checks if the pairs of sentences that share no word are candidates,
+	 * which happens when the threshold is (nearly) zero.
+	 * </p>
+	 *
+	 * @return true if every pair of sentences is a candidate; false if only
+	 *         the neighbours (see getNeighbours) may be.
+	 */
+	public boolean isEveryPairCandidate() {
+		return similarityBound(0, 1, 1) >= threshold - ROUNDING_MARGIN;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the sentences that share a word with the given one, the only
+	 * ones that may be candidates with it (unless every pair is).
+	 * </p>
+	 *
+	 * @param sentence
+	 *            the sentence.
+	 * @return the neighbour sentences; empty if the sentence was not indexed.
+	 */
+	public List<Sentence> getNeighbours(Sentence sentence) {
+		Integer position = positions.get(sentence);
+		List<Sentence> found = new ArrayList<Sentence>();
+
+		if (position != null)
+			for (int neighbour : neighbours[position])
+				found.add(indexed.get(neighbour));
+
+		return found;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the number of words of a sentence that represent some word of
+	 * another sentence.
+	 * </p>
+	 *
+	 * @param from
+	 *            the position of the sentence whose words are counted.
+	 * @param to
+	 *            the position of the other sentence.
+	 * @return the number of shared words.
+	 */
+	private int sharedWords(int from, int to) {
+		int index = Arrays.binarySearch(neighbours[from], to);
+		return index < 0 ? 0 : shared[from][index];
+	}
+
+	/**
+	 * <p>
+	 * Computes the highest similarity two sentences may have, given the
+	 * number of words of the first that represent words of the second.
+	 * </p>
+	 * <p>
+	 * The common subsequences never hold more words than the shared ones, so
+	 * their average is at most (c/n1 + c/n2)/2; the overlap is c/(n1 + n2 -
+	 * c).
+	 * </p>
+	 *
+	 * @param common
+	 *            the number of shared words (c).
+	 * @param first
+	 *            the number of words of the first sentence (n1).
+	 * @param second
+	 *            the number of words of the second sentence (n2).
+	 * @return the similarity upper bound.
+	 */
+	private static double similarityBound(int common, int first, int second) {
+		if (common == 0 || first == 0 || second == 0)
+			return 0;
+
+		double subsequences = ((double) common / first + (double) common
+				/ second) / 2;
+		double overlap = (double) common / (first + second - common);
+
+		return (subsequences + overlap) / 2;
+	}
+
+}
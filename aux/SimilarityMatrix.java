@@ -0,0 +1,423 @@
+package aux;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import preferences.Utils;
+import core.Sentence;
+import core.SymbolTable;
+
+/**
+ * <p>
+ * This class keeps the similarity between every pair of a collection of
+ * sentences.
+ * </p>
+ * <p>
+ * The similarities are computed in square tiles of the upper triangle of the
+ * matrix, which are shared by a pool of threads. Each row of the triangle
+ * keeps only the pairs that are computed: every pair when every pair is
+ * compared, or else only the candidate pairs, found among the neighbours of
+ * each sentence (see SimilarityCandidates), so the memory used follows the
+ * number of candidates. When the pairs to be kept exceed MAXIMUM_PAIRS, none
+ * is kept, and each similarity is computed when requested.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class SimilarityMatrix {
+
+	/**
+	 * <p>
+	 * Number of rows and columns of each tile.
+	 * </p>
+	 **/
+	private static final int TILE_SIZE = 64;
+	/**
+	 * <p>
+	 * Maximum number of similarities kept (4 bytes each).
+	 * </p>
+	 **/
+	private static final long MAXIMUM_PAIRS = 1L << 25;
+
+	/**
+	 * <p>
+	 * Sentences of the matrix, by position.
+	 * </p>
+	 **/
+	private ArrayList<Sentence> sentences;
+	/**
+	 * <p>
+	 * Position of each sentence.
+	 * </p>
+	 **/
+	private IdentityHashMap<Sentence, Integer> positions;
+	/**
+	 * <p>
+	 * Pairs of sentences to be compared (null to compare every pair).
+	 * </p>
+	 **/
+	private SimilarityCandidates candidates;
+	/**
+	 * <p>
+	 * For each row i, the sorted columns j > i whose similarity is kept (null
+	 * for a row that keeps every column).
+	 * </p>
+	 **/
+	private int[][] columns;
+	/**
+	 * <p>
+	 * For each row i, the similarity of the sentence i to the sentence of
+	 * each column kept (null if no similarity is kept).
+	 * </p>
+	 **/
+	private float[][] values;
+	/**
+	 * <p>
+	 * Similarity of the second sentence to the first one, for the pairs of
+	 * sentences with the same number of words in which it differs.
+	 * </p>
+	 **/
+	private HashMap<Long, Float> reversed;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new SimilarityMatrix and computes the similarities.
+	 * </p>
+	 *
+	 * @param sentences
+	 *            the sentences to be compared.
+	 * @param candidates
+	 *            the pairs of sentences to be compared; null to compare every
+	 *            pair.
+	 * @param threads
+	 *            the number of threads that compute the similarities.
+	 */
+	public SimilarityMatrix(Collection<Sentence> sentences,
+			SimilarityCandidates candidates, int threads) {
+		this.sentences = new ArrayList<Sentence>();
+		this.positions = new IdentityHashMap<Sentence, Integer>();
+		this.candidates = candidates;
+		this.reversed = new HashMap<Long, Float>();
+
+		for (Sentence sentence : sentences) {
+			if (!positions.containsKey(sentence)) {
+				positions.put(sentence, this.sentences.size());
+				this.sentences.add(sentence);
+				// The word keys are built before being shared by the threads.
+				SymbolTable symbols = sentence.getSymbols();
+				if (symbols != null)
+					sentence.getWordKeys(symbols);
+			}
+		}
+
+		if (allocate())
+			compute(Math.max(1, threads));
+	}
+
+	/**
+	 * <p>
+	 * Allocates the rows of the similarities to be kept.
+	 * </p>
+	 *
+	 * @return true if the similarities are kept; false if they are too many.
+	 */
+	private boolean allocate() {
+		int total = sentences.size();
+		long pairs = 0;
+
+		this.columns = new int[total][];
+		this.values = new float[total][];
+
+		if (candidates == null || candidates.isEveryPairCandidate()) {
+			pairs = (long) total * (total - 1) / 2;
+
+			if (pairs > MAXIMUM_PAIRS) {
+				this.columns = null;
+				this.values = null;
+				return false;
+			}
+
+			for (int i = 0; i < total; i++)
+				values[i] = new float[total - i - 1];
+
+			return true;
+		}
+
+		for (int i = 0; i < total; i++) {
+			Sentence first = sentences.get(i);
+			int[] row = new int[16];
+			int length = 0;
+
+			for (Sentence second : candidates.getNeighbours(first)) {
+				Integer j = positions.get(second);
+
+				if (j == null || j <= i || !isComputed(first, second))
+					continue;
+
+				if (length == row.length)
+					row = Arrays.copyOf(row, 2 * length);
+				row[length++] = j;
+			}
+
+			pairs += length;
+
+			if (pairs > MAXIMUM_PAIRS) {
+				this.columns = null;
+				this.values = null;
+				return false;
+			}
+
+			columns[i] = Arrays.copyOf(row, length);
+			Arrays.sort(columns[i]);
+			values[i] = new float[length];
+		}
+
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Computes the similarities of every tile of the matrix.
+	 * </p>
+	 *
+	 * @param threads
+	 *            the number of threads that compute the similarities.
+	 */
+	private void compute(int threads) {
+		int total = sentences.size();
+		LinkedList<TileTask> tasks = new LinkedList<TileTask>();
+
+		for (int row = 0; row < total; row += TILE_SIZE)
+			for (int column = row; column < total; column += TILE_SIZE)
+				tasks.add(new TileTask(row, column));
+
+		if (threads == 1 || tasks.size() <= 1) {
+			for (TileTask task : tasks)
+				reversed.putAll(task.call());
+			return;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(
+				Math.min(threads, tasks.size()), new SimilarityThreadFactory());
+
+		try {
+			for (Future<HashMap<Long, Float>> result : executor.invokeAll(tasks))
+				reversed.putAll(result.get());
+		} catch (Exception e) {
+			System.out
+					.println("============= ERROR in class [SimilarityMatrix.compute].\nException trace:");
+			System.out.println(e.toString());
+			e.printStackTrace();
+
+			if (e instanceof InterruptedException)
+				Thread.currentThread().interrupt();
+
+			// The similarities are computed once more in the current thread.
+			reversed.clear();
+			for (TileTask task : tasks)
+				reversed.putAll(task.call());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * <p>
+	 * Checks if the similarity between the two given sentences may reach the
+	 * candidates threshold.
+	 * </p>
+	 *
+	 * @param first
+	 *            the first sentence.
+	 * @param second
+	 *            the second sentence.
+	 * @return true if the sentences must be compared; false if their
+	 *         similarity is surely below the threshold.
+	 */
+	public boolean isCandidate(Sentence first, Sentence second) {
+		return candidates == null || candidates.isCandidate(first, second);
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the similarity between the two given sentences, as computed
+	 * by Utils.computeSentence2SentenceSimilarity.
+	 * </p>
+	 * <p>
+	 * The similarity of sentences that are not in the matrix, or that the
+	 * matrix does not keep, is computed when requested.
+	 * </p>
+	 *
+	 * @param first
+	 *            the first sentence.
+	 * @param second
+	 *            the second sentence.
+	 * @return the similarity value between the two sentences.
+	 */
+	public double similarity(Sentence first, Sentence second) {
+		Integer firstPosition = positions.get(first);
+		Integer secondPosition = positions.get(second);
+
+		if (values == null || firstPosition == null || secondPosition == null
+				|| firstPosition.equals(secondPosition)
+				|| !isCandidate(first, second))
+			return Utils.computeSentence2SentenceSimilarity(first, second);
+
+		int i = firstPosition, j = secondPosition;
+		float similarity;
+
+		if (i < j)
+			similarity = kept(i, j);
+		else {
+			Float value = reversed.get(key(i, j));
+			similarity = (value != null ? value.floatValue() : kept(j, i));
+		}
+
+		if (similarity < 0)
+			return Utils.computeSentence2SentenceSimilarity(first, second);
+
+		// The similarities are rounded to two decimal places, so the rounding
+		// recovers the exact value from the float.
+		return Math.round((double) similarity * 100) / 100.0;
+	}
+
+	/**
+	 * <p>
+	 * Checks if the similarity of a pair (i, j), with i < j, is computed: the
+	 * pair is a candidate in either order (the order only matters when the
+	 * sentences have the same number of words).
+	 * </p>
+	 */
+	private boolean isComputed(Sentence first, Sentence second) {
+		return isCandidate(first, second)
+				|| (first.getTotalWords() == second.getTotalWords() && isCandidate(
+						second, first));
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the similarity kept for the pair (i, j), with i < j.
+	 * </p>
+	 *
+	 * @return the similarity; -1 if it is not kept.
+	 */
+	private float kept(int i, int j) {
+		int cell = columns[i] == null ? j - i - 1 : Arrays.binarySearch(
+				columns[i], j);
+
+		return cell < 0 ? -1 : values[i][cell];
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the key of the reversed pair (i, j), with i > j.
+	 * </p>
+	 */
+	private static Long key(int i, int j) {
+		return new Long(((long) i << 32) | j);
+	}
+
+	/**
+	 * <p>
+	 * Computes the similarities of a tile of the matrix.
+	 * </p>
+	 */
+	private class TileTask implements Callable<HashMap<Long, Float>> {
+
+		private int row;
+		private int column;
+
+		public TileTask(int row, int column) {
+			this.row = row;
+			this.column = column;
+		}
+
+		/**
+		 * <p>
+		 * Fills the tile cells kept by each row.
+		 * </p>
+		 *
+		 * @return the reversed similarities found in the tile.
+		 */
+		public HashMap<Long, Float> call() {
+			HashMap<Long, Float> tileReversed = new HashMap<Long, Float>();
+			int total = sentences.size();
+			int end = Math.min(column + TILE_SIZE, total);
+
+			for (int i = row; i < row + TILE_SIZE && i < total; i++) {
+				if (columns[i] == null) {
+					for (int j = Math.max(column, i + 1); j < end; j++)
+						compute(i, j, j - i - 1, tileReversed);
+				} else {
+					int[] kept = columns[i];
+					int cell = Arrays.binarySearch(kept, column);
+
+					for (cell = cell < 0 ? -cell - 1 : cell; cell < kept.length
+							&& kept[cell] < end; cell++)
+						compute(i, kept[cell], cell, tileReversed);
+				}
+			}
+
+			return tileReversed;
+		}
+
+		/**
+		 * <p>
+		 * Computes the similarity of the pair (i, j), with i < j, kept in the
+		 * given cell of the row i, and its reversed similarity.
+		 * </p>
+		 */
+		private void compute(int i, int j, int cell,
+				HashMap<Long, Float> tileReversed) {
+			Sentence first = sentences.get(i);
+			Sentence second = sentences.get(j);
+
+			double similarity = Utils.computeSentence2SentenceSimilarity(
+					first, second);
+			values[i][cell] = (float) similarity;
+
+			// The similarity (and the candidates) only depend on the order of
+			// the sentences when they have the same number of words.
+			if (first.getTotalWords() == second.getTotalWords()
+					&& isCandidate(second, first)) {
+				double other = Utils.computeSentence2SentenceSimilarity(
+						second, first);
+
+				if (other != similarity)
+					tileReversed.put(key(j, i), new Float(other));
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * Creates the daemon threads that compute the similarities.
+	 * </p>
+	 */
+	private static class SimilarityThreadFactory implements ThreadFactory {
+
+		private AtomicInteger number = new AtomicInteger(1);
+
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "similarity-"
+					+ number.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
@@ -0,0 +1,178 @@
+package aux;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * <p>
+ * This class selects the first values of a ranking, without sorting every
+ * value.
+ * </p>
+ * <p>
+ * The values kept are held in a heap whose head is the worst of them, so each
+ * new value is only compared with it. The values selected, and their order,
+ * are the ones a stable sort would give: values ranked the same keep the order
+ * in which they were added.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class TopK<T> {
+
+	/**
+	 * <p>
+	 * Maximum number of values kept.
+	 * </p>
+	 **/
+	private int k;
+	/**
+	 * <p>
+	 * Ranking of the values (the first values are the best).
+	 * </p>
+	 **/
+	private Comparator<? super T> comparator;
+	/**
+	 * <p>
+	 * Values kept, with the worst at the head.
+	 * </p>
+	 **/
+	private PriorityQueue<Ranked<T>> heap;
+	/**
+	 * <p>
+	 * Number of values added.
+	 * </p>
+	 **/
+	private int added;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new TopK.
+	 * </p>
+	 *
+	 * @param k
+	 *            the maximum number of values kept.
+	 * @param comparator
+	 *            the ranking of the values.
+	 */
+	public TopK(int k, Comparator<? super T> comparator) {
+		this.k = Math.max(0, k);
+		this.comparator = comparator;
+		this.added = 0;
+		this.heap = new PriorityQueue<Ranked<T>>(Math.max(1, this.k) + 1,
+				new Comparator<Ranked<T>>() {
+					public int compare(Ranked<T> o1, Ranked<T> o2) {
+						return rank(o2, o1);
+					}
+				});
+	}
+
+	/**
+	 * <p>
+	 * Selects the first values of a collection.
+	 * </p>
+	 *
+	 * @param values
+	 *            the values.
+	 * @param k
+	 *            the maximum number of values selected.
+	 * @param comparator
+	 *            the ranking of the values.
+	 * @return the first k values, by order.
+	 */
+	public static <T> List<T> select(Collection<? extends T> values, int k,
+			Comparator<? super T> comparator) {
+		TopK<T> top = new TopK<T>(k, comparator);
+
+		for (T value : values)
+			top.add(value);
+
+		return top.toList();
+	}
+
+	/**
+	 * <p>
+	 * Adds a value, keeping it if it is among the first k values.
+	 * </p>
+	 *
+	 * @param value
+	 *            the value.
+	 */
+	public void add(T value) {
+		Ranked<T> ranked = new Ranked<T>(value, added++);
+
+		if (heap.size() < k)
+			heap.add(ranked);
+		else if (k > 0 && rank(ranked, heap.peek()) < 0) {
+			heap.poll();
+			heap.add(ranked);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the values kept.
+	 * </p>
+	 *
+	 * @return the first values added, by order.
+	 */
+	public List<T> toList() {
+		PriorityQueue<Ranked<T>> worstFirst = new PriorityQueue<Ranked<T>>(
+				heap);
+		ArrayList<T> values = new ArrayList<T>(worstFirst.size());
+
+		while (!worstFirst.isEmpty())
+			values.add(worstFirst.poll().value);
+
+		for (int i = 0, j = values.size() - 1; i < j; i++, j--) {
+			T swap = values.get(i);
+			values.set(i, values.get(j));
+			values.set(j, swap);
+		}
+
+		return values;
+	}
+
+	/**
+	 * <p>
+	 * Compares the rank of two values: the ties are broken by the order in
+	 * which they were added.
+	 * </p>
+	 */
+	private int rank(Ranked<T> o1, Ranked<T> o2) {
+		int compare = comparator.compare(o1.value, o2.value);
+
+		if (compare != 0)
+			return compare;
+
+		return o1.order < o2.order ? -1 : (o1.order > o2.order ? 1 : 0);
+	}
+
+	/**
+	 * <p>
+	 * Value, with the order in which it was added.
+	 * </p>
+	 */
+	private static class Ranked<T> {
+
+		private T value;
+		private int order;
+
+		public Ranked(T value, int order) {
+			this.value = value;
+			this.order = order;
+		}
+	}
+
+	/** Getters & Setters **/
+	public int size() {
+		return heap.size();
+	}
+
+}
@@ -1,28 +1,32 @@
 package controllers;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import options.Option;
+import options.SummarizationConfig;
 import preferences.Preferences;
 import preferences.Regex;
 import preferences.Utils;
 import simplification.PostProcessedText;
 import summarization.Summary;
 import core.Document;
+import core.KeywordSet;
 import core.Sentence;
 import core.SingleWord;
+import core.SymbolTable;
+import core.TermIndex;
 import core.Text;
 import core.Word;
+import core.WordTokenizer;
 import edu.stanford.nlp.trees.Tree;
-import external.concurrency.ExternalToolsThread;
+import external.concurrency.AnnotationScheduler;
+import external.concurrency.ExternalProcesses;
+import external.suite.SentenceReader;
 
 /**
  * <p>
@@ -95,6 +99,26 @@ public abstract class Controller {
 	 * </p>
 	 **/
 	protected String demoLog;
+	/**
+	 * <p>
+	 * Index of the words in the collection of documents, built while the
+	 * sentences are splitted.
+	 * </p>
+	 **/
+	protected TermIndex termIndex;
+	/**
+	 * <p>
+	 * Symbol table of the words of this summarization, released with them.
+	 * </p>
+	 **/
+	protected SymbolTable symbols;
+	/**
+	 * <p>
+	 * Settings of this summarization (the Preferences defaults, unless
+	 * another configuration is given).
+	 * </p>
+	 **/
+	protected SummarizationConfig config;
 
 	/**
 	 * <p>
@@ -108,6 +132,9 @@ public abstract class Controller {
 		this.documents = new LinkedList<Document>();
 		this.keywords = new LinkedList<Word>();
 		this.totalDocuments = 0;
+		this.termIndex = new TermIndex();
+		this.symbols = new SymbolTable();
+		this.config = SummarizationConfig.defaults();
 	}
 
 	/**
@@ -118,7 +145,11 @@ public abstract class Controller {
 	public void submitDocuments() {
 
 		IOController io = new IOController();
-		documents = io.manageInputDocuments(options.getDocumentsLocation());
+
+		if (options.getDocumentTexts() != null)
+			documents = io.manageInputTexts(options.getDocumentTexts());
+		else
+			documents = io.manageInputDocuments(options.getDocumentsLocation());
 		parseTrees = io.getParseTrees();
 		totalDocuments = documents.size();
 
@@ -154,36 +185,47 @@ public abstract class Controller {
 	 * </ul>
 	 */
 	public void manageDocuments() {
-		int threadNumber = 0;
-
-		HashMap<Document, ExternalToolsThread> threads = new HashMap<Document, ExternalToolsThread>();
+		AnnotationScheduler scheduler = new AnnotationScheduler(
+				Preferences.ANNOTATION_THREADS);
+		this.termIndex = new TermIndex();
+		this.symbols = new SymbolTable();
+
+		try {
+			// Submits every document text to be annotated.
+			for (Document document : documents) {
+				System.out.println("\tProcessing file: "
+						+ document.getFilename());
+				scheduler.submit(document);
+			}
 
-		// Updates the document collection
-		for (Document document : documents) {
-			System.out.println("\tProcessing file: " + document.getFilename());
-			Text text = document.getText();
-			// Creates a new thread to annotate the current document text.
-			ExternalToolsThread thread = new ExternalToolsThread(text);
-			threads.put(document, thread);
-			thread.start();
-			threadNumber++;
-
-			// We'll only create threads until a maximum of
-			// Preferences.MAXIMUM_THREADS.
-			// When we get to this number of threads, we'll wait until all of
-			// them end,
-			// in order to continue the processing.
-			if (threadNumber <= Preferences.MAXIMUM_THREADS) {
-				manageThreadEnd(threads);
-				threadNumber = 0;
-				threads = new HashMap<Document, ExternalToolsThread>();
+			// Splits each annotated text in sentences as soon as its own
+			// annotation ends, while the remaining documents are still being
+			// annotated.
+			while (scheduler.hasPending()) {
+				Document document = scheduler.take();
+				Text text = document.getText();
+
+				if (text.getNamedEntityAnnotation() != null
+						&& text.getTotalSentences() < 0) {
+					Collection<Sentence> sentences = splitSentences(document,
+							text);
+					text.setSentences(sentences);
+					document.setText(text);
+				}
 			}
+		} catch (InterruptedException e) {
+			System.out
+					.println("============= ERROR in class [Controller.manageDocuments].\nException trace:");
+			System.out.println(e.toString());
+			e.printStackTrace();
+			Thread.currentThread().interrupt();
+		} finally {
+			scheduler.shutdown();
 		}
 
-		// Checks if there are no more documents to process, but there are
-		// threads still running.
-		if (threadNumber > 0)
-			manageThreadEnd(threads);
+		System.out.println("\t\t# external processes in flight: "
+				+ ExternalProcesses.getInFlight() + " (peak: "
+				+ ExternalProcesses.getPeak() + ")");
 
 		this.parseTrees = null;
 	}
@@ -301,26 +343,20 @@ public abstract class Controller {
 			allWords.addAll(document.getText().getWords());
 		}
 
-		computeWordOccurrencesInDocument(allWords);
+		computeWordOccurrencesInDocument(allWords, getTermIndex(allWords));
 
 		return documents;
 	}
 
-	private void computeWordOccurrencesInDocument(Collection<Word> words) {
+	private void computeWordOccurrencesInDocument(Collection<Word> words,
+			TermIndex index) {
 
 		int totalWordsInDocument = words.size();
 
 		for (Word firstTerm : words) {
 
-			int occurrences = firstTerm.getOccurrences();
-
-			for (Word secondTerm : words) {
-				if (!firstTerm.equals(secondTerm)) {
-					if (firstTerm.represents(secondTerm)) {
-						occurrences++;
-					}
-				}
-			}
+			int occurrences = firstTerm.getOccurrences()
+					+ index.countRepresented(firstTerm);
 
 			firstTerm.setOccurrences(occurrences);
 
@@ -345,17 +381,17 @@ public abstract class Controller {
 	public Collection<Document> computeTFIDF(Collection<Document> documents) {
 
 		int totalDocuments = documents.size();
-		LinkedList<Word> words = new LinkedList<Word>();
-		LinkedList<Word> allWords = new LinkedList<Word>();
+		ArrayList<Word> words = new ArrayList<Word>();
 
 		for (Document document : documents) {
 			words.addAll(document.getText().getWords());
 		}
 
+		TermIndex index = getTermIndex(words);
+
 		for (Word word : words) {
 
-			int freqInDocuments = Utils
-					.numberOfTermInDocuments(documents, word);
+			int freqInDocuments = index.countDocuments(word);
 
 			double tf = word.getFrequency();
 			double aux = (double) totalDocuments
@@ -369,11 +405,29 @@ public abstract class Controller {
 			word.computeScore();
 		}
 
-		Collections.sort(words, Preferences.COMPARE_WORD_TFIDF);
-
 		return documents;
 	}
 
+	/**
+	 * <p>
+	 * Retrieves the index of the given words.
+	 * </p>
+	 * <p>
+	 * The index built while splitting the sentences is reused when it holds
+	 * the very same words; otherwise a new index is built.
+	 * </p>
+	 * 
+	 * @param words
+	 *            the words of the collection of documents.
+	 * @return the index of the words.
+	 */
+	private TermIndex getTermIndex(Collection<Word> words) {
+		if (termIndex != null && termIndex.indexes(words))
+			return termIndex;
+
+		return new TermIndex(words);
+	}
+
 	/**
 	 * <p>
 	 * Updates the collection score considering the keywords.
@@ -385,6 +439,7 @@ public abstract class Controller {
 	protected void updateDocumentProperties() {
 
 		double textScore = 0;
+		KeywordSet keywords = new KeywordSet(this.keywords);
 		// Updates text score
 		// Updates sentence number of keywords
 		for (Document document : documents) {
@@ -396,7 +451,7 @@ public abstract class Controller {
 				textScore += sentence.getScore();
 				// Computes the properties related to the keywords occurring in
 				// this sentence.
-				sentence.computeKeywordsProperties(this.keywords);
+				sentence.computeKeywordsProperties(keywords);
 				// Computes the properties related to the named entities
 				// occurring in this sentence.
 				sentence.computeNamedEntitiesProperties(text
@@ -415,10 +470,11 @@ public abstract class Controller {
 	}
 
 	protected void updateKeywordsScore(Collection<Sentence> sentences) {
+		KeywordSet keywords = new KeywordSet(this.keywords);
 
 		for (Sentence sentence : sentences) {
 			Collection<Word> updatedWords = Utils.updateKeywordsScore(
-					sentence.getWords(), this.keywords);
+					sentence.getWords(), keywords);
 			sentence.setWords(updatedWords);
 
 			double sentenceScore = sentence.computeScore();
@@ -434,59 +490,16 @@ public abstract class Controller {
 	protected void computeGlobalKeywords() {
 
 		LinkedList<Sentence> allSentences = new LinkedList<Sentence>();
-		LinkedList<Word> allWords = new LinkedList<Word>();
 		for (Document document : documents) {
 			// Computes the current documents keywords
 			Collection<Sentence> sentences = document.getText().getSentences();
 			allSentences.addAll(sentences);
-
-			for (Sentence sentence : sentences)
-				allWords.addAll(sentence.getWords());
 		}
 
-		Collections.sort(allWords, Preferences.COMPARE_WORD_SCORE);
-
 		// Gets the collection keywords, based on all the sentences in the
 		// documents.
-		this.keywords = Utils.extractKeywords(allSentences);
-	}
-
-	/**
-	 * <p>
-	 * Manages the ending of the running threads.
-	 * </p>
-	 * 
-	 * @param threads
-	 *            the set of running threads.
-	 */
-	private void manageThreadEnd(HashMap<Document, ExternalToolsThread> threads) {
-		boolean ended = false;
-
-		while (!ended) {
-			boolean allTrue = true;
-			Set<Map.Entry<Document, ExternalToolsThread>> set = threads
-					.entrySet();
-
-			// Checks if all the threads have ended their processing.
-			for (Entry<Document, ExternalToolsThread> entry : set) {
-				Document doc = entry.getKey();
-				ExternalToolsThread thread = entry.getValue();
-
-				int sentencesNumber = thread.getText().getTotalSentences();
-				allTrue = allTrue && thread.hasEnded();
-				ended = allTrue;
-
-				// If the current thread has ended, we'll update the document
-				// information,
-				// and split the annotated text in sentences.
-				if (thread.hasEnded() && sentencesNumber < 0) {
-					Text text = thread.getText();
-					Collection<Sentence> sentences = splitSentences(doc, text);
-					text.setSentences(sentences);
-					doc.setText(text);
-				}
-			}
-		}
+		this.keywords = Utils.extractKeywords(allSentences,
+				config.getMaxKeywords());
 	}
 
 	/**
@@ -499,32 +512,48 @@ public abstract class Controller {
 	 * @return the collection of sentences retrieved.
 	 */
 	private Collection<Sentence> splitSentences(Document document, Text text) {
-		String chunked = text.getChunked();
-		String annotated = text.getPosTagged();
-		String neAnnotation = text.getNamedEntityAnnotation();
-
-		Matcher mc = Pattern.compile(Regex.SENTENCE).matcher(chunked);
-		Matcher ma = Pattern.compile(Regex.SENTENCE).matcher(annotated);
-		Matcher men = Pattern.compile(Regex.SENTENCE).matcher(neAnnotation);
+		SentenceReader chunked = new SentenceReader(new StringReader(
+				text.getChunked()));
+		SentenceReader annotated = new SentenceReader(new StringReader(
+				text.getPosTagged()));
+		SentenceReader neAnnotation = new SentenceReader(new StringReader(
+				text.getNamedEntityAnnotation()));
 
 		Collection<Sentence> sentences = new LinkedList<Sentence>();
 
-		// Creates the sentences content aligned with the POS annotation and NER
-		// annotation.
-		for (int i = 0; mc.find() && ma.find() && men.find(); i++) {
-			String main = mc.group(1), pos = ma.group(1), ner = men.group(1);
-			if (!Regex.isCaption(main) && !Regex.isSection(main)) {
-				Sentence sentence = new Sentence(document.getId(), i + 1,
-						main.trim(), pos.trim(), ner);
-
-				Collection<Word> words = splitSentenceWords(document.getId(),
-						i + 1, sentence);
-				sentence.setWords(words);
-				sentences.add(sentence);
-				this.totalWords += sentence.getTotalWords();
+		try {
+			String main, pos, ner;
+
+			// Creates the sentences content aligned with the POS annotation
+			// and NER annotation, as each sentence is read.
+			for (int i = 0; (main = chunked.next()) != null
+					&& (pos = annotated.next()) != null
+					&& (ner = neAnnotation.next()) != null; i++) {
+				if (!Regex.isCaption(main) && !Regex.isSection(main)) {
+					Sentence sentence = new Sentence(document.getId(), i + 1,
+							main.trim(), pos.trim(), ner);
+
+					Collection<Word> words = splitSentenceWords(
+							document.getId(), i + 1, sentence);
+					sentence.setWords(words);
+					termIndex.addAll(words);
+					sentences.add(sentence);
+					this.totalWords += sentence.getTotalWords();
+				}
 			}
+		} catch (IOException e) {
+			System.out
+					.println("============= ERROR in class [Controller.splitSentences].\nException trace:");
+			System.out.println(e.toString());
+			e.printStackTrace();
 		}
 
+		// The annotations are kept in the sentences, so the whole annotated
+		// texts are released.
+		text.setChunked(null);
+		text.setPosTagged(null);
+		text.setNamedEntityAnnotation(null);
+
 		this.totalSentences += sentences.size();
 
 		return sentences;
@@ -546,123 +575,8 @@ public abstract class Controller {
 	private Collection<Word> splitSentenceWords(int docId, int sentenceId,
 			Sentence sentence) {
 
-		String[] posTokens = sentence.getPosTagged().trim()
-				.split(Regex.WHITESPACE + "+");
-		String[] originalTokens = sentence.getSentence().trim()
-				.split(Regex.WHITESPACE + "+");
-
-		LinkedList<Word> words = new LinkedList<Word>();
-
-		for (int i = 0, j = 0; i < originalTokens.length
-				&& j < posTokens.length; i++, j++) {
-
-			// Checks if the current token is composed only by punctuation.
-			boolean punctuationToken = Regex
-					.hasOnlyPunctuation(originalTokens[i]);
-
-			// Gets the words properties.
-			String original = originalTokens[i];
-			String token = Regex.getToken(posTokens[j]);
-			String lemmas = Regex.getLemma(posTokens[j]);
-			String annotation = Regex.getAnnotation(posTokens[j]);
-
-			// Gets the total number of non-word tokens in the original word
-			// token...
-			int nonWordTokens = Regex.numberNonWordTokens(originalTokens[i]);
-			// ... the number of non-word tokens before the original word...
-			int preTokens = Regex.numberPreNonWordTokens(originalTokens[i]);
-			// ... the number of non-word tokens after the original word ...
-			int postTokens = Regex.numberPostNonWordTokens(originalTokens[i]);
-			// ... and the total number of tokens currently in the original
-			// token.
-			// NOTE: "+ 1" defines the current token.
-			int numberOfTokens = preTokens + 1 + postTokens;
-
-			// If this token has pre-non-word tokens...
-			if (preTokens > 0 && !punctuationToken) {
-				// ...we'll skip these tokens, and get...
-				j += preTokens;
-				// ... the word token...
-				token = Regex.getToken(posTokens[j]);
-				// ... its lemmas...
-				lemmas = Regex.getLemma(posTokens[j]);
-				// ... and its annotation.
-				annotation = Regex.getAnnotation(posTokens[j]);
-			}
-
-			// Skips the token if it contains a contracted word and it is not
-			// exclusively a punctuation token...
-			if (Regex.isContraction(posTokens[j]) && !punctuationToken) {
-				// NOTE: the contracted token hasn't yet been counted as a
-				// non-word token, because it is in the annotated collection.
-				// The non-word tokens counting is done in the original token.
-				j++;
-				numberOfTokens++;
-				// If it is a contraction, keeps the token and the annotation
-				// from the two parts of the word.
-				if (j < posTokens.length) {
-					token += Regex.getToken(posTokens[j]);
-					annotation += " " + Regex.getAnnotation(posTokens[j]);
-				}
-			}
-
-			if (j + 1 < posTokens.length) {
-				// Skips the token if it contains a clitic and it is not
-				// exclusively a punctuation token...
-				if (Regex.hasClitic(posTokens[j + 1]) && !punctuationToken) {
-					// If it is a clitic, keeps the token and the annotation
-					// from the two parts of the word.
-					j++;
-					numberOfTokens++;
-					token += Regex.getToken(posTokens[j]);
-					annotation += " " + Regex.getAnnotation(posTokens[j]);
-				}
-			}
-
-			// When the token is exclusively a punctuation token...
-			if (punctuationToken) {
-				// ... we'll only count the non-word tokens...
-				numberOfTokens = nonWordTokens;
-				// (the "- 1" is due to the cycle future iteration)
-				j += nonWordTokens - 1;
-			}
-			// When the token is a compound word, that is, it has non-word
-			// tokens between two words, and:
-			else {
-				if (nonWordTokens > 0
-				// - it has no pre-tokens and no post-tokens, or
-						&& ((preTokens == 0 && postTokens == 0)
-						// - it has pre-tokens or post-tokens that must be the
-						// same number as the nonWordTokens
-						|| (nonWordTokens > (preTokens + postTokens)))) {
-					// ... we'll count the number of non-word tokens plus 2
-					// tokens that are
-					// the word previous to the non-word token and the word post
-					// the non-word token.
-					numberOfTokens = nonWordTokens + 2;
-					// (the "- 1" is due to the cycle future iteration)
-					int endCycle = j + numberOfTokens - 1;
-
-					token = "";
-					annotation = "";
-					while (j < posTokens.length && j < endCycle) {
-						token += Regex.getToken(posTokens[j]);
-						annotation += " " + Regex.getAnnotation(posTokens[j]);
-						j++;
-					}
-				}
-				// When the word is a common word...
-				else
-					j += postTokens;
-			}
-
-			// Ignores punctuation and whitespace tokens
-			SingleWord currentWord = new SingleWord(docId, sentenceId, i + 1,
-					numberOfTokens, original, token, lemmas, annotation);
-			words.addLast(currentWord);
-		}
-
-		return words;
+		return WordTokenizer.splitWords(symbols, docId, sentenceId,
+				sentence.getSentence(), sentence.getPosTagged());
 	}
 
 	/**
@@ -724,6 +638,10 @@ public abstract class Controller {
 		return demoLog;
 	}
 
+	public SummarizationConfig getConfig() {
+		return config;
+	}
+
 	public void setOptions(Option options) {
 		this.options = options;
 	}
@@ -748,4 +666,8 @@ public abstract class Controller {
 		this.demoLog = demoLog;
 	}
 
+	public void setConfig(SummarizationConfig config) {
+		this.config = config;
+	}
+
 }
@@ -12,6 +12,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Scanner;
 
 import preferences.Preferences;
@@ -60,11 +61,25 @@ public class IOController extends Controller {
 	 *            , the object retrieved by the process chosen.
 	 */
 	public void buildOutput(Object output) {
+		buildOutput(output, Preferences.OUTPUT_FILE);
+	}
+
+	/**
+	 * <p>
+	 * Builds the system output in the given file.
+	 * </p>
+	 * 
+	 * @param output
+	 *            , the object retrieved by the process chosen.
+	 * @param outputFile
+	 *            , the file in which the output is written.
+	 */
+	public void buildOutput(Object output, String outputFile) {
 
 		if (output instanceof Summary) {
 			try {
 				BufferedWriter writer = new BufferedWriter(new FileWriter(
-						Preferences.OUTPUT_FILE));
+						outputFile));
 				writer.write(((Summary) output).toString());
 				writer.close();
 			} catch (Exception e) {
@@ -122,6 +137,29 @@ public class IOController extends Controller {
 		return documents;
 	}
 
+	/**
+	 * <p>
+	 * Builds the document collection from the texts submitted by the user,
+	 * read as the input files are.
+	 * </p>
+	 * 
+	 * @param texts
+	 *            the texts, indexed by the name of their documents.
+	 * @return the document collection.
+	 */
+	public Collection<Document> manageInputTexts(Map<String, String> texts) {
+
+		Collection<Document> documents = new LinkedList<Document>();
+		int j = 0;
+
+		for (Map.Entry<String, String> entry : texts.entrySet()) {
+			Text text = new Text(readInput(new Scanner(entry.getValue())));
+			documents.add(new Document(j++, entry.getKey(), text));
+		}
+
+		return documents;
+	}
+
 	/**
 	 * <p>
 	 * Reads the input file.
@@ -134,7 +172,19 @@ public class IOController extends Controller {
 	 *             if the file does not exist;
 	 */
 	private String readInputFile(File current) throws FileNotFoundException {
-		Scanner input = new Scanner(new FileReader(current));
+		return readInput(new Scanner(new FileReader(current)));
+	}
+
+	/**
+	 * <p>
+	 * Reads an input text, line by line.
+	 * </p>
+	 * 
+	 * @param input
+	 *            the input text.
+	 * @return the text read.
+	 */
+	private String readInput(Scanner input) {
 		String original = "";
 
 		while (input.hasNextLine()) {
@@ -3,10 +3,9 @@ package controllers;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.Hashtable;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
@@ -15,11 +14,12 @@ import preferences.Preferences;
 import preferences.Regex;
 import preferences.Utils;
 import simplification.PostProcessedText;
+import simplification.SimplificationSearch;
 import summarization.Summary;
 import aux.PhraseCluster;
-import aux.PowerSet;
 import aux.SentenceCluster;
 import core.Connective;
+import core.ConnectiveLexicon;
 import core.Document;
 import core.ManageTrees;
 import core.Paragraph;
@@ -41,7 +41,7 @@ import external.ManageExternalTools;
  */
 public class PostProcessingController extends Controller {
 
-	private Hashtable<String, List<Connective>> annotatedConnectives;
+	private ConnectiveLexicon connectiveLexicon;
 	private List<Connective> insertedConnectives;
 	private int maximumCompression;
 
@@ -55,7 +55,6 @@ public class PostProcessingController extends Controller {
 	 */
 	public PostProcessingController() {
 		super();
-		this.annotatedConnectives = new Hashtable<String, List<Connective>>();
 		this.insertedConnectives = new LinkedList<Connective>();
 	}
 
@@ -148,9 +147,9 @@ public class PostProcessingController extends Controller {
 
 	public void postprocessText() {
 
-		if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.SIMPLIFIED)
+		if (config.getSummaryType() == Preferences.FINAL_SUMMARY_TYPE.SIMPLIFIED)
 			completePostProcessing();
-		else if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.ONLYPOSTPROCESSEDNOSUMMARY)
+		else if (config.getSummaryType() == Preferences.FINAL_SUMMARY_TYPE.ONLYPOSTPROCESSEDNOSUMMARY)
 			completePostProcessing();
 	}
 
@@ -228,9 +227,9 @@ public class PostProcessingController extends Controller {
 	 */
 	private Sentence simplifySentence(Sentence sentence) {
 
-		sentence.setParseTree(ManageExternalTools.parse(sentence.getPosTagged()));
-
-		Tree original = sentence.getParseTree().deepCopy();
+		// A sentence that could not be parsed (in time) is kept as it is.
+		Tree original = sentence.getParseTree() != null ? sentence
+				.getParseTree().deepCopy() : null;
 		Sentence simplified = new Sentence(sentence);
 		boolean hasBeenSimplified = false;
 
@@ -238,53 +237,33 @@ public class PostProcessingController extends Controller {
 			Collection<Phrase> removableTrees = ManageTrees
 					.convertTrees2Phrases(ManageTrees
 							.removablePassages(original));
-			Map<Sentence, Set<Phrase>> candidateSentences = new HashMap<Sentence, Set<Phrase>>();
-
 			if (removableTrees.size() > 0) {
 
-				PowerSet<Phrase> powerSet = new PowerSet<Phrase>(
-						new TreeSet<Phrase>(removableTrees));
-
-				for (Set<Phrase> current : powerSet) {
-
-					Tree removed = ManageTrees.removePhrases(original, current);
-
-					if (removed != null) {
-
-						Sentence subsentence = sentence
-								.buildSubSentence(removed);
-
-						if (subsentence != null
-								&& subsentence.getTotalWords() > 0
-								&& sentence.getTotalWords() != subsentence
-										.getTotalWords())
-							candidateSentences.put(subsentence, current);
-					}
-				}
-
-				// The first sentence in the collection is the one with the
-				// maximum score,
-				// so that it will be chosen to replace the original one.
-				if (candidateSentences.size() > 0) {
-
-					LinkedList<Sentence> sentences = new LinkedList<Sentence>(
-							candidateSentences.keySet());
-
-					sentences.add(sentence);
-					// The candidate sentences collection is sorted by the
-					// sentence simplification score.
-					Collections.sort(sentences,
-							Preferences.COMPARE_SENTENCE_COMPLETE_SCORE);
-
-					Sentence firstPlace = sentences.getFirst();
-
-					if (firstPlace.getTotalWords() != sentence.getTotalWords()) {
-
-						Set<Phrase> trees2remove = candidateSentences
-								.get(firstPlace);
-						Tree simplifiedTree = ManageTrees.removePhrases(
-								original, trees2remove);
-						simplified = sentence.buildSubSentence(simplifiedTree);
+				// The phrases are searched in the same order as before
+				// (TreeSet order).
+				SimplificationSearch search = new SimplificationSearch(
+						sentence, original, new LinkedList<Phrase>(
+								new TreeSet<Phrase>(removableTrees)),
+						Preferences.SIMPLIFICATION_MAX_SUBSENTENCES,
+						this.maximumCompression);
+				Set<Phrase> trees2remove = search.search();
+
+				// Only the best subsentence is built, and it replaces the
+				// original sentence if its score is not lower.
+				if (trees2remove != null) {
+
+					Tree simplifiedTree = ManageTrees.removePhrases(original,
+							trees2remove);
+					Sentence subsentence = sentence
+							.buildSubSentence(simplifiedTree);
+
+					if (subsentence != null
+							&& subsentence.getTotalWords() > 0
+							&& sentence.getTotalWords() != subsentence
+									.getTotalWords()
+							&& Preferences.COMPARE_SENTENCE_COMPLETE_SCORE
+									.compare(subsentence, sentence) <= 0) {
+						simplified = subsentence;
 						hasBeenSimplified = true;
 					}
 				}
@@ -298,6 +277,10 @@ public class PostProcessingController extends Controller {
 
 		Tree parseTree = ManageExternalTools.parse(sentence.getPosTagged());
 		sentence.setParseTree(parseTree);
+
+		if (parseTree == null)
+			return sentence;
+
 		Sentence simplified = new Sentence(sentence);
 
 		simplified.setParseTree(sentence.getParseTree().deepCopy());
@@ -351,9 +334,18 @@ public class PostProcessingController extends Controller {
 			Collection<Sentence> sentences) {
 
 		Collection<Sentence> newSentences = new LinkedList<Sentence>();
+		List<String> posTagged = new LinkedList<String>();
+
+		for (Sentence sentence : sentences)
+			posTagged.add(sentence.getPosTagged());
+
+		// All the sentences are parsed at the same time.
+		Iterator<Tree> trees = ManageExternalTools.parseAll(posTagged)
+				.iterator();
 
 		for (Sentence sentence : sentences) {
 
+			sentence.setParseTree(trees.next());
 			Sentence newSentence = simplifySentence(sentence);
 			newSentences.add(newSentence);
 		}
@@ -362,7 +354,7 @@ public class PostProcessingController extends Controller {
 	}
 
 	public void initialize() {
-		annotatedConnectives = Preferences.loadAnnotatedConnectives();
+		connectiveLexicon = Preferences.getConnectiveLexicon();
 	}
 
 	/**
@@ -375,10 +367,8 @@ public class PostProcessingController extends Controller {
 
 		initialize();
 
-		List<Connective> connectives = Utils
-				.convertCollection2List(annotatedConnectives.values());
 		LinkedList<Sentence> orderedSentences = (LinkedList<Sentence>) Utils
-				.removeAllConnectives(connectives, sentences), newSentences = new LinkedList<Sentence>();
+				.removeAllConnectives(connectiveLexicon.getIndex(), sentences), newSentences = new LinkedList<Sentence>();
 
 		for (int i = 0; i < orderedSentences.size(); i++) {
 			boolean added = false;
@@ -461,10 +451,9 @@ public class PostProcessingController extends Controller {
 		String classType = Preferences.getClassTypeForSubtype(subtype);
 
 		// Obter os conectores possíveis.
-		List<Connective> candidates = annotatedConnectives.get(classType);
-
-		if (subtype != null)
-			candidates = Utils.filterBySubtype(candidates, subtype);
+		List<Connective> candidates = subtype != null ? connectiveLexicon
+				.getConnectives(classType, subtype) : connectiveLexicon
+				.getConnectives(classType);
 
 		Connective connective = selectConnective(candidates,
 				sentence.getPosTagged(), 0);
@@ -503,7 +492,7 @@ public class PostProcessingController extends Controller {
 
 			number++;
 
-			if (number > Preferences.MAX_CONNECTIVES) {
+			if (number > connectiveLexicon.getMaxConnectives()) {
 				System.out.println("ERROR: Returning connective as null...");
 				return null;
 			}
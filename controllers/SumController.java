@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Random;
@@ -12,6 +13,8 @@ import java.util.Map.Entry;
 import java.util.TreeMap;
 
 import aux.SentenceCluster;
+import aux.SimilarityCandidates;
+import aux.SimilarityMatrix;
 
 import options.SumOptions;
 
@@ -19,6 +22,7 @@ import preferences.Preferences;
 import preferences.Utils;
 
 import core.Document;
+import core.KeywordSet;
 import core.NamedEntity;
 import core.Sentence;
 import core.SingleWord;
@@ -108,20 +112,69 @@ public class SumController extends Controller {
 	}
 
 	public Summary buildNonSimplifiedSummary() {
-		Preferences.SUMMARY_TYPE = Preferences.FINAL_SUMMARY_TYPE.NONSIMPLIFIED;
+		config = config
+				.withSummaryType(Preferences.FINAL_SUMMARY_TYPE.NONSIMPLIFIED);
 		return buildSummary();
 	}
 
 	public Summary buildNonPostProcessedSummary() {
-		Preferences.SUMMARY_TYPE = Preferences.FINAL_SUMMARY_TYPE.NONSIMPLIFIED;
+		config = config
+				.withSummaryType(Preferences.FINAL_SUMMARY_TYPE.NONSIMPLIFIED);
 		return buildSummary();
 	}
 
 	public Summary postProcessText() {
-		Preferences.SUMMARY_TYPE = Preferences.FINAL_SUMMARY_TYPE.ONLYPOSTPROCESSEDNOSUMMARY;
+		config = config
+				.withSummaryType(Preferences.FINAL_SUMMARY_TYPE.ONLYPOSTPROCESSEDNOSUMMARY);
 		return buildPostProcessedText();
 	}
 
+	/**
+	 * <p>
+	 * Builds the summary of the type defined in the configuration.
+	 * </p>
+	 * 
+	 * @return the summary; null if the type has no summary (see hasSummary).
+	 */
+	public Summary summarize() {
+		Preferences.FINAL_SUMMARY_TYPE type = config.getSummaryType();
+
+		if (type == Preferences.FINAL_SUMMARY_TYPE.SIMPLIFIED)
+			return buildSummary();
+		else if (type == Preferences.FINAL_SUMMARY_TYPE.NONSIMPLIFIED)
+			return buildNonSimplifiedSummary();
+		else if (type == Preferences.FINAL_SUMMARY_TYPE.NONPOSTPROCESSED)
+			return buildNonPostProcessedSummary();
+		else if (type == Preferences.FINAL_SUMMARY_TYPE.RANDOMBASELINE)
+			return buidRandomSummary();
+		else if (type == Preferences.FINAL_SUMMARY_TYPE.SIMPLIFICATIONBASELINE)
+			return buildSimplificationBaselineSummary();
+		else if (type == Preferences.FINAL_SUMMARY_TYPE.PARAGRAPHBASELINE)
+			return buildParagraphsBaselineSummary();
+		else if (type == Preferences.FINAL_SUMMARY_TYPE.CONNECTIVESBASELINE)
+			return buildConnectivesBaselineSummary();
+		else if (type == Preferences.FINAL_SUMMARY_TYPE.ONLYPOSTPROCESSEDNOSUMMARY) {
+			((SumOptions) options).setCompressionRate(1);
+			return postProcessText();
+		}
+
+		return null;
+	}
+
+	/**
+	 * <p>
+	 * Checks if summarize builds a summary of the given type.
+	 * </p>
+	 * 
+	 * @param type
+	 *            the summary type.
+	 * @return true if the type has a summary; false otherwise.
+	 */
+	public static boolean hasSummary(Preferences.FINAL_SUMMARY_TYPE type) {
+		return type != Preferences.FINAL_SUMMARY_TYPE.REPLACECONNECTIVES
+				&& type != Preferences.FINAL_SUMMARY_TYPE.REPLACEPARAGRAPHS;
+	}
+
 	public Summary buildPostProcessedText() {
 
 		preprocessing();
@@ -140,6 +193,7 @@ public class SumController extends Controller {
 		ppc = new PostProcessingController(this.documents, this.summary,
 				this.keywords);
 		ppc.setDemoLog(this.demoLog);
+		ppc.setConfig(config);
 		ppc.setCompression(maximumCompression);
 		ppc.postprocessText();
 		this.postProcessedText = ppc.getPostProcessedText();
@@ -287,8 +341,8 @@ public class SumController extends Controller {
 		System.out.println("\tComputing global properties...");
 		computeGlobalProperties();
 		Utils.endCountingTime(start);
-		Preferences.setMaxKeywords(this.maximumCompression); // TODO to try
-																// this...
+		config = config.withMaxKeywords(Preferences
+				.maxKeywords(this.maximumCompression)); // TODO to try this...
 
 		// ---------------------------------------------------
 		// Demo log
@@ -392,18 +446,19 @@ public class SumController extends Controller {
 		System.out.println("\tSorting sentences...");
 		sorting2compress();
 
-		if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.NONSIMPLIFIED) {
+		if (config.getSummaryType() == Preferences.FINAL_SUMMARY_TYPE.NONSIMPLIFIED) {
 			System.out.println("\tCompressing...");
 			compress();
 		} else {
 
 			System.out.println("\tPost-processing text...");
 
-			System.out.println("--[STATISTICS] " + Preferences.OUTPUT_FILE);
+			System.out.println("--[STATISTICS] " + config.getOutputFile());
 
 			ppc = new PostProcessingController(this.documents, this.summary,
 					this.keywords);
 			ppc.setDemoLog(this.demoLog);
+			ppc.setConfig(config);
 			ppc.setCompression(maximumCompression);
 			ppc.postprocessText();
 			this.postProcessedText = ppc.getPostProcessedText();
@@ -472,6 +527,13 @@ public class SumController extends Controller {
 		int numberOfSentences = 0, key = 0, clustersNumber = similarityClusters
 				.size();
 
+		// Pairs of sentences that cannot reach the threshold are not compared.
+		SimilarityCandidates candidates = (Preferences.SIMILARITY_CANDIDATES ? new SimilarityCandidates(
+				allSentences, Preferences.SENTENCE_SIMILIARITY_THRESHOLD)
+				: null);
+		SimilarityMatrix matrix = new SimilarityMatrix(allSentences,
+				candidates, Preferences.SIMILARITY_THREADS);
+
 		for (Sentence firstSentence : allSentences) {
 			// 1. Computes the similarity between the current sentence and all
 			// sentences
@@ -502,12 +564,17 @@ public class SumController extends Controller {
 
 					// Gets the higher similarity value for this cluster.
 					for (Sentence sentence : values) {
-						double similarity = Utils
-								.computeSentence2SentenceSimilarity(
-										firstSentence, sentence);
+						if (!matrix.isCandidate(firstSentence, sentence))
+							continue;
+
+						double similarity = matrix.similarity(firstSentence,
+								sentence);
 						similarities.add(new Double(similarity));
 					}
 
+					if (similarities.isEmpty())
+						continue;
+
 					Collections.sort(similarities);
 
 					double higherSim = similarities.getLast().doubleValue();
@@ -688,6 +755,10 @@ public class SumController extends Controller {
 		this.keywordClusters = new HashMap<String, SentenceCluster>();
 		this.nullSentences = null;
 
+		// The keywords occurrences in each sentence are computed once, for
+		// every clustering iteration.
+		KeywordSet keywordSet = new KeywordSet(keywords);
+
 		int previous = 0;
 
 		while (nullSentences == null || nullSentences.size() != previous) {
@@ -722,7 +793,7 @@ public class SumController extends Controller {
 
 			// Adds the sentences to the clusters based on the keywords.
 			nullSentences = addSentences2Clusters(nullSentences,
-					keywordClusters, keywords);
+					keywordClusters, keywordSet);
 		}
 
 		Set<Map.Entry<String, SentenceCluster>> set = keywordClusters
@@ -785,8 +856,7 @@ public class SumController extends Controller {
 				) / 3;
 
 				sentence.setKeywordClusterScore(finalKeywordClusterScore);
-				int numberKeywords = Utils.countWordsInSentence(keywords,
-						sentence);
+				int numberKeywords = keywordSet.countWords(sentence);
 				sentence.updateExtraScore(numberKeywords);
 				sentence.setNumberOfKeywords(numberKeywords);
 
@@ -833,15 +903,22 @@ public class SumController extends Controller {
 	 * @param clusters
 	 *            the clusters already defined.
 	 * @param keywords
-	 *            the already clustered sentence keywords.
+	 *            the already clustered sentence keywords, indexed.
 	 * @return the collection of sentences that were not added to the clusters.
 	 */
 	private Collection<Sentence> addSentences2Clusters(
 			Collection<Sentence> sentences,
-			HashMap<String, SentenceCluster> clusters, Collection<Word> keywords) {
+			HashMap<String, SentenceCluster> clusters, KeywordSet keywords) {
 
 		Collection<Sentence> nullSentences = new LinkedList<Sentence>();
 
+		// The keywords are ranked by their score order, which is the same for
+		// every sentence.
+		Map<Word, Integer> keywordOrder = new TreeMap<Word, Integer>();
+		for (int i = 0; i < keywords.size(); i++)
+			keywordOrder.put(keywords.getKeywords().get(i), new Integer(i));
+		keywordOrder = new LinkedHashMap<Word, Integer>(keywordOrder);
+
 		// Counts the occurrences of each keyword in the sentence.
 		// The sentence is added to the cluster where its keyword is most
 		// frequent in the sentence.
@@ -850,15 +927,15 @@ public class SumController extends Controller {
 			double maxScore = -1;
 			Word keyword = null;
 
-			Map<Word, Integer> keywordOccurrences = new TreeMap<Word, Integer>();
+			Map<Word, Integer> keywordOccurrences = new LinkedHashMap<Word, Integer>();
+			int[] occurrences = keywords.occurrences(currentSentence);
 
-			for (Word word : keywords) {
+			for (Map.Entry<Word, Integer> entry : keywordOrder.entrySet()) {
 
 				// Counts the occurrences of this keyword in the current
 				// sentence.
-				int occurrences = currentSentence
-						.computeKeywordOccurrences(word);
-				keywordOccurrences.put(word, new Integer(occurrences));
+				keywordOccurrences.put(entry.getKey(), new Integer(
+						occurrences[entry.getValue().intValue()]));
 			}
 
 			keywordOccurrences = Preferences.sortByValue(keywordOccurrences);
@@ -883,8 +960,8 @@ public class SumController extends Controller {
 							keyword = (NamedEntity) word;
 					} else if (value == maxOccurrences) {
 
-						int numberKeywords = Utils.countWordsInSentence(
-								this.keywords, currentSentence);
+						int numberKeywords = keywords
+								.countWords(currentSentence);
 
 						if (numberKeywords > maxKeywords) {
 							maxKeywords = numberKeywords;
@@ -1079,19 +1156,22 @@ public class SumController extends Controller {
 	}
 
 	public Summary buildSimplificationBaselineSummary() {
-		Preferences.SUMMARY_TYPE = Preferences.FINAL_SUMMARY_TYPE.SIMPLIFICATIONBASELINE;
+		config = config
+				.withSummaryType(Preferences.FINAL_SUMMARY_TYPE.SIMPLIFICATIONBASELINE);
 		return buildSummary();
 	}
 
 	public Summary buildParagraphsBaselineSummary() {
 
-		Preferences.SUMMARY_TYPE = Preferences.FINAL_SUMMARY_TYPE.PARAGRAPHBASELINE;
+		config = config
+				.withSummaryType(Preferences.FINAL_SUMMARY_TYPE.PARAGRAPHBASELINE);
 		return buildSummary();
 	}
 
 	public Summary buildConnectivesBaselineSummary() {
 
-		Preferences.SUMMARY_TYPE = Preferences.FINAL_SUMMARY_TYPE.CONNECTIVESBASELINE;
+		config = config
+				.withSummaryType(Preferences.FINAL_SUMMARY_TYPE.CONNECTIVESBASELINE);
 		return buildSummary();
 	}
 }
@@ -18,7 +18,7 @@ public class Connective {
 	private String type;
 	private String sentenceVersion;
 	private String rule;
-	private Collection<Word> words;
+	private Pattern rulePattern;
 
 	public Connective(String connective, String annotated, String subtype,
 			String gramType, String classType, String rule) {
@@ -54,8 +54,10 @@ public class Connective {
 		else
 			this.rule = rule;
 
+		if (this.rule != null)
+			this.rulePattern = Pattern.compile(".*?" + this.rule + ".+");
+
 		this.connective2search = manageSearch(true);
-		setWords(buildWords());
 	}
 
 	private Collection<Word> buildWords() {
@@ -93,12 +95,14 @@ public class Connective {
 		this.sentenceVersion = sentenceVersion;
 	}
 
+	/**
+	 * <p>
+	 * Builds the words of the connective. Each call builds new words, since
+	 * the connectives are shared and the words are scored in each sentence.
+	 * </p>
+	 */
 	public Collection<Word> getWords() {
-		return words;
-	}
-
-	public void setWords(Collection<Word> words) {
-		this.words = new LinkedList<Word>(words);
+		return buildWords();
 	}
 
 	public String toPrint() {
@@ -186,8 +190,7 @@ public class Connective {
 
 		String verb = Regex.getFirstVerb(sentence);
 
-		String pattern = ".*?" + this.rule + ".+";
-		Matcher ma = Pattern.compile(pattern).matcher(verb);
+		Matcher ma = rulePattern.matcher(verb);
 		return ma.find();
 
 	}
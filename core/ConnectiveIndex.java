@@ -0,0 +1,461 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import preferences.Regex;
+
+/**
+ * <p>
+ * This class indexes a list of connectives, so that the connective that
+ * starts a sentence, or that is placed between commas in the middle of it, is
+ * found in a single scan of the sentence.
+ * </p>
+ * <p>
+ * The printed forms of the connectives are kept in two character tries (one
+ * for the capitalized forms that start a sentence, other for the forms in the
+ * middle of it). The patterns that find the connectives in the POS-tagged
+ * sentences, and the connectives that contain each other, are computed once,
+ * when the index is built.
+ * </p>
+ * <p>
+ * The connectives are found as Utils.removeAllConnectives used to find them,
+ * one pattern per connective: the first connective of the list found in the
+ * sentence is the one removed, and a connective contained in a larger one
+ * found in the sentence is ignored.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class ConnectiveIndex {
+
+	/**
+	 * <p>
+	 * Position of a connective that starts the sentence.
+	 * </p>
+	 **/
+	private static final int START = -1;
+	/**
+	 * <p>
+	 * Suffix of each word in the search version of a connective.
+	 * </p>
+	 **/
+	private static final String TAG_SUFFIX = Regex.ANNOTATION_SPLITTER
+			+ Regex.NONWHITESPACE_REGEX;
+
+	/**
+	 * <p>
+	 * Indexed connectives, by order.
+	 * </p>
+	 **/
+	private Connective[] connectives;
+	/**
+	 * <p>
+	 * Trie of the capitalized printed connectives.
+	 * </p>
+	 **/
+	private Node startTrie;
+	/**
+	 * <p>
+	 * Trie of the printed connectives.
+	 * </p>
+	 **/
+	private Node middleTrie;
+	/**
+	 * <p>
+	 * Words of the search version of each connective.
+	 * </p>
+	 **/
+	private String[][] searchWords;
+	/**
+	 * <p>
+	 * For each connective, the larger connectives that contain it.
+	 * </p>
+	 **/
+	private int[][] containers;
+	/**
+	 * <p>
+	 * Patterns that find each connective at the start of a POS-tagged
+	 * sentence.
+	 * </p>
+	 **/
+	private Pattern[] startPatterns;
+	/**
+	 * <p>
+	 * Patterns that find each connective in the middle of a POS-tagged
+	 * sentence.
+	 * </p>
+	 **/
+	private Pattern[] middlePatterns;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new ConnectiveIndex for the given connectives.
+	 * </p>
+	 *
+	 * @param connectives
+	 *            the connectives, by the order in which they are searched.
+	 */
+	public ConnectiveIndex(Collection<Connective> connectives) {
+		this.connectives = connectives.toArray(new Connective[connectives
+				.size()]);
+		this.startTrie = new Node();
+		this.middleTrie = new Node();
+
+		int total = this.connectives.length;
+		this.searchWords = new String[total][];
+		this.containers = new int[total][];
+		this.startPatterns = new Pattern[total];
+		this.middlePatterns = new Pattern[total];
+
+		for (int i = 0; i < total; i++) {
+			Connective connective = this.connectives[i];
+			String printed = connective.toPrint();
+
+			if (printed.length() > 0) {
+				startTrie.add(Regex.capitalizeFirst(printed), i);
+				middleTrie.add(printed, i);
+			}
+
+			searchWords[i] = searchWords(connective
+					.searchVersionWithoutAnnotation());
+
+			String search = connective.searchVersion();
+			startPatterns[i] = Pattern.compile("^" + "(?:"
+					+ Regex.capitalizeFirst(search) + "|" + search + ")"
+					+ "(?: " + Regex.COMMA2SEARCH + ")" + "(.*)$");
+			middlePatterns[i] = Pattern.compile("^(.*?)" + Regex.BLANK_SPACE
+					+ Regex.COMMA2SEARCH + Regex.BLANK_SPACE + search
+					+ Regex.BLANK_SPACE + Regex.COMMA2SEARCH
+					+ Regex.BLANK_SPACE + "?" + "(.*)$");
+		}
+
+		for (int i = 0; i < total; i++) {
+			List<Integer> larger = new ArrayList<Integer>();
+
+			for (int j = 0; j < total; j++)
+				if (searchWords[j].length > 1
+						&& !sameWords(searchWords[i], searchWords[j])
+						&& containsWords(searchWords[j], searchWords[i]))
+					larger.add(j);
+
+			containers[i] = new int[larger.size()];
+			for (int k = 0; k < containers[i].length; k++)
+				containers[i][k] = larger.get(k);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Checks if this index was built for the given connectives, in the same
+	 * order.
+	 * </p>
+	 *
+	 * @param connectives
+	 *            the connectives.
+	 * @return true if the index holds the same connectives; false otherwise.
+	 */
+	public boolean indexes(Collection<Connective> connectives) {
+		if (connectives.size() != this.connectives.length)
+			return false;
+
+		int i = 0;
+		for (Connective connective : connectives)
+			if (connective != this.connectives[i++])
+				return false;
+
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Removes the first connective found at the start of a sentence, or
+	 * between commas in the middle of it.
+	 * </p>
+	 *
+	 * @param sentence
+	 *            the sentence.
+	 * @param posTagged
+	 *            the POS-tagged version of the sentence.
+	 * @return the sentence and its POS-tagged version without the connective;
+	 *         null if no connective was found.
+	 */
+	public String[] removeConnective(String sentence, String posTagged) {
+		Map<Integer, Integer> found = find(sentence);
+
+		for (Map.Entry<Integer, Integer> entry : found.entrySet()) {
+			int connective = entry.getKey();
+			int position = entry.getValue();
+
+			if (isContained(connective, sentence))
+				continue;
+
+			String printed = connectives[connective].toPrint();
+
+			if (position == START) {
+				Matcher m = startPatterns[connective].matcher(posTagged);
+
+				if (m.find())
+					return new String[] {
+							sentence.substring(Regex.capitalizeFirst(printed)
+									.length() + 1), m.group(1) };
+			} else {
+				Matcher m = middlePatterns[connective].matcher(posTagged);
+
+				if (m.find()) {
+					int end = position + printed.length() + 3;
+					if (end < sentence.length()
+							&& sentence.charAt(end) == ' ')
+						end++;
+
+					return new String[] {
+							sentence.substring(0, position)
+									+ Regex.BLANK_SPACE
+									+ sentence.substring(end),
+							m.group(1) + Regex.BLANK_SPACE + m.group(2) };
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * <p>
+	 * Finds the connectives of a sentence in a single scan.
+	 * </p>
+	 *
+	 * @param sentence
+	 *            the sentence.
+	 * @return the connectives found, by order, with the position of the comma
+	 *         before its first occurrence in the middle of the sentence (START
+	 *         if the connective starts the sentence).
+	 */
+	private Map<Integer, Integer> find(String sentence) {
+		TreeMap<Integer, Integer> found = new TreeMap<Integer, Integer>();
+
+		for (Integer connective : startTrie.find(sentence, 0))
+			found.put(connective, START);
+
+		for (int p = 0; p + 1 < sentence.length(); p++) {
+			if (sentence.charAt(p) == ',' && sentence.charAt(p + 1) == ' ') {
+				for (Integer connective : middleTrie.find(sentence, p + 2))
+					if (!found.containsKey(connective))
+						found.put(connective, p);
+			}
+		}
+
+		return found;
+	}
+
+	/**
+	 * <p>
+	 * Checks if the sentence contains a larger connective that contains the
+	 * given one.
+	 * </p>
+	 *
+	 * @param connective
+	 *            the connective.
+	 * @param sentence
+	 *            the sentence.
+	 * @return true if the connective must be ignored in this sentence.
+	 */
+	private boolean isContained(int connective, String sentence) {
+		if (containers[connective].length == 0)
+			return false;
+
+		String[] tokens = sentence.split(Regex.BLANK_SPACE, -1);
+
+		for (int larger : containers[connective])
+			if (containsTagged(tokens, searchWords[larger]))
+				return true;
+
+		return false;
+	}
+
+	/**
+	 * <p>
+	 * Checks if the tokens contain the given words, each followed by its tag,
+	 * either in the middle of the tokens or capitalized at the start of them.
+	 * </p>
+	 */
+	private static boolean containsTagged(String[] tokens, String[] words) {
+		for (int t = 0; t + words.length <= tokens.length; t++) {
+			boolean matches = true;
+
+			for (int w = 0; w < words.length && matches; w++) {
+				String word = (t == 0 && w == 0) ? Regex
+						.capitalizeFirst(words[w]) : words[w];
+				matches = isTagged(tokens[t + w], word,
+						w == words.length - 1);
+			}
+
+			if (matches)
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * <p>
+	 * Checks if a token is the given word followed by a tag.
+	 * </p>
+	 *
+	 * @param token
+	 *            the token.
+	 * @param word
+	 *            the word.
+	 * @param last
+	 *            true if the token may continue after the tag.
+	 */
+	private static boolean isTagged(String token, String word, boolean last) {
+		int start = word.length() + Regex.ANNOTATION_SPLITTER.length();
+
+		if (token.length() <= start
+				|| !token.startsWith(word + Regex.ANNOTATION_SPLITTER))
+			return false;
+
+		int end = last ? start + 1 : token.length();
+		for (int i = start; i < end; i++)
+			if (isWhitespace(token.charAt(i)))
+				return false;
+
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Checks if a character is a whitespace, as defined by the regular
+	 * expressions.
+	 * </p>
+	 */
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B'
+				|| c == '\f' || c == '\r';
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the words of the search version of a connective.
+	 * </p>
+	 */
+	private static String[] searchWords(String search) {
+		String[] words = search.split(Regex.BLANK_SPACE);
+
+		for (int i = 0; i < words.length; i++)
+			if (words[i].endsWith(TAG_SUFFIX))
+				words[i] = words[i].substring(0, words[i].length()
+						- TAG_SUFFIX.length());
+
+		return words;
+	}
+
+	/**
+	 * <p>
+	 * Checks if two connectives have the same words.
+	 * </p>
+	 */
+	private static boolean sameWords(String[] first, String[] second) {
+		if (first.length != second.length)
+			return false;
+
+		for (int i = 0; i < first.length; i++)
+			if (!first[i].equals(second[i]))
+				return false;
+
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Checks if the words of a connective contain, in sequence, the words of
+	 * another one.
+	 * </p>
+	 */
+	private static boolean containsWords(String[] larger, String[] smaller) {
+		for (int t = 0; t + smaller.length <= larger.length; t++) {
+			boolean matches = true;
+
+			for (int w = 0; w < smaller.length && matches; w++)
+				matches = larger[t + w].equals(smaller[w]);
+
+			if (matches)
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * <p>
+	 * Node of a character trie of connectives.
+	 * </p>
+	 */
+	private static class Node {
+
+		private HashMap<Character, Node> children = new HashMap<Character, Node>();
+		private List<Integer> connectives;
+
+		/**
+		 * <p>
+		 * Adds a connective to the trie.
+		 * </p>
+		 */
+		public void add(String printed, int connective) {
+			Node node = this;
+
+			for (int i = 0; i < printed.length(); i++) {
+				Character c = printed.charAt(i);
+				Node child = node.children.get(c);
+
+				if (child == null) {
+					child = new Node();
+					node.children.put(c, child);
+				}
+
+				node = child;
+			}
+
+			if (node.connectives == null)
+				node.connectives = new ArrayList<Integer>();
+			node.connectives.add(connective);
+		}
+
+		/**
+		 * <p>
+		 * Finds the connectives that start at the given position of a
+		 * sentence and are followed by a comma.
+		 * </p>
+		 */
+		public List<Integer> find(String sentence, int start) {
+			List<Integer> found = new ArrayList<Integer>();
+			Node node = this;
+
+			for (int i = start; i < sentence.length() && node != null; i++) {
+				if (sentence.charAt(i) == ',' && node.connectives != null)
+					found.addAll(node.connectives);
+
+				node = node.children.get(sentence.charAt(i));
+			}
+
+			return found;
+		}
+	}
+
+	/** Getters & Setters **/
+	public int size() {
+		return connectives.length;
+	}
+
+}
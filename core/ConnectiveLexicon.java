@@ -0,0 +1,274 @@
+package core;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.Set;
+
+import preferences.Regex;
+import preferences.Utils;
+
+/**
+ * <p>
+ * This class defines the lexicon of annotated connectives read from the
+ * connectives file.
+ * </p>
+ * <p>
+ * The connectives are indexed by class and by subtype when the file is read,
+ * and the lexicon is never changed afterwards, so that it can be shared by
+ * every summarization. A new lexicon must be read when the file changes.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class ConnectiveLexicon {
+
+	/**
+	 * <p>
+	 * Separator of the fields in the connectives file.
+	 * </p>
+	 **/
+	private static final String CONNECTIVES_FILE_SPLITTER = ";;";
+
+	/**
+	 * <p>
+	 * Connectives file.
+	 * </p>
+	 **/
+	private File file;
+	/**
+	 * <p>
+	 * Modification time of the file when it was read.
+	 * </p>
+	 **/
+	private long lastModified;
+	/**
+	 * <p>
+	 * Length of the file when it was read.
+	 * </p>
+	 **/
+	private long length;
+	/**
+	 * <p>
+	 * Connectives of each class.
+	 * </p>
+	 **/
+	private Map<String, List<Connective>> classes;
+	/**
+	 * <p>
+	 * Connectives of each subtype, for each class.
+	 * </p>
+	 **/
+	private Map<String, Map<String, List<Connective>>> subtypes;
+	/**
+	 * <p>
+	 * Every connective, by the order of the classes.
+	 * </p>
+	 **/
+	private List<Connective> connectives;
+	/**
+	 * <p>
+	 * Index of every connective.
+	 * </p>
+	 **/
+	private ConnectiveIndex index;
+	/**
+	 * <p>
+	 * Number of connectives of the largest class.
+	 * </p>
+	 **/
+	private int maxConnectives;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new ConnectiveLexicon by reading the given connectives file.
+	 * </p>
+	 *
+	 * @param file
+	 *            the connectives file.
+	 */
+	public ConnectiveLexicon(File file) {
+		this.file = file;
+		this.lastModified = file.lastModified();
+		this.length = file.length();
+
+		Hashtable<String, List<Connective>> annotatedConnectives = read(file);
+		HashMap<String, Map<String, List<Connective>>> subtypes = new HashMap<String, Map<String, List<Connective>>>();
+		this.maxConnectives = 0;
+
+		for (Map.Entry<String, List<Connective>> entry : annotatedConnectives
+				.entrySet()) {
+			HashMap<String, List<Connective>> classSubtypes = new HashMap<String, List<Connective>>();
+
+			for (Connective connective : entry.getValue()) {
+				List<Connective> subtype = classSubtypes.get(connective
+						.getSubtype());
+
+				if (subtype == null) {
+					subtype = new ArrayList<Connective>();
+					classSubtypes.put(connective.getSubtype(), subtype);
+				}
+
+				subtype.add(connective);
+			}
+
+			for (Map.Entry<String, List<Connective>> subtype : classSubtypes
+					.entrySet())
+				subtype.setValue(Collections.unmodifiableList(subtype
+						.getValue()));
+
+			subtypes.put(entry.getKey(),
+					Collections.unmodifiableMap(classSubtypes));
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+
+			if (entry.getValue().size() > maxConnectives)
+				maxConnectives = entry.getValue().size();
+		}
+
+		this.classes = Collections.unmodifiableMap(annotatedConnectives);
+		this.subtypes = Collections.unmodifiableMap(subtypes);
+		this.connectives = Collections.unmodifiableList(Utils
+				.convertCollection2List(annotatedConnectives.values()));
+		this.index = new ConnectiveIndex(connectives);
+	}
+
+	/**
+	 * <p>
+	 * Reads the connectives file.
+	 * </p>
+	 *
+	 * @param file
+	 *            the connectives file.
+	 * @return the connectives of each class.
+	 */
+	private static Hashtable<String, List<Connective>> read(File file) {
+
+		Hashtable<String, List<Connective>> annotatedConnectives = new Hashtable<String, List<Connective>>();
+
+		try {
+			Scanner s = new Scanner(file);
+			List<Connective> connectives = null;
+			// Read preferences file
+			while (s.hasNext()) {
+				String line = s.nextLine(), currentClass = "";
+
+				if (!line.startsWith("#") && !line.equals("")) {
+
+					String[] tokens = line.split(CONNECTIVES_FILE_SPLITTER);
+					currentClass = tokens[0] + Regex.ANNOTATION_SPLITTER
+							+ tokens[1] + Regex.ANNOTATION_SPLITTER;
+					connectives = new ArrayList<Connective>();
+
+					while (s.hasNext()) {
+						line = s.nextLine();
+						if (!line.startsWith("#")) {
+
+							if (line.equals(""))
+								break;
+
+							String[] types = line
+									.split(CONNECTIVES_FILE_SPLITTER);
+
+							Connective connective = new Connective(types[0],
+									types[1], types[2], types[3], currentClass,
+									types[4]);
+							connectives.add(connective);
+						}
+
+					}
+
+					annotatedConnectives.put(currentClass, connectives);
+				}
+
+			}
+			s.close();
+		} catch (Exception e) {
+			System.out
+					.println("============= ERROR in class [ConnectiveLexicon.read].\nException trace:");
+			System.out.println(e.toString());
+			e.printStackTrace();
+		}
+
+		return annotatedConnectives;
+	}
+
+	/**
+	 * <p>
+	 * Checks if the given file is not the one read by this lexicon, or if it
+	 * has changed since it was read.
+	 * </p>
+	 *
+	 * @param file
+	 *            the connectives file.
+	 * @return true if the file must be read again; false otherwise.
+	 */
+	public boolean isModified(File file) {
+		return !file.getAbsoluteFile().equals(this.file.getAbsoluteFile())
+				|| file.lastModified() != lastModified
+				|| file.length() != length;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the connectives of a class.
+	 * </p>
+	 *
+	 * @param classType
+	 *            the class.
+	 * @return the connectives of the class; null if the class is unknown.
+	 */
+	public List<Connective> getConnectives(String classType) {
+		return classes.get(classType);
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the connectives of a class with the given subtype.
+	 * </p>
+	 *
+	 * @param classType
+	 *            the class.
+	 * @param subtype
+	 *            the subtype.
+	 * @return the connectives of the class with the subtype, or every
+	 *         connective of the class if none has the subtype; null if the
+	 *         class is unknown.
+	 */
+	public List<Connective> getConnectives(String classType, String subtype) {
+		Map<String, List<Connective>> classSubtypes = subtypes.get(classType);
+
+		if (classSubtypes == null)
+			return null;
+
+		List<Connective> connectives = classSubtypes.get(subtype);
+
+		return connectives != null ? connectives : classes.get(classType);
+	}
+
+	/** Getters & Setters **/
+	public List<Connective> getConnectives() {
+		return connectives;
+	}
+
+	public Set<String> getClasses() {
+		return classes.keySet();
+	}
+
+	public ConnectiveIndex getIndex() {
+		return index;
+	}
+
+	public int getMaxConnectives() {
+		return maxConnectives;
+	}
+
+}
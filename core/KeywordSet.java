@@ -0,0 +1,318 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * <p>
+ * This class defines a set of keywords, indexed so that the keywords that
+ * represent a word are found without comparing the word with every keyword.
+ * </p>
+ * <p>
+ * The single word keywords are indexed by their keys (see TermIndex.keyIds),
+ * interned in the symbol table of the run the keywords belong to: a single
+ * word represents a keyword if and only if they share a key. The other keywords (named entities) are checked one by one.
+ * </p>
+ * <p>
+ * The occurrences of the keywords in each sentence are computed once, so the
+ * sentences must not change while the set is used.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class KeywordSet {
+
+	/**
+	 * <p>
+	 * Keywords, by order.
+	 * </p>
+	 **/
+	private ArrayList<Word> keywords;
+	/**
+	 * <p>
+	 * Positions of the single word keywords indexed by each of their keys.
+	 * </p>
+	 **/
+	private HashMap<Integer, List<Integer>> postings;
+	/**
+	 * <p>
+	 * Positions of the keywords that are not single words.
+	 * </p>
+	 **/
+	private ArrayList<Integer> otherKeywords;
+	/**
+	 * <p>
+	 * Occurrences of each keyword in the sentences already seen.
+	 * </p>
+	 **/
+	private IdentityHashMap<Sentence, int[]> occurrences;
+	/**
+	 * <p>
+	 * Symbol table in which the keys are interned (the table of the first
+	 * single word keyword, or a table of its own).
+	 * </p>
+	 **/
+	private SymbolTable symbols;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new empty KeywordSet.
+	 * </p>
+	 */
+	public KeywordSet() {
+		this.keywords = new ArrayList<Word>();
+		this.postings = new HashMap<Integer, List<Integer>>();
+		this.otherKeywords = new ArrayList<Integer>();
+		this.occurrences = new IdentityHashMap<Sentence, int[]>();
+	}
+
+	/**
+	 * <p>
+	 * Builds a new KeywordSet with the given keywords.
+	 * </p>
+	 *
+	 * @param keywords
+	 *            the keywords, by order.
+	 */
+	public KeywordSet(Collection<Word> keywords) {
+		this();
+
+		for (Word keyword : keywords)
+			add(keyword);
+	}
+
+	/**
+	 * <p>
+	 * Adds a keyword to the set.
+	 * </p>
+	 *
+	 * @param keyword
+	 *            the keyword.
+	 */
+	public void add(Word keyword) {
+		int position = keywords.size();
+		keywords.add(keyword);
+		occurrences.clear();
+
+		if (!(keyword instanceof SingleWord)) {
+			otherKeywords.add(position);
+			return;
+		}
+
+		if (symbols == null)
+			symbols = ((SingleWord) keyword).getSymbols();
+
+		for (int key : ((SingleWord) keyword).getKeys(symbols())) {
+			List<Integer> posting = postings.get(key);
+
+			if (posting == null) {
+				posting = new ArrayList<Integer>(1);
+				postings.put(key, posting);
+			}
+
+			posting.add(position);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Checks if the set already holds the given word, as
+	 * Utils.isWordInCollection does.
+	 * </p>
+	 *
+	 * @param word
+	 *            the word.
+	 * @return true if a keyword is, represents or contains the word; false
+	 *         otherwise.
+	 */
+	public boolean contains(Word word) {
+		if (word instanceof SingleWord) {
+			if (sharesKey((SingleWord) word))
+				return true;
+
+			for (int position : otherKeywords)
+				if (keywords.get(position) instanceof NamedEntity
+						&& ((NamedEntity) keywords.get(position))
+								.containsWord(word))
+					return true;
+		} else if (word instanceof NamedEntity) {
+			for (int position : otherKeywords) {
+				Word keyword = keywords.get(position);
+
+				if (keyword instanceof NamedEntity
+						&& (((NamedEntity) keyword).equals(word)
+								|| ((NamedEntity) keyword).represents(word) || ((NamedEntity) keyword)
+									.same(word)))
+					return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * <p>
+	 * Checks if the given word is a keyword, as Word.isKeyword does.
+	 * </p>
+	 *
+	 * @param word
+	 *            the word.
+	 * @return true if the word is a keyword; false otherwise.
+	 */
+	public boolean isKeyword(Word word) {
+		if (word instanceof SingleWord) {
+			if (sharesKey((SingleWord) word))
+				return true;
+
+			for (int position : otherKeywords)
+				if (keywords.get(position) instanceof NamedEntity
+						&& ((NamedEntity) keywords.get(position))
+								.containsWord((SingleWord) word))
+					return true;
+		} else if (word instanceof NamedEntity) {
+			for (int position : otherKeywords)
+				if (keywords.get(position) instanceof NamedEntity
+						&& ((NamedEntity) word).represents(keywords
+								.get(position)))
+					return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the occurrences of each keyword in a sentence, as
+	 * Sentence.computeKeywordOccurrences counts them.
+	 * </p>
+	 *
+	 * @param sentence
+	 *            the sentence.
+	 * @return the occurrences of each keyword, by the order of the keywords.
+	 */
+	public int[] occurrences(Sentence sentence) {
+		int[] counts = occurrences.get(sentence);
+
+		if (counts == null) {
+			counts = new int[keywords.size()];
+			// Position of the last sentence word that represented each
+			// keyword, so that a word counts each keyword once.
+			int[] counted = new int[keywords.size()];
+			int position = 0;
+
+			for (Word word : sentence.getWords()) {
+				position++;
+
+				if (word instanceof SingleWord) {
+					for (int key : ((SingleWord) word).getKeys(symbols())) {
+						List<Integer> posting = postings.get(key);
+
+						if (posting != null)
+							for (int keyword : posting)
+								if (counted[keyword] != position) {
+									counted[keyword] = position;
+									counts[keyword]++;
+								}
+					}
+				} else {
+					for (int keyword = 0; keyword < keywords.size(); keyword++)
+						if (keywords.get(keyword) instanceof SingleWord
+								&& word.represents(keywords.get(keyword)))
+							counts[keyword]++;
+				}
+			}
+
+			for (int keyword : otherKeywords)
+				counts[keyword] = sentence.computeKeywordOccurrences(keywords
+						.get(keyword));
+
+			occurrences.put(sentence, counts);
+		}
+
+		return counts;
+	}
+
+	/**
+	 * <p>
+	 * Counts the pairs of sentence words and keywords that represent them, as
+	 * Utils.countWordsInSentence does.
+	 * </p>
+	 *
+	 * @param sentence
+	 *            the sentence.
+	 * @return the number of keywords in the sentence.
+	 */
+	public int countWords(Sentence sentence) {
+		int count = 0;
+		// Position of the last sentence word that represented each keyword,
+		// so that a word counts each keyword once.
+		int[] counted = new int[keywords.size()];
+		int position = 0;
+
+		for (Word word : sentence.getWords()) {
+			position++;
+
+			// A single word keyword only represents single words.
+			if (word instanceof SingleWord)
+				for (int key : ((SingleWord) word).getKeys(symbols())) {
+					List<Integer> posting = postings.get(key);
+
+					if (posting != null)
+						for (int keyword : posting)
+							if (counted[keyword] != position) {
+								counted[keyword] = position;
+								count++;
+							}
+				}
+
+			for (int keyword : otherKeywords)
+				if (keywords.get(keyword).represents(word))
+					count++;
+		}
+
+		return count;
+	}
+
+	/**
+	 * <p>
+	 * Checks if a single word shares a key with a single word keyword.
+	 * </p>
+	 */
+	private boolean sharesKey(SingleWord word) {
+		for (int key : word.getKeys(symbols()))
+			if (postings.containsKey(key))
+				return true;
+
+		return false;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the symbol table of the keys, creating one of its own if no
+	 * keyword brought it.
+	 * </p>
+	 */
+	private SymbolTable symbols() {
+		if (symbols == null)
+			symbols = new SymbolTable();
+
+		return symbols;
+	}
+
+	/** Getters & Setters **/
+	public List<Word> getKeywords() {
+		return keywords;
+	}
+
+	public int size() {
+		return keywords.size();
+	}
+
+}
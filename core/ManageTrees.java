@@ -20,6 +20,28 @@ import external.TreeFilter;
 
 public class ManageTrees {
 
+	/**
+	 * <p>
+	 * Leaf node with its index annotation.
+	 * </p>
+	 **/
+	private static final Pattern INDEXED_NODE_PATTERN = Pattern.compile("(.*?)"
+			+ Regex.TREE_NODE_INDEX);
+	/**
+	 * <p>
+	 * Leaf node string followed by its index.
+	 * </p>
+	 **/
+	private static final Pattern LEAF_NODE_PATTERN = Pattern
+			.compile("(\\S+?)/[-]?\\d+$");
+	/**
+	 * <p>
+	 * Leaf index that follows the leaf node string.
+	 * </p>
+	 **/
+	private static final Pattern LEAF_INDEX_PATTERN = Pattern
+			.compile("\\S+?/(\\d+)$");
+
 	/**
 	 * <p>
 	 * Removes a set of subtrees from a tree.
@@ -52,8 +74,8 @@ public class ManageTrees {
 
 		// Cleaning the original tree
 		for (Tree tree : toRemove) {
-			String newNode = tree.nodeString().replaceAll(
-					Regex.TREE2REMOVE + "+", "");
+			String newNode = Regex.compile(Regex.TREE2REMOVE + "+")
+					.matcher(tree.nodeString()).replaceAll("");
 			tree.label().setValue(newNode);
 		}
 
@@ -753,8 +775,7 @@ public class ManageTrees {
 		Matcher ma = null;
 
 		for (Tree leaf : leaves) {
-			ma = Pattern.compile("(.*?)" + Regex.TREE_NODE_INDEX).matcher(
-					leaf.nodeString());
+			ma = INDEXED_NODE_PATTERN.matcher(leaf.nodeString());
 
 			if (ma.find())
 				node = ma.group(1);
@@ -796,7 +817,7 @@ public class ManageTrees {
 	public static String getLeafNode(String leaf) {
 
 		String node = "";
-		Matcher ma = Pattern.compile("(\\S+?)/[-]?\\d+$").matcher(leaf);
+		Matcher ma = LEAF_NODE_PATTERN.matcher(leaf);
 
 		if (ma.find())
 			node = ma.group(1);
@@ -817,7 +838,7 @@ public class ManageTrees {
 	public static int getLeafIndex(String leaf) {
 		int index = -1;
 
-		Matcher ma = Pattern.compile("\\S+?/(\\d+)$").matcher(leaf);
+		Matcher ma = LEAF_INDEX_PATTERN.matcher(leaf);
 
 		if (ma.find())
 			index = new Integer(ma.group(1)).intValue();
@@ -72,6 +72,13 @@ public class Sentence implements Comparable {
 	 * </p>
 	 **/
 	private Collection<Word> words;
+	/**
+	 * <p>
+	 * Keys of each word interned in the symbol table of the sentence, in the
+	 * sentence order (built when needed).
+	 * </p>
+	 **/
+	private volatile int[][] wordKeys;
 	/**
 	 * <p>
 	 * Phrases in the current sentence.
@@ -695,6 +702,7 @@ public class Sentence implements Comparable {
 	public void setWords(Collection<Word> words) {
 		this.words = new LinkedList<Word>(words);
 		this.totalWords = words.size();
+		this.wordKeys = null;
 	}
 
 	public void setPhrases(Collection<Phrase> phrases) {
@@ -1146,6 +1154,58 @@ public class Sentence implements Comparable {
 		return found;
 	}
 
+	/**
+	 * <p>
+	 * Retrieves the symbol table of this sentence, that is to say the table
+	 * of the run its words belong to.
+	 * </p>
+	 * 
+	 * @return the symbol table (null if no word belongs to a run).
+	 */
+	public SymbolTable getSymbols() {
+		for (Word word : this.words) {
+			SymbolTable symbols = ((SingleWord) word).getSymbols();
+
+			if (symbols != null)
+				return symbols;
+		}
+
+		return null;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the keys of each word of this sentence interned in the given
+	 * symbol table, indexed by the word position in the sentence.
+	 * </p>
+	 * <p>
+	 * Two words represent each other if and only if their keys in the same
+	 * table intersect (see TermIndex.shareKey). The keys are only kept for the
+	 * table of the sentence.
+	 * </p>
+	 * 
+	 * @param symbols
+	 *            the symbol table.
+	 * @return the sorted keys of each word.
+	 */
+	public int[][] getWordKeys(SymbolTable symbols) {
+		boolean own = symbols == getSymbols();
+		int[][] keys = own ? this.wordKeys : null;
+
+		if (keys == null) {
+			keys = new int[this.words.size()][];
+
+			int i = 0;
+			for (Word word : this.words)
+				keys[i++] = ((SingleWord) word).getKeys(symbols);
+
+			if (own)
+				this.wordKeys = keys;
+		}
+
+		return keys;
+	}
+
 	/**
 	 * <p>
 	 * Retrieves the representation of this sentence based on its words
@@ -1338,9 +1398,32 @@ public class Sentence implements Comparable {
 	 *            the collection of keywords of all texts.
 	 */
 	public void computeKeywordsProperties(Collection<Word> keywords) {
-		this.numberOfKeywords = Utils.countKeywordsInSentence(keywords, this);
-		this.keywordsAverageScore = Utils.keywordsInSentenceAverageScore(
-				keywords, this);
+		computeKeywordsProperties(new KeywordSet(keywords));
+	}
+
+	/**
+	 * <p>
+	 * Computes the properties related to the keywords in this sentence, from
+	 * the occurrences of each keyword in it.
+	 * </p>
+	 * 
+	 * @param keywords
+	 *            the indexed keywords of all texts.
+	 */
+	public void computeKeywordsProperties(KeywordSet keywords) {
+		int[] occurrences = keywords.occurrences(this);
+		double scores = 0;
+
+		this.numberOfKeywords = 0;
+		for (int i = 0; i < occurrences.length; i++) {
+			this.numberOfKeywords += occurrences[i];
+
+			if (occurrences[i] > 0)
+				scores += keywords.getKeywords().get(i).getScore();
+		}
+
+		this.keywordsAverageScore = numberOfKeywords > 0 ? scores
+				/ numberOfKeywords : scores;
 		this.keywordsRatio = (double) numberOfKeywords
 				/ (double) keywords.size();
 	}
@@ -49,6 +49,27 @@ public class SingleWord extends Word {
 	 * </p>
 	 **/
 	protected String annotation;
+	/**
+	 * <p>
+	 * Symbol table of the run the word belongs to (null for the words built
+	 * outside a run).
+	 * </p>
+	 **/
+	private SymbolTable symbols;
+	/**
+	 * <p>
+	 * Keys that decide which words this word represents, interned in its
+	 * symbol table (see TermIndex.keyIds); computed on first use.
+	 * </p>
+	 **/
+	private int[] keys;
+	/**
+	 * <p>
+	 * Keys that decide which words this word represents, as strings, used to
+	 * compare it with the words of other tables; computed on first use.
+	 * </p>
+	 **/
+	private String[] keyStrings;
 
 	/**
 	 * <p>
@@ -69,6 +90,31 @@ public class SingleWord extends Word {
 	 */
 	public SingleWord(String original, String word, String lemma,
 			String annotation) {
+		this(null, original, word, lemma, annotation);
+	}
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new word of a run based on its string.
+	 * </p>
+	 * 
+	 * @param symbols
+	 *            the symbol table of the run (null if the word is built
+	 *            outside a run).
+	 * @param original
+	 *            the original word string.
+	 * @param word
+	 *            the word string.
+	 * @param lemma
+	 *            the word lemmas.
+	 * @param annotation
+	 *            the word POS annotation.
+	 */
+	public SingleWord(SymbolTable symbols, String original, String word,
+			String lemma, String annotation) {
 		super(Preferences.WordType.SINGLE_WORD, 0);
 		this.documentId = 0;
 		this.sentenceId = 0;
@@ -77,8 +123,12 @@ public class SingleWord extends Word {
 		this.score = 0;
 		this.original = original;
 		this.word = word;
-		this.lemma = lemma;
-		this.annotation = annotation;
+		this.symbols = symbols;
+		// Lemmas and annotations repeat across the collection, so equal ones
+		// share a single string.
+		this.lemma = symbols != null ? symbols.canonical(lemma) : lemma;
+		this.annotation = symbols != null ? symbols.canonical(annotation)
+				: annotation;
 		this.numberOfTokens = 1;
 	}
 
@@ -94,8 +144,8 @@ public class SingleWord extends Word {
 	 *            the word to be copied.
 	 */
 	public SingleWord(SingleWord word) {
-		this(word.getOriginal(), word.getWord(), word.getLemma(), word
-				.getAnnotation());
+		this(word.getSymbols(), word.getOriginal(), word.getWord(), word
+				.getLemma(), word.getAnnotation());
 		this.setFrequency(word.getFrequency());
 		this.setDocumentId(word.getDocumentId());
 		this.setSentenceId(word.getSentenceId());
@@ -113,9 +163,11 @@ public class SingleWord extends Word {
 	 * Constructor.
 	 * </p>
 	 * <p>
-	 * Builds a new word based on its string.
+	 * Builds a new word of a run based on its string.
 	 * </p>
 	 * 
+	 * @param symbols
+	 *            the symbol table of the run.
 	 * @param documentId
 	 *            the documents identification.
 	 * @param sentenceId
@@ -133,10 +185,10 @@ public class SingleWord extends Word {
 	 * @param annotation
 	 *            the word POS annotation.
 	 */
-	public SingleWord(int documentId, int sentenceId, int position,
-			int numberOfTokens, String original, String word, String lemma,
-			String annotation) {
-		this(original, word, lemma, annotation);
+	public SingleWord(SymbolTable symbols, int documentId, int sentenceId,
+			int position, int numberOfTokens, String original, String word,
+			String lemma, String annotation) {
+		this(symbols, original, word, lemma, annotation);
 		this.setDocumentId(documentId);
 		this.setSentenceId(sentenceId);
 		this.setPosition(position);
@@ -168,6 +220,57 @@ public class SingleWord extends Word {
 		return score;
 	}
 
+	public SymbolTable getSymbols() {
+		return symbols;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the keys of this word as strings (see TermIndex.keys).
+	 * </p>
+	 * 
+	 * @return the word keys.
+	 */
+	public String[] getKeyStrings() {
+		String[] keyStrings = this.keyStrings;
+
+		if (keyStrings == null) {
+			keyStrings = TermIndex.keys(this);
+			this.keyStrings = keyStrings;
+		}
+
+		return keyStrings;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the keys of this word interned in the given symbol table,
+	 * sorted.
+	 * </p>
+	 * <p>
+	 * This word represents another one if and only if their keys in the same
+	 * table intersect (see TermIndex.shareKey). The keys are only kept for the
+	 * table of the word.
+	 * </p>
+	 * 
+	 * @param symbols
+	 *            the symbol table.
+	 * @return the sorted numbers of the word keys.
+	 */
+	public int[] getKeys(SymbolTable symbols) {
+		if (symbols != this.symbols)
+			return TermIndex.keyIds(this, symbols);
+
+		int[] keys = this.keys;
+
+		if (keys == null) {
+			keys = TermIndex.keyIds(this, symbols);
+			this.keys = keys;
+		}
+
+		return keys;
+	}
+
 	public double getSentenceRelativePosition() {
 		return sentenceRelativePosition;
 	}
@@ -178,6 +281,8 @@ public class SingleWord extends Word {
 
 	public void setOriginal(String original) {
 		this.original = original;
+		this.keys = null;
+		this.keyStrings = null;
 	}
 
 	public void setNumberOfTokens(int numberOfTokens) {
@@ -268,16 +373,16 @@ public class SingleWord extends Word {
 		if (word instanceof NamedEntity)
 			return false;
 
-		SingleWord newWord = (SingleWord) word;
+		SingleWord other = (SingleWord) word;
 
-		boolean represents = (this.lemma.equals("") || this.lemma == null ? (this.word
-				.equalsIgnoreCase((newWord.getWord())) || this.original
-				.equalsIgnoreCase(newWord.getOriginal()))
-				: (this.containsLemma(newWord)
-						|| this.word.equalsIgnoreCase(newWord.getWord()) || this.original
-						.equalsIgnoreCase(newWord.getOriginal())));
+		// The word or lemma comparisons of words of the same run are made
+		// through their interned keys; the other words are compared through
+		// their key strings, so that no table keeps the strings of another.
+		if (symbols != null && symbols == other.getSymbols())
+			return TermIndex.shareKey(this.getKeys(symbols),
+					other.getKeys(symbols));
 
-		return represents;
+		return TermIndex.shareKey(this.getKeyStrings(), other.getKeyStrings());
 	}
 
 	/**
@@ -0,0 +1,116 @@
+package core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * This class interns strings, assigning each distinct string a number.
+ * </p>
+ * <p>
+ * Each summarization run owns its table (see Controller), which is shared by
+ * the words of that run and released with them, so the tables never outlive
+ * the documents they describe. Within a table two strings are equal if and
+ * only if their numbers are equal. The lemmas and POS annotations of the
+ * words are kept through the table too, so that the many words with the same
+ * lemma or annotation share a single string.
+ * </p>
+ * <p>
+ * A table may be used by several threads at the same time, without locking
+ * it as a whole.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class SymbolTable {
+
+	/**
+	 * <p>
+	 * Number of each symbol.
+	 * </p>
+	 **/
+	private ConcurrentHashMap<String, Integer> ids;
+	/**
+	 * <p>
+	 * Instance kept for each symbol.
+	 * </p>
+	 **/
+	private ConcurrentHashMap<String, String> symbols;
+	/**
+	 * <p>
+	 * Number of the next symbol.
+	 * </p>
+	 **/
+	private AtomicInteger next;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new empty SymbolTable.
+	 * </p>
+	 */
+	public SymbolTable() {
+		this.ids = new ConcurrentHashMap<String, Integer>();
+		this.symbols = new ConcurrentHashMap<String, String>();
+		this.next = new AtomicInteger();
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the number of the given symbol, assigning it a new one if
+	 * needed.
+	 * </p>
+	 *
+	 * @param symbol
+	 *            the symbol.
+	 * @return the symbol number.
+	 */
+	public int intern(String symbol) {
+		Integer id = ids.get(symbol);
+
+		if (id == null) {
+			// A number lost to a concurrent assignment is never reused.
+			Integer assigned = next.getAndIncrement();
+			id = ids.putIfAbsent(symbol, assigned);
+
+			if (id == null)
+				id = assigned;
+		}
+
+		return id;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the instance of the given symbol kept by the table, so that
+	 * equal symbols share a single string.
+	 * </p>
+	 *
+	 * @param symbol
+	 *            the symbol.
+	 * @return the interned symbol (null if the symbol is null).
+	 */
+	public String canonical(String symbol) {
+		if (symbol == null)
+			return null;
+
+		String kept = symbols.putIfAbsent(symbol, symbol);
+
+		return kept == null ? symbol : kept;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the number of symbols interned.
+	 * </p>
+	 *
+	 * @return the number of symbols.
+	 */
+	public int size() {
+		return ids.size();
+	}
+
+}
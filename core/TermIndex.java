@@ -0,0 +1,443 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+
+import preferences.Regex;
+
+/**
+ * <p>
+ * This class defines an inverted index of the terms in a collection of
+ * documents.
+ * </p>
+ * <p>
+ * Each single word is indexed by the keys that decide whether it represents
+ * another word: its lemma, each of its lemmas, its word and its original form
+ * (ignoring case). Two single words share a key if and only if one represents
+ * the other, so the words represented by a term are the union of the postings
+ * of its keys.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class TermIndex {
+
+	/** <p>Key prefix of the complete lemma.</p> **/
+	private static final String LEMMA_KEY = "L:";
+	/** <p>Key prefix of each of the lemmas.</p> **/
+	private static final String LEMMAS_KEY = "T:";
+	/** <p>Key prefix of the word.</p> **/
+	private static final String WORD_KEY = "W:";
+	/** <p>Key prefix of the original word.</p> **/
+	private static final String ORIGINAL_KEY = "O:";
+
+	/**
+	 * <p>
+	 * Indexed words; the position of a word is its identifier in the postings.
+	 * </p>
+	 **/
+	private ArrayList<Word> words;
+	/**
+	 * <p>
+	 * Indexed words that are not single words (checked one by one).
+	 * </p>
+	 **/
+	private LinkedList<Word> otherWords;
+	/**
+	 * <p>
+	 * Postings: the identifiers of the words indexed by each key.
+	 * </p>
+	 **/
+	private HashMap<String, List<Integer>> postings;
+	/**
+	 * <p>
+	 * Number of indexed words that are equal to each other, by position.
+	 * </p>
+	 **/
+	private HashMap<String, Integer> positions;
+	/**
+	 * <p>
+	 * Statistics already computed for each set of keys: the number of words
+	 * and the number of documents in its postings.
+	 * </p>
+	 **/
+	private HashMap<String, int[]> statistics;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new empty TermIndex.
+	 * </p>
+	 */
+	public TermIndex() {
+		this.words = new ArrayList<Word>();
+		this.otherWords = new LinkedList<Word>();
+		this.postings = new HashMap<String, List<Integer>>();
+		this.positions = new HashMap<String, Integer>();
+		this.statistics = new HashMap<String, int[]>();
+	}
+
+	/**
+	 * <p>
+	 * Builds a new TermIndex with the given words.
+	 * </p>
+	 *
+	 * @param words
+	 *            the words to be indexed.
+	 */
+	public TermIndex(Collection<Word> words) {
+		this();
+		addAll(words);
+	}
+
+	/**
+	 * <p>
+	 * Adds a word to the index.
+	 * </p>
+	 *
+	 * @param word
+	 *            the word to be indexed.
+	 */
+	public void add(Word word) {
+		int id = words.size();
+		words.add(word);
+		statistics.clear();
+
+		if (!(word instanceof SingleWord)) {
+			otherWords.add(word);
+			return;
+		}
+
+		for (String key : keys((SingleWord) word)) {
+			List<Integer> posting = postings.get(key);
+
+			if (posting == null) {
+				posting = new ArrayList<Integer>();
+				postings.put(key, posting);
+			}
+
+			posting.add(id);
+		}
+
+		String position = position((SingleWord) word);
+		Integer equal = positions.get(position);
+		positions.put(position, equal == null ? 1 : equal + 1);
+	}
+
+	/**
+	 * <p>
+	 * Adds several words to the index.
+	 * </p>
+	 *
+	 * @param words
+	 *            the words to be indexed.
+	 */
+	public void addAll(Collection<Word> words) {
+		for (Word word : words)
+			add(word);
+	}
+
+	/**
+	 * <p>
+	 * Counts the indexed words represented by the given word, apart from the
+	 * ones equal to it.
+	 * </p>
+	 *
+	 * @param word
+	 *            the word to be searched.
+	 * @return the number of words represented by the given word.
+	 */
+	public int countRepresented(Word word) {
+
+		if (!(word instanceof SingleWord)) {
+			int represented = 0;
+
+			for (Word current : words)
+				if (!word.equals(current) && word.represents(current))
+					represented++;
+
+			return represented;
+		}
+
+		// Words that are not single words are never represented by a single
+		// word, and every word equal to this one shares its original key.
+		Integer equal = positions.get(position((SingleWord) word));
+		return statistics((SingleWord) word)[0] - (equal == null ? 0 : equal);
+	}
+
+	/**
+	 * <p>
+	 * Counts the documents that contain a word representing the given word.
+	 * </p>
+	 *
+	 * @param word
+	 *            the word to be searched.
+	 * @return the number of documents containing the word.
+	 */
+	public int countDocuments(Word word) {
+
+		if (!(word instanceof SingleWord)) {
+			HashSet<Integer> documents = new HashSet<Integer>();
+
+			for (Word current : words)
+				if (current.represents(word))
+					documents.add(current.getDocumentId());
+
+			return documents.size();
+		}
+
+		if (otherWords.isEmpty())
+			return statistics((SingleWord) word)[1];
+
+		HashSet<Integer> documents = documentsOf(keys((SingleWord) word));
+
+		for (Word current : otherWords)
+			if (current.represents(word))
+				documents.add(current.getDocumentId());
+
+		return documents.size();
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the number of indexed words.
+	 * </p>
+	 *
+	 * @return the number of words in the index.
+	 */
+	public int size() {
+		return words.size();
+	}
+
+	/**
+	 * <p>
+	 * Checks if this index holds exactly the given words (the same objects, in
+	 * any order).
+	 * </p>
+	 *
+	 * @param words
+	 *            the words to be checked.
+	 * @return true if the given words are the indexed ones; false otherwise.
+	 */
+	public boolean indexes(Collection<Word> words) {
+		if (words.size() != this.words.size())
+			return false;
+
+		IdentityHashMap<Word, Boolean> indexed = new IdentityHashMap<Word, Boolean>();
+
+		for (Word word : this.words)
+			indexed.put(word, Boolean.TRUE);
+
+		for (Word word : words)
+			if (indexed.remove(word) == null)
+				return false;
+
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the statistics of the words sharing a key with the given word.
+	 * </p>
+	 *
+	 * @param word
+	 *            the word to be searched.
+	 * @return the number of words and the number of documents in the
+	 *         postings of the word keys.
+	 */
+	private int[] statistics(SingleWord word) {
+		String[] keys = keys(word);
+		Arrays.sort(keys);
+
+		StringBuilder signature = new StringBuilder();
+		for (String key : keys)
+			signature.append(key).append('\n');
+
+		int[] statistic = statistics.get(signature.toString());
+
+		if (statistic == null) {
+			HashSet<Integer> ids = new HashSet<Integer>();
+			HashSet<Integer> documents = new HashSet<Integer>();
+
+			for (String key : keys) {
+				List<Integer> posting = postings.get(key);
+
+				if (posting != null)
+					for (Integer id : posting)
+						if (ids.add(id))
+							documents.add(words.get(id).getDocumentId());
+			}
+
+			statistic = new int[] { ids.size(), documents.size() };
+			statistics.put(signature.toString(), statistic);
+		}
+
+		return statistic;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the documents of the words indexed by the given keys.
+	 * </p>
+	 *
+	 * @param keys
+	 *            the keys to be searched.
+	 * @return the set of document identifiers.
+	 */
+	private HashSet<Integer> documentsOf(String[] keys) {
+		HashSet<Integer> documents = new HashSet<Integer>();
+
+		for (String key : keys) {
+			List<Integer> posting = postings.get(key);
+
+			if (posting != null)
+				for (Integer id : posting)
+					documents.add(words.get(id).getDocumentId());
+		}
+
+		return documents;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the keys of a single word interned in the given symbol
+	 * table, sorted.
+	 * </p>
+	 * <p>
+	 * A word represents another if and only if their keys in the same table
+	 * intersect.
+	 * </p>
+	 *
+	 * @param word
+	 *            the word.
+	 * @param symbols
+	 *            the symbol table.
+	 * @return the sorted numbers of the word keys.
+	 */
+	public static int[] keyIds(SingleWord word, SymbolTable symbols) {
+		String[] keys = keys(word);
+		int[] ids = new int[keys.length];
+
+		for (int i = 0; i < keys.length; i++)
+			ids[i] = symbols.intern(keys[i]);
+
+		Arrays.sort(ids);
+		return ids;
+	}
+
+	/**
+	 * <p>
+	 * Checks if two sorted arrays of keys intersect.
+	 * </p>
+	 *
+	 * @param first
+	 *            the keys of the first word.
+	 * @param second
+	 *            the keys of the second word.
+	 * @return true if the words share a key; false otherwise.
+	 */
+	public static boolean shareKey(int[] first, int[] second) {
+		int i = 0, j = 0;
+
+		while (i < first.length && j < second.length) {
+			if (first[i] == second[j])
+				return true;
+			else if (first[i] < second[j])
+				i++;
+			else
+				j++;
+		}
+
+		return false;
+	}
+
+	/**
+	 * <p>
+	 * Checks if two arrays of key strings intersect.
+	 * </p>
+	 *
+	 * @param first
+	 *            the first keys.
+	 * @param second
+	 *            the second keys.
+	 * @return true if the arrays share a key; false otherwise.
+	 */
+	public static boolean shareKey(String[] first, String[] second) {
+		for (String key : first)
+			for (String other : second)
+				if (key.equals(other))
+					return true;
+
+		return false;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the keys of a single word, as used by SingleWord.represents.
+	 * </p>
+	 *
+	 * @param word
+	 *            the word.
+	 * @return the word keys.
+	 */
+	public static String[] keys(SingleWord word) {
+		LinkedList<String> keys = new LinkedList<String>();
+		keys.add(WORD_KEY + fold(word.getWord()));
+		keys.add(ORIGINAL_KEY + fold(word.getOriginal()));
+
+		if (!word.getLemma().equals("")) {
+			keys.add(LEMMA_KEY + fold(word.getLemma()));
+
+			for (String lemma : Regex.allLemmas(word))
+				if (!lemma.equals(""))
+					keys.add(LEMMAS_KEY + fold(lemma));
+		}
+
+		return keys.toArray(new String[keys.size()]);
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the position of a single word, as used by SingleWord.equals.
+	 * </p>
+	 *
+	 * @param word
+	 *            the word.
+	 * @return the word position key.
+	 */
+	private static String position(SingleWord word) {
+		return word.getDocumentId() + "/" + word.getSentenceId() + "/"
+				+ word.getPosition() + "/" + word.getNumberOfTokens() + "/"
+				+ fold(word.getOriginal());
+	}
+
+	/**
+	 * <p>
+	 * Folds the case of a string, so that two strings are equal ignoring case
+	 * if and only if their folded strings are equal.
+	 * </p>
+	 *
+	 * @param text
+	 *            the string to be folded.
+	 * @return the folded string.
+	 */
+	private static String fold(String text) {
+		char[] folded = text.toCharArray();
+
+		for (int i = 0; i < folded.length; i++)
+			folded[i] = Character.toLowerCase(Character
+					.toUpperCase(folded[i]));
+
+		return new String(folded);
+	}
+
+}
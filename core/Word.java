@@ -126,6 +126,20 @@ public abstract class Word implements Comparable<Word> {
 		return found;
 	}
 
+	/**
+	 * <p>
+	 * Checks if the current word is a keyword, searching the keywords by their
+	 * keys.
+	 * </p>
+	 * 
+	 * @param keywords
+	 *            the indexed keywords.
+	 * @return true if the word is a keyword; false otherwise.
+	 */
+	public boolean isKeyword(KeywordSet keywords) {
+		return keywords.isKeyword(this);
+	}
+
 	public void updateExtraScore(double extraScore) {
 		this.extraScore += extraScore;
 		this.computeScore();
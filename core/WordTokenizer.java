@@ -0,0 +1,420 @@
+package core;
+
+import java.util.LinkedList;
+
+import preferences.Regex;
+
+/**
+ * <p>
+ * This class splits a sentence in words, aligning the original sentence with
+ * its POS-tagged version, in which each token is annotated as
+ * <code>token/LEMMA/TAG</code>.
+ * </p>
+ * <p>
+ * Both strings are read once, token by token, and the token, lemma and
+ * annotation of each POS-tagged token are read from its slashes, as
+ * Regex.getToken, Regex.getLemma and Regex.getAnnotation read them. The
+ * non-word tokens are only counted (by the Regex helpers) in the original
+ * tokens that contain punctuation, ordinal or currency symbols; the other
+ * tokens have none.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class WordTokenizer {
+
+	/**
+	 * <p>
+	 * Splits a sentence in words.
+	 * </p>
+	 *
+	 * @param symbols
+	 *            the symbol table of the run.
+	 * @param docId
+	 *            the document identification.
+	 * @param sentenceId
+	 *            the sentence identification.
+	 * @param sentence
+	 *            the original sentence.
+	 * @param posTagged
+	 *            the POS-tagged sentence.
+	 * @return the sentence words.
+	 */
+	public static LinkedList<Word> splitWords(SymbolTable symbols, int docId,
+			int sentenceId, String sentence, String posTagged) {
+
+		Tokens posTokens = new Tokens(posTagged);
+		Tokens originalTokens = new Tokens(sentence);
+
+		LinkedList<Word> words = new LinkedList<Word>();
+
+		for (int i = 0, j = 0; originalTokens.exists(i) && posTokens.exists(j); i++, j++) {
+
+			String original = originalTokens.get(i);
+			boolean plain = isPlain(original);
+
+			// Checks if the current token is composed only by punctuation.
+			boolean punctuationToken = !plain
+					&& Regex.hasOnlyPunctuation(original);
+
+			// Gets the words properties.
+			String token = posTokens.token(j);
+			String lemmas = posTokens.lemma(j);
+			String annotation = posTokens.annotation(j);
+
+			// Gets the total number of non-word tokens in the original word
+			// token...
+			int nonWordTokens = plain ? 0 : Regex.numberNonWordTokens(original);
+			// ... the number of non-word tokens before the original word...
+			int preTokens = plain ? 0 : Regex.numberPreNonWordTokens(original);
+			// ... the number of non-word tokens after the original word ...
+			int postTokens = plain ? 0 : Regex
+					.numberPostNonWordTokens(original);
+			// ... and the total number of tokens currently in the original
+			// token.
+			// NOTE: "+ 1" defines the current token.
+			int numberOfTokens = preTokens + 1 + postTokens;
+
+			// If this token has pre-non-word tokens...
+			if (preTokens > 0 && !punctuationToken) {
+				// ...we'll skip these tokens, and get...
+				j += preTokens;
+				// ... the word token...
+				token = posTokens.token(j);
+				// ... its lemmas...
+				lemmas = posTokens.lemma(j);
+				// ... and its annotation.
+				annotation = posTokens.annotation(j);
+			}
+
+			// Skips the token if it contains a contracted word and it is not
+			// exclusively a punctuation token...
+			if (posTokens.isContraction(j) && !punctuationToken) {
+				// NOTE: the contracted token hasn't yet been counted as a
+				// non-word token, because it is in the annotated collection.
+				// The non-word tokens counting is done in the original token.
+				j++;
+				numberOfTokens++;
+				// If it is a contraction, keeps the token and the annotation
+				// from the two parts of the word.
+				if (posTokens.exists(j)) {
+					token += posTokens.token(j);
+					annotation += " " + posTokens.annotation(j);
+				}
+			}
+
+			if (posTokens.exists(j + 1)) {
+				// Skips the token if it contains a clitic and it is not
+				// exclusively a punctuation token...
+				if (posTokens.hasClitic(j + 1) && !punctuationToken) {
+					// If it is a clitic, keeps the token and the annotation
+					// from the two parts of the word.
+					j++;
+					numberOfTokens++;
+					token += posTokens.token(j);
+					annotation += " " + posTokens.annotation(j);
+				}
+			}
+
+			// When the token is exclusively a punctuation token...
+			if (punctuationToken) {
+				// ... we'll only count the non-word tokens...
+				numberOfTokens = nonWordTokens;
+				// (the "- 1" is due to the cycle future iteration)
+				j += nonWordTokens - 1;
+			}
+			// When the token is a compound word, that is, it has non-word
+			// tokens between two words, and:
+			else {
+				if (nonWordTokens > 0
+				// - it has no pre-tokens and no post-tokens, or
+						&& ((preTokens == 0 && postTokens == 0)
+						// - it has pre-tokens or post-tokens that must be the
+						// same number as the nonWordTokens
+						|| (nonWordTokens > (preTokens + postTokens)))) {
+					// ... we'll count the number of non-word tokens plus 2
+					// tokens that are
+					// the word previous to the non-word token and the word post
+					// the non-word token.
+					numberOfTokens = nonWordTokens + 2;
+					// (the "- 1" is due to the cycle future iteration)
+					int endCycle = j + numberOfTokens - 1;
+
+					token = "";
+					annotation = "";
+					while (posTokens.exists(j) && j < endCycle) {
+						token += posTokens.token(j);
+						annotation += " " + posTokens.annotation(j);
+						j++;
+					}
+				}
+				// When the word is a common word...
+				else
+					j += postTokens;
+			}
+
+			// Ignores punctuation and whitespace tokens
+			SingleWord currentWord = new SingleWord(symbols, docId,
+					sentenceId, i + 1, numberOfTokens, original, token, lemmas,
+					annotation);
+			words.addLast(currentWord);
+		}
+
+		return words;
+	}
+
+	/**
+	 * <p>
+	 * Checks if an original token has no punctuation, ordinal or currency
+	 * symbols, and thus no non-word tokens.
+	 * </p>
+	 */
+	private static boolean isPlain(String original) {
+		for (int i = 0; i < original.length();) {
+			int c = original.codePointAt(i);
+
+			if ((c < 128 && isPunctuation((char) c)) || c == 'ª' || c == 'º'
+					|| Character.getType(c) == Character.CURRENCY_SYMBOL)
+				return false;
+
+			i += Character.charCount(c);
+		}
+
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Checks if a character is an ASCII punctuation mark (\p{Punct}).
+	 * </p>
+	 */
+	private static boolean isPunctuation(char c) {
+		return (c >= '!' && c <= '/') || (c >= ':' && c <= '@')
+				|| (c >= '[' && c <= '`') || (c >= '{' && c <= '~');
+	}
+
+	/**
+	 * <p>
+	 * Checks if a character is a whitespace, as defined by the regular
+	 * expressions.
+	 * </p>
+	 */
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B'
+				|| c == '\f' || c == '\r';
+	}
+
+	/**
+	 * <p>
+	 * Tokens of a string separated by whitespaces, read on demand.
+	 * </p>
+	 * <p>
+	 * The tokens are the ones of <code>text.trim().split("\\s+")</code>, kept
+	 * as their bounds in the string.
+	 * </p>
+	 */
+	private static class Tokens {
+
+		private String text;
+		/**
+		 * <p>
+		 * Start and end of each token read, in sequence.
+		 * </p>
+		 **/
+		private int[] bounds;
+		private int count;
+		/**
+		 * <p>
+		 * Position from which the next token is read; -1 when every token
+		 * was read.
+		 * </p>
+		 **/
+		private int position;
+		private int end;
+
+		public Tokens(String text) {
+			this.text = text;
+			this.bounds = new int[32];
+
+			int start = 0;
+			end = text.length();
+
+			while (start < end && text.charAt(start) <= ' ')
+				start++;
+			while (end > start && text.charAt(end - 1) <= ' ')
+				end--;
+
+			if (start == end) {
+				// The empty string is a single empty token.
+				add(start, start);
+				position = -1;
+			} else
+				position = start;
+		}
+
+		/**
+		 * <p>
+		 * Checks if there is a token in the given position, reading the
+		 * string up to it.
+		 * </p>
+		 */
+		public boolean exists(int index) {
+			while (index >= count && position >= 0)
+				next();
+
+			return index >= 0 && index < count;
+		}
+
+		/**
+		 * <p>
+		 * Reads the string up to the given token, failing as an array access
+		 * if it does not exist.
+		 * </p>
+		 */
+		private void check(int index) {
+			if (!exists(index))
+				throw new ArrayIndexOutOfBoundsException(index);
+		}
+
+		private void next() {
+			int start = position;
+			int current = start;
+
+			while (current < end && !isWhitespace(text.charAt(current)))
+				current++;
+
+			add(start, current);
+
+			while (current < end && isWhitespace(text.charAt(current)))
+				current++;
+
+			position = current < end ? current : -1;
+		}
+
+		private void add(int start, int finish) {
+			if (2 * count + 2 > bounds.length) {
+				int[] larger = new int[2 * bounds.length];
+				System.arraycopy(bounds, 0, larger, 0, bounds.length);
+				bounds = larger;
+			}
+
+			bounds[2 * count] = start;
+			bounds[2 * count + 1] = finish;
+			count++;
+		}
+
+		public String get(int index) {
+			check(index);
+			return text.substring(bounds[2 * index], bounds[2 * index + 1]);
+		}
+
+		/**
+		 * <p>
+		 * Checks if a token can be read directly from its slashes: it has no
+		 * characters removed by trim, nor line terminators.
+		 * </p>
+		 */
+		private boolean isSimple(int index) {
+			for (int i = bounds[2 * index]; i < bounds[2 * index + 1]; i++) {
+				char c = text.charAt(i);
+				if (c <= ' ' || c == '\u0085' || c == '\u2028'
+						|| c == '\u2029')
+					return false;
+			}
+
+			return true;
+		}
+
+		/**
+		 * <p>
+		 * Retrieves the token of an annotated token: everything before its
+		 * first slash.
+		 * </p>
+		 */
+		public String token(int index) {
+			check(index);
+			if (!isSimple(index))
+				return Regex.getToken(get(index));
+
+			int start = bounds[2 * index];
+			int slash = indexOf('/', index, start);
+
+			return slash < 0 ? "" : text.substring(start, slash);
+		}
+
+		/**
+		 * <p>
+		 * Retrieves the lemma of an annotated token: everything between its
+		 * first two slashes.
+		 * </p>
+		 */
+		public String lemma(int index) {
+			check(index);
+			if (!isSimple(index))
+				return Regex.getLemma(get(index));
+
+			int first = indexOf('/', index, bounds[2 * index]);
+			int second = first < 0 ? -1 : indexOf('/', index, first + 1);
+
+			return second < 0 ? "" : text.substring(first + 1, second);
+		}
+
+		/**
+		 * <p>
+		 * Retrieves the annotation of an annotated token: everything after
+		 * its last slash that is followed by something.
+		 * </p>
+		 */
+		public String annotation(int index) {
+			check(index);
+			if (!isSimple(index))
+				return Regex.getAnnotation(get(index));
+
+			int start = bounds[2 * index], finish = bounds[2 * index + 1];
+			int slash = text.lastIndexOf('/', finish - 1);
+
+			if (slash == finish - 1)
+				slash = text.lastIndexOf('/', finish - 2);
+
+			return slash < start ? "" : text.substring(slash + 1, finish);
+		}
+
+		/**
+		 * <p>
+		 * Checks if an annotated token is a contraction (as
+		 * Regex.isContraction).
+		 * </p>
+		 */
+		public boolean isContraction(int index) {
+			check(index);
+			return indexOf('_', index, bounds[2 * index]) >= 0;
+		}
+
+		/**
+		 * <p>
+		 * Checks if an annotated token is a clitic (as Regex.hasClitic).
+		 * </p>
+		 */
+		public boolean hasClitic(int index) {
+			check(index);
+			int start = bounds[2 * index], finish = bounds[2 * index + 1];
+			int clitic = text.indexOf("CL#", start);
+
+			return finish > start && text.charAt(start) == '-' && clitic >= 0
+					&& clitic + 3 <= finish;
+		}
+
+		/**
+		 * <p>
+		 * Retrieves the position of a character in a token, from the given
+		 * position; -1 if it is not found.
+		 * </p>
+		 */
+		private int indexOf(char c, int index, int from) {
+			int position = text.indexOf(c, from);
+			return position < bounds[2 * index + 1] ? position : -1;
+		}
+	}
+
+}
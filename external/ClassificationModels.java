@@ -0,0 +1,234 @@
+package external;
+
+import java.io.FileInputStream;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import weka.classifiers.meta.FilteredClassifier;
+import weka.core.Attribute;
+import weka.core.FastVector;
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.SerializationHelper;
+
+/**
+ * <p>
+ * This class keeps the WEKA models used to classify the discourse relations.
+ * </p>
+ * <p>
+ * Each model file is deserialized only once per JVM, and each dataset header
+ * is built only once, no matter how many sentence pairs are classified. The
+ * models may be shared by several threads.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class ClassificationModels {
+
+	/**
+	 * <p>
+	 * Classifiers already loaded (or being loaded), indexed by their model
+	 * file.
+	 * </p>
+	 **/
+	private static ConcurrentHashMap<String, FutureTask<FilteredClassifier>> classifiers = new ConcurrentHashMap<String, FutureTask<FilteredClassifier>>();
+	/**
+	 * <p>
+	 * Dataset headers already built, indexed by their classes and number of
+	 * features.
+	 * </p>
+	 **/
+	private static Hashtable<String, Instances> headers = new Hashtable<String, Instances>();
+
+	/**
+	 * <p>
+	 * Retrieves the classifier stored in the given model file, loading it if
+	 * needed.
+	 * </p>
+	 *
+	 * @param modelFile
+	 *            the model file.
+	 * @return the classifier.
+	 * @throws Exception
+	 *             if the model cannot be loaded.
+	 */
+	public static FilteredClassifier getClassifier(final String modelFile)
+			throws Exception {
+		FutureTask<FilteredClassifier> task = classifiers.get(modelFile);
+
+		if (task == null) {
+			FutureTask<FilteredClassifier> load = new FutureTask<FilteredClassifier>(
+					new Callable<FilteredClassifier>() {
+						public FilteredClassifier call() throws Exception {
+							FileInputStream input = new FileInputStream(
+									modelFile);
+							try {
+								return (FilteredClassifier) SerializationHelper
+										.read(input);
+							} finally {
+								input.close();
+							}
+						}
+					});
+
+			// Only the first thread asking for the model loads it; the others
+			// wait for it.
+			task = classifiers.putIfAbsent(modelFile, load);
+
+			if (task == null) {
+				task = load;
+				load.run();
+			}
+		}
+
+		try {
+			return task.get();
+		} catch (ExecutionException e) {
+			// A model that failed to load may be loaded again later.
+			classifiers.remove(modelFile, task);
+
+			if (e.getCause() instanceof Exception)
+				throw (Exception) e.getCause();
+			throw e;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the dataset header for the given classes and number of string
+	 * features, building it if needed.
+	 * </p>
+	 *
+	 * @param classes
+	 *            the possible classes.
+	 * @param numberOfFeatures
+	 *            the number of features.
+	 * @return the dataset header, whose class is the last attribute.
+	 */
+	public static Instances getHeader(Set<String> classes, int numberOfFeatures) {
+		String key = numberOfFeatures + classes.toString();
+		Instances header = headers.get(key);
+
+		if (header == null) {
+			FastVector dataset = new FastVector(numberOfFeatures + 1);
+
+			for (int i = 1; i < numberOfFeatures + 1; i++)
+				dataset.addElement(new Attribute(i + "", (FastVector) null));
+
+			FastVector classValues = new FastVector(classes.size());
+
+			for (String classType : classes)
+				classValues.addElement(classType);
+
+			dataset.addElement(new Attribute("CLASSE", classValues));
+
+			header = new Instances("DATA", dataset, dataset.size() + 1);
+			// the class is the last attribute
+			header.setClassIndex(header.numAttributes() - 1);
+			headers.put(key, header);
+		}
+
+		return header;
+	}
+
+	/**
+	 * <p>
+	 * Computes the distribution of the classes for the given features.
+	 * </p>
+	 *
+	 * @param modelFile
+	 *            the model file.
+	 * @param classes
+	 *            the possible classes.
+	 * @param features
+	 *            the instance features.
+	 * @return the probability of each class.
+	 * @throws Exception
+	 *             if the instance cannot be classified.
+	 */
+	public static double[] distribution(String modelFile, Set<String> classes,
+			List<String> features) throws Exception {
+		FilteredClassifier classifier = getClassifier(modelFile);
+		Instance instance = buildInstance(classes, features);
+
+		// The classifier filters the instance, which is not thread safe.
+		synchronized (classifier) {
+			return classifier.distributionForInstance(instance);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Classifies the given features.
+	 * </p>
+	 *
+	 * @param modelFile
+	 *            the model file.
+	 * @param classes
+	 *            the possible classes.
+	 * @param features
+	 *            the instance features.
+	 * @return the predicted class.
+	 * @throws Exception
+	 *             if the instance cannot be classified.
+	 */
+	public static String classify(String modelFile, Set<String> classes,
+			List<String> features) throws Exception {
+		FilteredClassifier classifier = getClassifier(modelFile);
+		Instance instance = buildInstance(classes, features);
+		double pred;
+
+		synchronized (classifier) {
+			pred = classifier.classifyInstance(instance);
+		}
+
+		return instance.classAttribute().value((int) pred);
+	}
+
+	/**
+	 * <p>
+	 * Builds an instance with the given features.
+	 * </p>
+	 * <p>
+	 * The instance belongs to a private copy of the shared header, so that
+	 * its string values are never added to the shared attributes.
+	 * </p>
+	 *
+	 * @param classes
+	 *            the possible classes.
+	 * @param features
+	 *            the instance features.
+	 * @return the instance.
+	 */
+	private static Instance buildInstance(Set<String> classes,
+			List<String> features) {
+		Instances data = getHeader(classes, features.size())
+				.stringFreeStructure();
+		Instance instance = new Instance(features.size() + 1);
+		instance.setDataset(data);
+
+		int i = 0;
+		for (String feature : features)
+			instance.setValue(data.attribute(i++), feature);
+
+		return instance;
+	}
+
+	/**
+	 * <p>
+	 * Forgets every model and header, so that they are loaded again when
+	 * needed.
+	 * </p>
+	 */
+	public static void clear() {
+		classifiers.clear();
+		headers.clear();
+	}
+
+}
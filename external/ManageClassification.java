@@ -1,8 +1,6 @@
 package external;
 
-import java.io.FileInputStream;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Set;
 import java.util.TreeSet;
@@ -10,13 +8,6 @@ import java.util.TreeSet;
 import preferences.Preferences;
 import preferences.Regex;
 import preferences.Utils;
-import weka.classifiers.meta.FilteredClassifier;
-import weka.core.Attribute;
-import weka.core.FastVector;
-import weka.core.Instance;
-import weka.core.Instances;
-import weka.core.SerializationHelper;
-import weka.filters.unsupervised.attribute.StringToWordVector;
 
 public class ManageClassification {
 
@@ -24,21 +15,10 @@ public class ManageClassification {
 	private String arg2;
 	private boolean inverted;
 
-	private FilteredClassifier binary;
-
 	public ManageClassification(String firstSentence, String secondSentence) {
 		arg1 = firstSentence;
 		arg2 = secondSentence;
 		inverted = false;
-
-		try {
-			binary = (FilteredClassifier) SerializationHelper
-					.read(new FileInputStream(
-							Preferences.WEKA_BINARY_MODEL_FILE));
-
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
 	}
 
 	public String classifyClass() {
@@ -46,61 +26,17 @@ public class ManageClassification {
 		String relation = "";
 
 		try {
-
-			LinkedList<Attribute> attributes = new LinkedList<Attribute>();
-
 			// Convert the sentences to features...
 			LinkedList<String> features = getSubtypeFeatures(false);
 
-			FastVector dataset = new FastVector(features.size() + 1);
-
-			for (int i = 1; i < features.size() + 1; i++) {
-				Attribute attribute = new Attribute(i + "", (FastVector) null);
-				attributes.add(attribute);
-				dataset.addElement(attribute);
-			}
-
 			// Add class attribute.
 			Set<String> classes = Preferences.getDiscourseRelationClasses();
-			FastVector classValues = new FastVector(classes.size());
-
-			for (String classType : classes)
-				classValues.addElement(classType);
-
-			dataset.addElement(new Attribute("CLASSE", classValues));
-
-			Instances data = new Instances("DATA", dataset, dataset.size() + 1);
-			data.setClassIndex(data.numAttributes() - 1); // the class is the
-															// last attribute
-
-			Instance instance = new Instance(features.size() + 1);
-			instance.setDataset(data);
-			data.add(instance);
-
-			Iterator<Attribute> attsIt = attributes.iterator();
-			Iterator<String> featsIt = features.iterator();
-
-			while (attsIt.hasNext() && featsIt.hasNext()) {
-				Attribute attribute = attsIt.next();
-				String feature = featsIt.next();
-				instance.setValue(attribute, feature);
-			}
 
 			String modelFile = Preferences.WEKA_SUBTYPE_MODEL_FILE.replaceAll(
 					Regex.MARKER, "Classes");
-			FilteredClassifier classifier = (FilteredClassifier) SerializationHelper
-					.read(new FileInputStream(modelFile));
-
-			StringToWordVector filter = new StringToWordVector();
-			filter.setIDFTransform(true);
-			filter.setTFTransform(true);
 
-			filter.setInputFormat(data); // data instances that you are going to
-											// input to the filter
-			filter.input(instance);
-
-			double pred = classifier.classifyInstance(instance);
-			relation = instance.classAttribute().value((int) pred);
+			relation = ClassificationModels.classify(modelFile, classes,
+					features);
 
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -146,13 +82,11 @@ public class ManageClassification {
 
 	private double[] buildClassification(String type, boolean order) {
 
-		LinkedList<Attribute> attributes = new LinkedList<Attribute>();
 		try {
 
 			Set<String> classes = new TreeSet<String>();
 			LinkedList<String> features = null;
 			String modelFile = "";
-			FilteredClassifier classifier = binary;
 
 			if (type.equals(Preferences.WEKA_BINARY_CLASSIFICATION_TYPE)) {
 				// Add the available classes
@@ -167,52 +101,10 @@ public class ManageClassification {
 				features = getSubtypeFeatures(order);
 				modelFile = Preferences.WEKA_SUBTYPE_MODEL_FILE.replaceAll(
 						Regex.MARKER, type);
-				classifier = (FilteredClassifier) SerializationHelper
-						.read(new FileInputStream(modelFile));
-			}
-
-			FastVector dataset = new FastVector(features.size() + 1);
-
-			for (int i = 1; i < features.size() + 1; i++) {
-				Attribute attribute = new Attribute(i + "", (FastVector) null);
-				attributes.add(attribute);
-				dataset.addElement(attribute);
 			}
 
-			FastVector classValues = new FastVector(classes.size());
-
-			for (String classType : classes)
-				classValues.addElement(classType);
-
-			dataset.addElement(new Attribute("CLASSE", classValues));
-
-			Instances data = new Instances("DATA", dataset, dataset.size() + 1);
-			data.setClassIndex(data.numAttributes() - 1); // the class is the
-															// last attribute
-
-			Instance instance = new Instance(features.size() + 1);
-			instance.setDataset(data);
-			data.add(instance);
-
-			Iterator<Attribute> attsIt = attributes.iterator();
-			Iterator<String> featsIt = features.iterator();
-
-			while (attsIt.hasNext() && featsIt.hasNext()) {
-				Attribute attribute = attsIt.next();
-				String feature = featsIt.next();
-
-				instance.setValue(attribute, feature);
-			}
-
-			StringToWordVector filter = new StringToWordVector();
-			filter.setIDFTransform(true);
-			filter.setTFTransform(true);
-
-			filter.setInputFormat(data); // data instances that you are going to
-											// input to the filter
-			filter.input(instance);
-
-			double[] pred = classifier.distributionForInstance(instance);
+			double[] pred = ClassificationModels.distribution(modelFile,
+					classes, features);
 			return pred;
 
 		} catch (Exception e) {
@@ -226,63 +118,17 @@ public class ManageClassification {
 		String type = "";
 
 		try {
-
-			LinkedList<Attribute> attributes = new LinkedList<Attribute>();
-
 			// Convert the sentences to features...
 			LinkedList<String> features = getSubtypeFeatures(false);
 
-			FastVector dataset = new FastVector(features.size() + 1);
-
-			for (int i = 1; i < features.size() + 1; i++) {
-				Attribute attribute = new Attribute(i + "", (FastVector) null);
-				attributes.add(attribute);
-				dataset.addElement(attribute);
-			}
-
 			// Add class attribute.
 			Set<String> classes = Preferences
 					.getDiscourseRelationTypes(relation);
-			FastVector classValues = new FastVector(classes.size());
-
-			for (String classType : classes)
-				classValues.addElement(classType);
-
-			dataset.addElement(new Attribute("CLASSE", classValues));
-
-			Instances data = new Instances("DATA", dataset, dataset.size() + 1);
-			data.setClassIndex(data.numAttributes() - 1); // the class is the
-															// last attribute
-
-			Instance instance = new Instance(features.size() + 1);
-			instance.setDataset(data);
-			data.add(instance);
-
-			Iterator<Attribute> attsIt = attributes.iterator();
-			Iterator<String> featsIt = features.iterator();
-
-			while (attsIt.hasNext() && featsIt.hasNext()) {
-				Attribute attribute = attsIt.next();
-				String feature = featsIt.next();
-
-				instance.setValue(attribute, feature);
-			}
 
 			String modelFile = Preferences.WEKA_SUBTYPE_MODEL_FILE.replaceAll(
 					Regex.MARKER, relation);
 
-			FilteredClassifier classifier = (FilteredClassifier) SerializationHelper
-					.read(new FileInputStream(modelFile));
-			StringToWordVector filter = new StringToWordVector();
-			filter.setIDFTransform(true);
-			filter.setTFTransform(true);
-
-			filter.setInputFormat(data); // data instances that you are going to
-											// input to the filter
-			filter.input(instance);
-
-			double pred = classifier.classifyInstance(instance);
-			type = instance.classAttribute().value((int) pred);
+			type = ClassificationModels.classify(modelFile, classes, features);
 
 		} catch (Exception e) {
 			e.printStackTrace();
@@ -297,65 +143,19 @@ public class ManageClassification {
 		String subtype = null;
 
 		try {
-
-			LinkedList<Attribute> attributes = new LinkedList<Attribute>();
-
 			// Convert the sentences to features...
 			LinkedList<String> features = getSubtypeFeatures(false);
 
-			FastVector dataset = new FastVector(features.size() + 1);
-
-			for (int i = 1; i < features.size() + 1; i++) {
-				Attribute attribute = new Attribute(i + "", (FastVector) null);
-				attributes.add(attribute);
-				dataset.addElement(attribute);
-			}
-
 			// Add class attribute.
 			Set<String> classes = Preferences
 					.getDiscourseRelationSubtypes(type);
 
 			if (classes.size() > 0) {
-				FastVector classValues = new FastVector(classes.size());
-
-				for (String classType : classes)
-					classValues.addElement(classType);
-
-				dataset.addElement(new Attribute("CLASSE", classValues));
-
-				Instances data = new Instances("DATA", dataset,
-						dataset.size() + 1);
-				data.setClassIndex(data.numAttributes() - 1); // the class is
-																// the last
-																// attribute
-
-				Instance instance = new Instance(features.size() + 1);
-				instance.setDataset(data);
-				data.add(instance);
-				Iterator<Attribute> attsIt = attributes.iterator();
-				Iterator<String> featsIt = features.iterator();
-
-				while (attsIt.hasNext() && featsIt.hasNext()) {
-					Attribute attribute = attsIt.next();
-					String feature = featsIt.next();
-					instance.setValue(attribute, feature);
-				}
-
 				String modelFile = Preferences.WEKA_SUBTYPE_MODEL_FILE
 						.replaceAll(Regex.MARKER, type);
 
-				FilteredClassifier classifier = (FilteredClassifier) SerializationHelper
-						.read(new FileInputStream(modelFile));
-				StringToWordVector filter = new StringToWordVector();
-				filter.setIDFTransform(true);
-				filter.setTFTransform(true);
-
-				filter.setInputFormat(data); // data instances that you are
-												// going to input to the filter
-				filter.input(instance);
-
-				double pred = classifier.classifyInstance(instance);
-				subtype = instance.classAttribute().value((int) pred);
+				subtype = ClassificationModels.classify(modelFile, classes,
+						features);
 			}
 
 		} catch (Exception e) {
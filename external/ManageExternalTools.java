@@ -6,7 +6,12 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import lxner.RuleBased.code.RuleBased_NER;
 import lxner.Statistical.code.Statistical_NER;
@@ -14,11 +19,13 @@ import preferences.Preferences;
 import preferences.Regex;
 import preferences.Utils;
 import edu.stanford.nlp.ling.Word;
-import edu.stanford.nlp.parser.lexparser.LexicalizedParser;
 import edu.stanford.nlp.parser.lexparser.Test;
 import edu.stanford.nlp.process.Tokenizer;
 import edu.stanford.nlp.process.WhitespaceTokenizer;
 import edu.stanford.nlp.trees.Tree;
+import external.concurrency.ExternalProcesses;
+import external.concurrency.RunnerPool;
+import external.suite.SuiteWorkerPool;
 
 /**
  * <p>
@@ -30,7 +37,24 @@ import edu.stanford.nlp.trees.Tree;
  */
 public class ManageExternalTools {
 
-	private static LexicalizedParser lexparser;
+	private static ParserPool parsers;
+	/**
+	 * <p>
+	 * LX-NER runners, shared by every thread of the process, each one used by
+	 * a single thread at a time, since they are not known to be safe to share
+	 * between threads.
+	 * </p>
+	 **/
+	private static final RunnerPool<Statistical_NER> statisticalNER = new RunnerPool<Statistical_NER>() {
+		protected Statistical_NER create() {
+			return new Statistical_NER(Preferences.LXNER, Preferences.LXSUITE);
+		}
+	};
+	private static final RunnerPool<RuleBased_NER> ruleBasedNER = new RunnerPool<RuleBased_NER>() {
+		protected RuleBased_NER create() {
+			return new RuleBased_NER(Preferences.LXNER, Preferences.LXSUITE);
+		}
+	};
 
 	/**
 	 * <p>
@@ -42,7 +66,9 @@ public class ManageExternalTools {
 	 */
 	public static void load() {
 		try {
-			lexparser = new LexicalizedParser(Preferences.PARSER_MODEL_FILE);
+			Test.MAX_ITEMS = 500000;
+			parsers = new ParserPool(Preferences.PARSER_MODEL_FILE,
+					Preferences.PARSER_POOL_SIZE, Preferences.PARSE_TIMEOUT);
 		} catch (Exception e) {
 			System.out
 					.println("============= ERROR in class [ManagesExternalTools.load].\nException trace:");
@@ -62,7 +88,8 @@ public class ManageExternalTools {
 	 */
 	public static String posAnnotation(String text) {
 		String suite = runSuite(text, Preferences.LXSUITE
-				+ Preferences.LXSUITE_POSANNOTATION);
+				+ Preferences.LXSUITE_POSANNOTATION,
+				Preferences.LXSUITE_POS_WORKER);
 		return suite;
 	}
 
@@ -76,7 +103,41 @@ public class ManageExternalTools {
 	 * @return the chunked text.
 	 */
 	public static String chunk(String text) {
-		return runSuite(text, Preferences.LXSUITE + Preferences.LXSUITE_CHUNKER);
+		return runSuite(text,
+				Preferences.LXSUITE + Preferences.LXSUITE_CHUNKER,
+				Preferences.LXSUITE_CHUNK_WORKER);
+	}
+
+	/**
+	 * <p>
+	 * Executes LX-Suite.
+	 * </p>
+	 * <p>
+	 * When a worker command is defined, the text is annotated by one of its
+	 * long-lived workers. Otherwise, or if the workers fail, the suite is run
+	 * once for this text.
+	 * </p>
+	 * 
+	 * @param text
+	 *            the text to be annotated.
+	 * @param location
+	 *            the location of the file to be used to run the suite.
+	 * @param worker
+	 *            the command that starts a long-lived worker; null if not
+	 *            available.
+	 * @return the annotated text.
+	 */
+	private static String runSuite(String text, String location, String worker) {
+		if (worker != null) {
+			String annotated = SuiteWorkerPool.getPool(worker,
+					Preferences.LXSUITE_WORKERS).annotate(text);
+
+			// The lines are joined as they are when reading the suite output.
+			if (annotated != null)
+				return annotated.replaceAll("\r\n|\r|\n", "");
+		}
+
+		return runSuite(text, location);
 	}
 
 	/**
@@ -91,7 +152,8 @@ public class ManageExternalTools {
 	 * @return the annotated text.
 	 */
 	private static String runSuite(String text, String location) {
-		String result = "";
+		StringBuilder result = new StringBuilder();
+		ExternalProcesses.acquire();
 		try {
 			Process proc = Runtime.getRuntime().exec(location);
 
@@ -106,7 +168,7 @@ public class ManageExternalTools {
 			String line = fromTagger.readLine();
 
 			while (line != null) {
-				result += line;
+				result.append(line);
 				line = fromTagger.readLine();
 			}
 
@@ -117,8 +179,10 @@ public class ManageExternalTools {
 					.println("============= ERROR in class [ManagesExternalTools.runSuite].\nException trace:");
 			System.out.println(e.toString());
 			e.printStackTrace();
+		} finally {
+			ExternalProcesses.release();
 		}
-		return result;
+		return result.toString();
 	}
 
 	/**
@@ -131,10 +195,22 @@ public class ManageExternalTools {
 	 * @return the NE annotated text.
 	 */
 	public static String namedEntityNERAnnotation(String text) {
-		Statistical_NER st = new Statistical_NER(Preferences.LXNER,
-				Preferences.LXSUITE);
-		String ner = st.myrun(text, 1, true);
-		return ner;
+		ExternalProcesses.acquire();
+		Statistical_NER runner = null;
+		boolean succeeded = false;
+		try {
+			runner = statisticalNER.borrow();
+			String ner = runner.myrun(text, 1, true);
+			succeeded = true;
+			return ner;
+		} finally {
+			// A runner that failed is not reused.
+			if (runner != null && succeeded)
+				statisticalNER.giveBack(runner);
+			else if (runner != null)
+				statisticalNER.discard(runner);
+			ExternalProcesses.release();
+		}
 	}
 
 	/**
@@ -147,9 +223,22 @@ public class ManageExternalTools {
 	 * @return the NE annotated text.
 	 */
 	public static String ruleBasedNERAnnotation(String text) {
-		RuleBased_NER rb = new RuleBased_NER(Preferences.LXNER,
-				Preferences.LXSUITE);
-		return rb.run(text, true);
+		ExternalProcesses.acquire();
+		RuleBased_NER runner = null;
+		boolean succeeded = false;
+		try {
+			runner = ruleBasedNER.borrow();
+			String ner = runner.run(text, true);
+			succeeded = true;
+			return ner;
+		} finally {
+			// A runner that failed is not reused.
+			if (runner != null && succeeded)
+				ruleBasedNER.giveBack(runner);
+			else if (runner != null)
+				ruleBasedNER.discard(runner);
+			ExternalProcesses.release();
+		}
 	}
 
 	/**
@@ -164,7 +253,10 @@ public class ManageExternalTools {
 	public static Tree parse(String sentence) {
 
 		String sentenceTokens = Regex.tokenized2parse(sentence);
-		Tree parse = null;
+		Tree parse = ParseCache.get(sentenceTokens);
+
+		if (parse != null)
+			return parse;
 
 		// Parses the given text.
 		try {
@@ -174,23 +266,80 @@ public class ManageExternalTools {
 							new BufferedReader(new StringReader(sentenceTokens)));
 			List<Word> listOfTokens = tokenizer.tokenize();
 
-			Test.MAX_ITEMS = 500000;
-
-			if (lexparser.parse(listOfTokens))
-				parse = lexparser.getBestParse();
-			else
-				parse = lexparser.getBestPCFGParse();
+			parse = parsers.parse(listOfTokens);
 
-			parse = Utils.convertTree2Search(parse);
+			if (parse != null) {
+				parse = Utils.convertTree2Search(parse);
+				ParseCache.put(sentenceTokens, parse);
+			}
 
 		} catch (Exception e) {
+			System.out
+					.println("============= ERROR in class [ManageExternalTools.parse].\nException trace:");
+			System.out.println(e.toString());
+			e.printStackTrace();
 			parse = null;
-			System.gc();
 		}
 
 		return parse;
 	}
 
+	/**
+	 * <p>
+	 * Parses several sentences at the same time, one by each parser of the
+	 * pool.
+	 * </p>
+	 * 
+	 * @param sentences
+	 *            the annotated texts to be parsed.
+	 * @return the parsed texts, in the same order (null for the texts that
+	 *         could not be parsed).
+	 */
+	public static List<Tree> parseAll(List<String> sentences) {
+		List<Tree> trees = new ArrayList<Tree>();
+		int threads = (parsers != null ? Math.min(parsers.getSize(),
+				sentences.size()) : 1);
+
+		if (threads <= 1) {
+			for (String sentence : sentences)
+				trees.add(parse(sentence));
+			return trees;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Callable<Tree>> tasks = new ArrayList<Callable<Tree>>();
+
+		for (final String sentence : sentences)
+			tasks.add(new Callable<Tree>() {
+				public Tree call() {
+					return parse(sentence);
+				}
+			});
+
+		try {
+			for (Future<Tree> tree : executor.invokeAll(tasks))
+				trees.add(tree.get());
+		} catch (Exception e) {
+			System.out
+					.println("============= ERROR in class [ManageExternalTools.parseAll].\nException trace:");
+			System.out.println(e.toString());
+			e.printStackTrace();
+
+			if (e instanceof InterruptedException)
+				Thread.currentThread().interrupt();
+
+			// The sentences are parsed once more in the current thread (the
+			// ones already parsed are cached).
+			trees.clear();
+			for (String sentence : sentences)
+				trees.add(parse(sentence));
+		} finally {
+			executor.shutdown();
+		}
+
+		return trees;
+	}
+
 	/**
 	 * <p>
 	 * Classifies the discourse relation between two sentences.
@@ -0,0 +1,245 @@
+package external;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import preferences.Preferences;
+import preferences.Utils;
+import edu.stanford.nlp.ling.StringLabelFactory;
+import edu.stanford.nlp.trees.LabeledScoredTreeFactory;
+import edu.stanford.nlp.trees.PennTreeReader;
+import edu.stanford.nlp.trees.Tree;
+import edu.stanford.nlp.trees.TreePrint;
+
+/**
+ * <p>
+ * This class keeps the parse trees already computed, so that the same
+ * sentence is never parsed twice.
+ * </p>
+ * <p>
+ * The trees are indexed by a hash of the tokenized sentence given to the
+ * parser, and kept as one-line strings, so that each request gets its own copy
+ * of the tree. Only the most recently used trees are kept in memory. If a
+ * cache file is defined, the trees are also appended to it, and read from it
+ * when the cache is first used, so that following runs do not parse the same
+ * sentences again.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class ParseCache {
+
+	/**
+	 * <p>
+	 * Separator between the hash and the tree in the cache file.
+	 * </p>
+	 **/
+	private static final String SEPARATOR = "\t";
+
+	/**
+	 * <p>
+	 * Trees, as one-line strings, indexed by the hash of the tokenized
+	 * sentence (in access order).
+	 * </p>
+	 **/
+	private static LinkedHashMap<String, String> trees;
+	/**
+	 * <p>
+	 * Writer of the cache file; null if the trees are not persisted.
+	 * </p>
+	 **/
+	private static BufferedWriter file;
+
+	/**
+	 * <p>
+	 * Retrieves the parse tree of the given tokenized sentence.
+	 * </p>
+	 *
+	 * @param tokens
+	 *            the tokenized sentence, as given to the parser.
+	 * @return a copy of the parse tree; null if the sentence was never parsed.
+	 */
+	public static Tree get(String tokens) {
+		String tree;
+
+		synchronized (ParseCache.class) {
+			tree = cache().get(Utils.hash(tokens));
+		}
+
+		return tree == null ? null : readTree(tree);
+	}
+
+	/**
+	 * <p>
+	 * Keeps the parse tree of the given tokenized sentence.
+	 * </p>
+	 *
+	 * @param tokens
+	 *            the tokenized sentence, as given to the parser.
+	 * @param parse
+	 *            the parse tree.
+	 */
+	public static void put(String tokens, Tree parse) {
+		String key = Utils.hash(tokens);
+		String tree = printTree(parse);
+
+		synchronized (ParseCache.class) {
+			if (cache().put(key, tree) == null && file != null) {
+				try {
+					file.write(key + SEPARATOR + tree);
+					file.newLine();
+					file.flush();
+				} catch (IOException e) {
+					System.out
+							.println("============= ERROR in class [ParseCache.put].\nException trace:");
+					System.out.println(e.toString());
+					e.printStackTrace();
+					close();
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * Forgets every tree kept in memory, and closes the cache file.
+	 * </p>
+	 */
+	public static synchronized void clear() {
+		close();
+		trees = null;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the trees kept in memory, creating the cache (and reading the
+	 * cache file) on first use.
+	 * </p>
+	 *
+	 * @return the trees indexed by hash.
+	 */
+	private static LinkedHashMap<String, String> cache() {
+		if (trees == null) {
+			final int capacity = Math.max(1, Preferences.PARSE_CACHE_SIZE);
+
+			trees = new LinkedHashMap<String, String>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				protected boolean removeEldestEntry(
+						Map.Entry<String, String> eldest) {
+					return size() > capacity;
+				}
+			};
+
+			if (Preferences.PARSE_CACHE_FILE != null)
+				open(new File(Preferences.PARSE_CACHE_FILE));
+		}
+
+		return trees;
+	}
+
+	/**
+	 * <p>
+	 * Reads the trees kept in the cache file, and opens it to append the new
+	 * ones.
+	 * </p>
+	 *
+	 * @param cacheFile
+	 *            the cache file.
+	 */
+	private static void open(File cacheFile) {
+		try {
+			if (cacheFile.exists()) {
+				BufferedReader reader = new BufferedReader(
+						new InputStreamReader(new FileInputStream(cacheFile),
+								Preferences.UTF8));
+				try {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						int separator = line.indexOf(SEPARATOR);
+						if (separator > 0)
+							trees.put(line.substring(0, separator),
+									line.substring(separator + 1));
+					}
+				} finally {
+					reader.close();
+				}
+			}
+
+			file = new BufferedWriter(new OutputStreamWriter(
+					new FileOutputStream(cacheFile, true), Preferences.UTF8));
+		} catch (IOException e) {
+			System.out
+					.println("============= ERROR in class [ParseCache.open].\nException trace:");
+			System.out.println(e.toString());
+			e.printStackTrace();
+			file = null;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Closes the cache file.
+	 * </p>
+	 */
+	private static void close() {
+		if (file != null) {
+			try {
+				file.close();
+			} catch (IOException e) {
+				// The trees already written are kept.
+			}
+			file = null;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Prints a tree in one line.
+	 * </p>
+	 *
+	 * @param tree
+	 *            the tree.
+	 * @return the one-line tree.
+	 */
+	private static String printTree(Tree tree) {
+		StringWriter writer = new StringWriter();
+		TreePrint printer = new TreePrint("oneline");
+		printer.setPrintWriter(new PrintWriter(writer));
+		printer.printTree(tree);
+
+		return writer.toString().trim();
+	}
+
+	/**
+	 * <p>
+	 * Reads a tree printed in one line.
+	 * </p>
+	 *
+	 * @param tree
+	 *            the one-line tree.
+	 * @return the tree; null if it cannot be read.
+	 */
+	private static Tree readTree(String tree) {
+		try {
+			return new PennTreeReader(new StringReader(tree),
+					new LabeledScoredTreeFactory(new StringLabelFactory()))
+					.readTree();
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+}
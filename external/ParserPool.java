@@ -0,0 +1,247 @@
+package external;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.stanford.nlp.ling.HasWord;
+import edu.stanford.nlp.parser.lexparser.LexicalizedParser;
+import edu.stanford.nlp.trees.Tree;
+
+/**
+ * <p>
+ * This class manages a pool of Stanford parsers, so that several sentences
+ * can be parsed at the same time.
+ * </p>
+ * <p>
+ * A parser keeps the state of the sentence it is parsing, so each parser is
+ * used by a single sentence at a time. Parsers are loaded on demand, up to the
+ * pool size. A sentence that is not parsed in the given time is abandoned, but
+ * its parser cannot be stopped: it keeps its room in the pool until the parse
+ * ends, and is then reused. So there are never more parser models loaded than
+ * the pool size.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class ParserPool {
+
+	/**
+	 * <p>
+	 * Parser model file.
+	 * </p>
+	 **/
+	private String modelFile;
+	/**
+	 * <p>
+	 * Maximum number of parsers.
+	 * </p>
+	 **/
+	private int size;
+	/**
+	 * <p>
+	 * Maximum time, in milliseconds, to parse a sentence (0 for no limit).
+	 * </p>
+	 **/
+	private long timeout;
+	/**
+	 * <p>
+	 * Number of parsers currently owned by the pool.
+	 * </p>
+	 **/
+	private int created;
+	/**
+	 * <p>
+	 * Parsers waiting for a sentence.
+	 * </p>
+	 **/
+	private BlockingQueue<LexicalizedParser> idle;
+	/**
+	 * <p>
+	 * Threads that run the parsers.
+	 * </p>
+	 **/
+	private ExecutorService executor;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new ParserPool, and loads its first parser.
+	 * </p>
+	 *
+	 * @param modelFile
+	 *            the parser model file.
+	 * @param size
+	 *            the maximum number of parsers.
+	 * @param timeout
+	 *            the maximum time, in milliseconds, to parse a sentence (0
+	 *            for no limit).
+	 */
+	public ParserPool(String modelFile, int size, long timeout) {
+		this.modelFile = modelFile;
+		this.size = Math.max(1, size);
+		this.timeout = timeout;
+		this.created = 1;
+		this.idle = new LinkedBlockingQueue<LexicalizedParser>();
+		this.executor = Executors.newCachedThreadPool(new ParserThreadFactory());
+
+		// The first parser is loaded now, so that a wrong model is noticed
+		// when the tools are loaded.
+		idle.add(new LexicalizedParser(modelFile));
+	}
+
+	/**
+	 * <p>
+	 * Parses a tokenized sentence.
+	 * </p>
+	 *
+	 * @param tokens
+	 *            the sentence tokens.
+	 * @return the best parse of the sentence; null if the sentence could not
+	 *         be parsed in time.
+	 */
+	public Tree parse(final List<? extends HasWord> tokens) {
+		try {
+			final LexicalizedParser parser = borrow();
+
+			// The parser is only released when its parse ends, even if the
+			// sentence was abandoned meanwhile.
+			Future<Tree> result = executor.submit(new Callable<Tree>() {
+				public Tree call() {
+					try {
+						if (parser.parse(tokens))
+							return parser.getBestParse();
+						else
+							return parser.getBestPCFGParse();
+					} finally {
+						idle.offer(parser);
+					}
+				}
+			});
+
+			try {
+				return timeout > 0 ? result.get(timeout, TimeUnit.MILLISECONDS)
+						: result.get();
+			} catch (TimeoutException e) {
+				// The parser ignores interruptions, so it is left running.
+				System.out.println("============= Parsing timed out after "
+						+ timeout + " ms (" + tokens.size() + " tokens).");
+				return null;
+			}
+		} catch (ExecutionException e) {
+			System.out
+					.println("============= ERROR in class [ParserPool.parse].\nException trace:");
+			System.out.println(e.getCause().toString());
+			e.getCause().printStackTrace();
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Retrieves an idle parser, loading a new one if all the parsers are busy
+	 * and the pool is not full.
+	 * </p>
+	 *
+	 * @return a parser.
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting.
+	 */
+	private LexicalizedParser borrow() throws InterruptedException {
+		LexicalizedParser parser = idle.poll();
+
+		// Waits in short steps, so that the room left by a parser that failed
+		// to load is noticed by the waiting sentences.
+		while (parser == null) {
+			if (reserve()) {
+				try {
+					return new LexicalizedParser(modelFile);
+				} catch (RuntimeException e) {
+					discard();
+					throw e;
+				}
+			}
+
+			parser = idle.poll(1, TimeUnit.SECONDS);
+		}
+
+		return parser;
+	}
+
+	/**
+	 * <p>
+	 * Reserves room for a new parser, if the pool is not full.
+	 * </p>
+	 *
+	 * @return true if a new parser can be loaded; false otherwise.
+	 */
+	private synchronized boolean reserve() {
+		if (created < size) {
+			created++;
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * <p>
+	 * Releases the room of a parser that could not be loaded.
+	 * </p>
+	 */
+	private synchronized void discard() {
+		created--;
+	}
+
+	/**
+	 * <p>
+	 * Stops the threads of the pool.
+	 * </p>
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+		idle.clear();
+	}
+
+	/**
+	 * <p>
+	 * Creates the daemon threads that run the parsers.
+	 * </p>
+	 */
+	private static class ParserThreadFactory implements ThreadFactory {
+
+		private AtomicInteger number = new AtomicInteger(1);
+
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "parser-"
+					+ number.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	/** Getters & Setters **/
+	public int getSize() {
+		return size;
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+}
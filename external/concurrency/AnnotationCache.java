@@ -0,0 +1,170 @@
+package external.concurrency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import preferences.Preferences;
+import preferences.Utils;
+
+/**
+ * <p>
+ * This class keeps the annotations of the document texts already annotated,
+ * so that a text is only annotated again when it changes.
+ * </p>
+ * <p>
+ * The annotations (chunked, POS-tagged and named entity annotated text) are
+ * indexed by a hash of the original text and of the commands of the tools
+ * that annotate it, so a new or changed document, or a document annotated by
+ * other tools, gets a new entry and an unchanged one is found again in the
+ * following runs. The most recently used texts are kept in memory, up to
+ * ANNOTATION_CACHE_SIZE. If an annotation store is defined, the annotations
+ * are also kept on disk (see AnnotationStore), and found there by the
+ * following processes.
+ * </p>
+ * <p>
+ * Only the annotation, the external step of each run, is skipped for the
+ * unchanged documents. The documents are still split in sentences and words
+ * from the annotation strings, and the collection statistics (TF-IDF,
+ * keywords and similarity clusters) are computed again in each run, since
+ * they depend on every document of the collection.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class AnnotationCache {
+
+	/**
+	 * <p>
+	 * Annotations (chunked, POS-tagged and named entity annotated text)
+	 * indexed by their key (in access order).
+	 * </p>
+	 **/
+	private static LinkedHashMap<String, String[]> annotations;
+
+	/**
+	 * <p>
+	 * Retrieves the annotations of the given text.
+	 * </p>
+	 *
+	 * @param original
+	 *            the original text.
+	 * @return the chunked, POS-tagged and named entity annotated text; null if
+	 *         the text was never annotated.
+	 */
+	public static String[] get(String original) {
+		if (Preferences.ANNOTATION_CACHE_SIZE <= 0
+				&& Preferences.ANNOTATION_STORE == null)
+			return null;
+
+		String key = key(original);
+		String[] annotation = null;
+
+		if (Preferences.ANNOTATION_CACHE_SIZE > 0) {
+			synchronized (AnnotationCache.class) {
+				annotation = cache().get(key);
+			}
+		}
+
+		if (annotation == null) {
+			annotation = AnnotationStore.read(key);
+
+			if (annotation == null)
+				return null;
+
+			remember(key, annotation);
+		}
+
+		return annotation.clone();
+	}
+
+	/**
+	 * <p>
+	 * Keeps the annotations of the given text.
+	 * </p>
+	 *
+	 * @param original
+	 *            the original text.
+	 * @param chunked
+	 *            the chunked text.
+	 * @param posTagged
+	 *            the POS-tagged text.
+	 * @param ner
+	 *            the named entity annotated text.
+	 */
+	public static void put(String original, String chunked, String posTagged,
+			String ner) {
+		if (Preferences.ANNOTATION_CACHE_SIZE <= 0
+				&& Preferences.ANNOTATION_STORE == null)
+			return;
+
+		String key = key(original);
+		String[] annotation = new String[] { chunked, posTagged, ner };
+
+		remember(key, annotation);
+		AnnotationStore.write(key, annotation);
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the key of the annotations of the given text: the hash of the
+	 * commands of the annotation tools and of the text.
+	 * </p>
+	 */
+	private static String key(String original) {
+		String tools = Preferences.LXSUITE + "\n"
+				+ Preferences.LXSUITE_CHUNKER + "\n"
+				+ Preferences.LXSUITE_CHUNK_WORKER + "\n"
+				+ Preferences.LXSUITE_POSANNOTATION + "\n"
+				+ Preferences.LXSUITE_POS_WORKER + "\n" + Preferences.LXNER;
+
+		return Utils.hash(tools + "\n" + original);
+	}
+
+	/**
+	 * <p>
+	 * Keeps the annotations of a text in memory.
+	 * </p>
+	 */
+	private static void remember(String key, String[] annotation) {
+		if (Preferences.ANNOTATION_CACHE_SIZE > 0) {
+			synchronized (AnnotationCache.class) {
+				cache().put(key, annotation);
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * Forgets every annotation kept.
+	 * </p>
+	 */
+	public static synchronized void clear() {
+		annotations = null;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the annotations kept, creating the cache on first use.
+	 * </p>
+	 *
+	 * @return the annotations indexed by hash.
+	 */
+	private static LinkedHashMap<String, String[]> cache() {
+		if (annotations == null) {
+			final int capacity = Math.max(1, Preferences.ANNOTATION_CACHE_SIZE);
+
+			annotations = new LinkedHashMap<String, String[]>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				protected boolean removeEldestEntry(
+						Map.Entry<String, String[]> eldest) {
+					return size() > capacity;
+				}
+			};
+		}
+
+		return annotations;
+	}
+
+}
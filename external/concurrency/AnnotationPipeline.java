@@ -0,0 +1,304 @@
+package external.concurrency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import core.Document;
+import external.ManageExternalTools;
+
+/**
+ * <p>
+ * This class annotates the documents in a pipeline of stages, each one with
+ * its own threads, connected by bounded queues.
+ * </p>
+ * <p>
+ * The POS annotation, the statistical NER and the rule-based NER of a
+ * document depend on each other, so they are successive stages: while a
+ * document is in NER, the following ones are already being POS annotated.
+ * The chunking depends only on the original text, so it is a separate stage,
+ * run at the same time as the other three. A document ends when both
+ * branches end, and its annotations are only stored in the text when all of
+ * them have succeeded, as in AnnotationTask.
+ * </p>
+ * <p>
+ * The annotated documents are retrieved in the order in which their
+ * annotation ends.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class AnnotationPipeline {
+
+	/**
+	 * <p>
+	 * Queues of each stage.
+	 * </p>
+	 **/
+	private BlockingQueue<Annotation> toChunk, toTag, toRecognize, toApplyRules;
+	/**
+	 * <p>
+	 * Queue of the ended documents.
+	 * </p>
+	 **/
+	private BlockingQueue<Annotation> annotated;
+	/**
+	 * <p>
+	 * Threads of every stage.
+	 * </p>
+	 **/
+	private List<Thread> threads;
+	/**
+	 * <p>
+	 * Number of documents submitted and not yet retrieved.
+	 * </p>
+	 **/
+	private int pending;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new AnnotationPipeline, starting the threads of its stages.
+	 * </p>
+	 *
+	 * @param stageSize
+	 *            the number of threads of each stage, and of documents
+	 *            waiting for each stage.
+	 */
+	public AnnotationPipeline(int stageSize) {
+		int size = Math.max(1, stageSize);
+
+		this.toChunk = new ArrayBlockingQueue<Annotation>(size);
+		this.toTag = new ArrayBlockingQueue<Annotation>(size);
+		this.toRecognize = new ArrayBlockingQueue<Annotation>(size);
+		this.toApplyRules = new ArrayBlockingQueue<Annotation>(size);
+		this.annotated = new LinkedBlockingQueue<Annotation>();
+		this.threads = new ArrayList<Thread>();
+		this.pending = 0;
+
+		for (int i = 0; i < size; i++) {
+			start(new Stage("chunk", toChunk, null) {
+				void run(Annotation annotation) {
+					annotation.chunked = ManageExternalTools
+							.chunk(annotation.original);
+				}
+			});
+			start(new Stage("pos", toTag, toRecognize) {
+				void run(Annotation annotation) {
+					annotation.posTagged = ManageExternalTools
+							.posAnnotation(annotation.original);
+				}
+			});
+			start(new Stage("ner", toRecognize, toApplyRules) {
+				void run(Annotation annotation) {
+					annotation.ner = ManageExternalTools
+							.namedEntityNERAnnotation(annotation.posTagged);
+				}
+			});
+			start(new Stage("rules", toApplyRules, null) {
+				void run(Annotation annotation) {
+					annotation.ner = ManageExternalTools
+							.ruleBasedNERAnnotation(annotation.ner);
+				}
+			});
+		}
+	}
+
+	/**
+	 * <p>
+	 * Submits a document to be annotated, waiting while the first stages are
+	 * full.
+	 * </p>
+	 *
+	 * @param document
+	 *            the document to be annotated.
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting.
+	 */
+	public void submit(Document document) throws InterruptedException {
+		pending++;
+
+		Annotation annotation = new Annotation(document);
+		String[] annotations = AnnotationCache.get(annotation.original);
+
+		// A text already annotated, and not changed since, is not sent to the
+		// external tools again.
+		if (annotations != null) {
+			AnnotationTask.annotate(document.getText(), annotations);
+			annotated.put(annotation);
+			return;
+		}
+
+		toChunk.put(annotation);
+		toTag.put(annotation);
+	}
+
+	/**
+	 * <p>
+	 * Checks if there are documents whose annotation was not yet retrieved.
+	 * </p>
+	 *
+	 * @return true if there are pending documents; false otherwise.
+	 */
+	public boolean hasPending() {
+		return pending > 0;
+	}
+
+	/**
+	 * <p>
+	 * Waits for the next document to end its annotation.
+	 * </p>
+	 * <p>
+	 * When the annotation fails the failure is reported (as in
+	 * AnnotationScheduler) and the document is still returned, but its text
+	 * keeps no annotation.
+	 * </p>
+	 *
+	 * @return the next annotated document.
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting.
+	 */
+	public Document take() throws InterruptedException {
+		Annotation annotation = annotated.take();
+		pending--;
+
+		if (annotation.failure != null)
+			AnnotationScheduler.report(annotation.failure);
+
+		return annotation.document;
+	}
+
+	/**
+	 * <p>
+	 * Stops the threads of every stage, dropping the pending documents.
+	 * </p>
+	 */
+	public void shutdown() {
+		for (Thread thread : threads)
+			thread.interrupt();
+
+		threads.clear();
+		pending = 0;
+	}
+
+	/**
+	 * <p>
+	 * Starts a thread of a stage, as a daemon thread, so that it never
+	 * prevents the application from ending.
+	 * </p>
+	 */
+	private void start(Stage stage) {
+		Thread thread = new Thread(stage, "annotation-" + stage.name + "-"
+				+ (threads.size() / 4 + 1));
+		thread.setDaemon(true);
+		thread.start();
+		threads.add(thread);
+	}
+
+	/**
+	 * <p>
+	 * Annotations of a document, filled by the stages.
+	 * </p>
+	 */
+	private class Annotation {
+
+		private Document document;
+		private String original;
+		private volatile String chunked, posTagged, ner;
+		/**
+		 * <p>
+		 * First failure of a stage (null while every stage succeeds).
+		 * </p>
+		 **/
+		private volatile Throwable failure;
+		/**
+		 * <p>
+		 * Number of branches (chunking; POS and NER) still running.
+		 * </p>
+		 **/
+		private AtomicInteger branches;
+
+		public Annotation(Document document) {
+			this.document = document;
+			this.original = document.getText().getOriginal();
+			this.branches = new AtomicInteger(2);
+		}
+
+		/**
+		 * <p>
+		 * Ends a branch; the last one stores the annotations and releases
+		 * the document.
+		 * </p>
+		 */
+		public void endBranch() throws InterruptedException {
+			if (branches.decrementAndGet() > 0)
+				return;
+
+			if (failure == null)
+				AnnotationTask.annotate(document.getText(), AnnotationTask
+						.keep(original, chunked, posTagged, ner));
+
+			annotated.put(this);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Stage of the pipeline: takes the documents from its queue, runs its step
+	 * and passes them to the next stage (or ends the branch).
+	 * </p>
+	 * <p>
+	 * A document is always passed on, even when its step fails with an error,
+	 * so that it reaches the annotated documents and the stage keeps running.
+	 * </p>
+	 */
+	private abstract class Stage implements Runnable {
+
+		private String name;
+		private BlockingQueue<Annotation> input, output;
+
+		public Stage(String name, BlockingQueue<Annotation> input,
+				BlockingQueue<Annotation> output) {
+			this.name = name;
+			this.input = input;
+			this.output = output;
+		}
+
+		/**
+		 * <p>
+		 * Runs the step of this stage on a document.
+		 * </p>
+		 */
+		abstract void run(Annotation annotation) throws Exception;
+
+		public void run() {
+			try {
+				while (true) {
+					Annotation annotation = input.take();
+
+					try {
+						if (annotation.failure == null)
+							run(annotation);
+					} catch (Throwable t) {
+						if (annotation.failure == null)
+							annotation.failure = t;
+					} finally {
+						if (output != null)
+							output.put(annotation);
+						else
+							annotation.endBranch();
+					}
+				}
+			} catch (InterruptedException e) {
+				// The pipeline was shut down.
+			}
+		}
+	}
+
+}
@@ -0,0 +1,231 @@
+package external.concurrency;
+
+import java.util.HashMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import preferences.Preferences;
+
+import core.Document;
+
+/**
+ * <p>
+ * This class schedules the annotation of the documents in a bounded pool of
+ * threads.
+ * </p>
+ * <p>
+ * The annotated documents are retrieved in the order in which their
+ * annotation ends, so that each one can be processed while the others are
+ * still being annotated.
+ * </p>
+ * <p>
+ * The annotation mostly waits for the external processes. When
+ * VIRTUAL_THREADS is set and the platform provides virtual threads, each
+ * document is annotated in its own virtual thread, and only the number of
+ * external processes is limited (see ExternalProcesses). Otherwise, when
+ * ANNOTATION_PIPELINE is set, the documents go through the stages of an
+ * AnnotationPipeline; if not, each document is annotated by a thread of a
+ * pool.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class AnnotationScheduler {
+
+	/**
+	 * <p>
+	 * Pool of threads that runs the annotation tasks.
+	 * </p>
+	 **/
+	private ExecutorService executor;
+	/**
+	 * <p>
+	 * Queue of the ended annotation tasks.
+	 * </p>
+	 **/
+	private CompletionService<Document> completion;
+	/**
+	 * <p>
+	 * Documents whose annotation is still pending, indexed by their task.
+	 * </p>
+	 **/
+	private HashMap<Future<Document>, Document> pending;
+	/**
+	 * <p>
+	 * Pipeline that annotates the documents; null if they are annotated by
+	 * the executor.
+	 * </p>
+	 **/
+	private AnnotationPipeline pipeline;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new AnnotationScheduler.
+	 * </p>
+	 *
+	 * @param poolSize
+	 *            the maximum number of documents annotated at the same time.
+	 */
+	public AnnotationScheduler(int poolSize) {
+		this.executor = Preferences.VIRTUAL_THREADS ? virtualThreadExecutor()
+				: null;
+
+		if (this.executor == null && Preferences.ANNOTATION_PIPELINE) {
+			this.pipeline = new AnnotationPipeline(poolSize);
+			return;
+		}
+
+		if (this.executor == null)
+			this.executor = Executors.newFixedThreadPool(
+					Math.max(1, poolSize), new AnnotationThreadFactory());
+		this.completion = new ExecutorCompletionService<Document>(executor);
+		this.pending = new HashMap<Future<Document>, Document>();
+	}
+
+	/**
+	 * <p>
+	 * Submits a document to be annotated.
+	 * </p>
+	 *
+	 * @param document
+	 *            the document to be annotated.
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting for the
+	 *             pipeline.
+	 */
+	public void submit(Document document) throws InterruptedException {
+		if (pipeline != null) {
+			pipeline.submit(document);
+			return;
+		}
+
+		Future<Document> future = completion.submit(new AnnotationTask(
+				document));
+		pending.put(future, document);
+	}
+
+	/**
+	 * <p>
+	 * Checks if there are documents whose annotation was not yet retrieved.
+	 * </p>
+	 *
+	 * @return true if there are pending documents; false otherwise.
+	 */
+	public boolean hasPending() {
+		if (pipeline != null)
+			return pipeline.hasPending();
+
+		return !pending.isEmpty();
+	}
+
+	/**
+	 * <p>
+	 * Waits for the next document to end its annotation.
+	 * </p>
+	 * <p>
+	 * When the annotation fails the document is still returned, but its text
+	 * keeps no annotation.
+	 * </p>
+	 *
+	 * @return the next annotated document.
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting.
+	 */
+	public Document take() throws InterruptedException {
+		if (pipeline != null)
+			return pipeline.take();
+
+		Future<Document> future = completion.take();
+		Document document = pending.remove(future);
+
+		try {
+			future.get();
+		} catch (ExecutionException e) {
+			report(e.getCause());
+		}
+
+		return document;
+	}
+
+	/**
+	 * <p>
+	 * Reports the failure of the annotation of a document.
+	 * </p>
+	 *
+	 * @param cause
+	 *            the failure.
+	 */
+	static void report(Throwable cause) {
+		System.out
+				.println("============= ERROR in class [AnnotationScheduler.take].\nException trace:");
+		System.out.println(cause.toString());
+		cause.printStackTrace();
+	}
+
+	/**
+	 * <p>
+	 * Stops the annotation threads, cancelling the pending documents.
+	 * </p>
+	 */
+	public void shutdown() {
+		if (pipeline != null) {
+			pipeline.shutdown();
+			return;
+		}
+
+		for (Future<Document> future : pending.keySet())
+			future.cancel(true);
+
+		pending.clear();
+		executor.shutdownNow();
+	}
+
+	/**
+	 * <p>
+	 * Creates an executor that runs each task in a new virtual thread.
+	 * </p>
+	 * <p>
+	 * The executor is found by reflection, so that the summarizer still runs
+	 * in platforms without virtual threads.
+	 * </p>
+	 *
+	 * @return the executor; null if the platform has no virtual threads.
+	 */
+	private static ExecutorService virtualThreadExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod(
+					"newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Creates the annotation threads as daemon threads, so that they never
+	 * prevent the application from ending.
+	 * </p>
+	 */
+	private static class AnnotationThreadFactory implements ThreadFactory {
+
+		private static final AtomicInteger number = new AtomicInteger();
+
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "annotation-"
+					+ number.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
@@ -0,0 +1,254 @@
+package external.concurrency;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import preferences.Preferences;
+
+/**
+ * <p>
+ * This class keeps the annotations of the document texts on disk, so that
+ * the following runs over the same texts skip the annotation.
+ * </p>
+ * <p>
+ * The store is a directory with one file for each annotated text, named by
+ * its key (see AnnotationCache), so a changed text gets a new file and a
+ * valid file is never changed after it is written. A file that cannot be
+ * read (of another format version, or corrupted, for instance) is replaced.
+ * Each file holds the chunked, POS-tagged and named entity annotated text as
+ * length-prefixed UTF-8 strings, compressed. A file is written to a
+ * temporary file first and then renamed, so a file found in the store is
+ * always complete.
+ * </p>
+ * <p>
+ * The counts and lengths read from a file are checked against
+ * MAXIMUM_ANNOTATIONS and MAXIMUM_LENGTH, and the strings are read in
+ * blocks, so a corrupted file is reported as unreadable instead of
+ * allocating an array of the size it claims.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class AnnotationStore {
+
+	/**
+	 * <p>
+	 * First bytes of every annotation file ("SIMA").
+	 * </p>
+	 **/
+	private static final int MAGIC = 0x53494D41;
+	/**
+	 * <p>
+	 * Version of the annotation file format.
+	 * </p>
+	 **/
+	private static final int VERSION = 1;
+	/**
+	 * <p>
+	 * Extension of the annotation files.
+	 * </p>
+	 **/
+	private static final String EXTENSION = ".ann";
+	/**
+	 * <p>
+	 * Maximum number of annotations in a file.
+	 * </p>
+	 **/
+	private static final int MAXIMUM_ANNOTATIONS = 16;
+	/**
+	 * <p>
+	 * Maximum length of an annotation, in bytes.
+	 * </p>
+	 **/
+	private static final int MAXIMUM_LENGTH = 1 << 26;
+	/**
+	 * <p>
+	 * Size of the blocks in which the annotations are read.
+	 * </p>
+	 **/
+	private static final int BLOCK_SIZE = 1 << 16;
+
+	/**
+	 * <p>
+	 * Reads the annotations kept with the given key.
+	 * </p>
+	 *
+	 * @param key
+	 *            the key of the annotations.
+	 * @return the annotations; null if the store is not defined, or has no
+	 *         (readable) annotations for the key.
+	 */
+	public static String[] read(String key) {
+		File file = file(key);
+
+		if (file == null || !file.isFile())
+			return null;
+
+		try {
+			DataInputStream input = new DataInputStream(new GZIPInputStream(
+					new BufferedInputStream(new FileInputStream(file))));
+			try {
+				if (input.readInt() != MAGIC || input.readInt() != VERSION)
+					return null;
+
+				int count = input.readInt();
+
+				if (count < 0 || count > MAXIMUM_ANNOTATIONS)
+					throw new IOException("Invalid number of annotations in "
+							+ file + ": " + count);
+
+				String[] annotations = new String[count];
+
+				for (int i = 0; i < annotations.length; i++)
+					annotations[i] = readString(input);
+
+				return annotations;
+			} finally {
+				input.close();
+			}
+		} catch (IOException e) {
+			System.out
+					.println("============= ERROR in class [AnnotationStore.read].\nException trace:");
+			System.out.println(e.toString());
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Writes the annotations of a text with the given key, unless they are
+	 * already kept in a readable file.
+	 * </p>
+	 *
+	 * @param key
+	 *            the key of the annotations.
+	 * @param annotations
+	 *            the annotations.
+	 */
+	public static void write(String key, String[] annotations) {
+		File file = file(key);
+
+		if (file == null || read(key) != null)
+			return;
+
+		File temporary = null;
+
+		try {
+			file.getParentFile().mkdirs();
+			temporary = File.createTempFile(key, ".tmp", file.getParentFile());
+
+			DataOutputStream output = new DataOutputStream(
+					new GZIPOutputStream(new BufferedOutputStream(
+							new FileOutputStream(temporary))));
+			try {
+				output.writeInt(MAGIC);
+				output.writeInt(VERSION);
+				output.writeInt(annotations.length);
+
+				for (String annotation : annotations)
+					writeString(output, annotation);
+			} finally {
+				output.close();
+			}
+
+			// Another run may have stored the same text in the meantime: its
+			// file has the same content. A file that cannot be read is
+			// replaced, even where renaming does not replace files.
+			if (!temporary.renameTo(file) && read(key) == null
+					&& !(file.delete() && temporary.renameTo(file)))
+				throw new IOException("Cannot rename " + temporary + " to "
+						+ file);
+		} catch (IOException e) {
+			System.out
+					.println("============= ERROR in class [AnnotationStore.write].\nException trace:");
+			System.out.println(e.toString());
+			e.printStackTrace();
+		} finally {
+			if (temporary != null)
+				temporary.delete();
+		}
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the file of the annotations with the given key.
+	 * </p>
+	 *
+	 * @return the file; null if the store is not defined.
+	 */
+	private static File file(String key) {
+		if (Preferences.ANNOTATION_STORE == null)
+			return null;
+
+		return new File(Preferences.ANNOTATION_STORE, key + EXTENSION);
+	}
+
+	/**
+	 * <p>
+	 * Reads a string written by writeString.
+	 * </p>
+	 */
+	private static String readString(DataInputStream input) throws IOException {
+		int length = input.readInt();
+
+		if (length == -1)
+			return null;
+
+		if (length < 0 || length > MAXIMUM_LENGTH)
+			throw new IOException("Invalid annotation length: " + length);
+
+		// The bytes are read in blocks, so a truncated file ends the reading
+		// before a buffer of the whole length is allocated.
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.min(
+				length, BLOCK_SIZE));
+		byte[] block = new byte[Math.min(length, BLOCK_SIZE)];
+
+		for (int left = length; left > 0;) {
+			int read = input.read(block, 0, Math.min(left, block.length));
+
+			if (read < 0)
+				throw new EOFException();
+
+			bytes.write(block, 0, read);
+			left -= read;
+		}
+
+		return new String(bytes.toByteArray(), Preferences.UTF8);
+	}
+
+	/**
+	 * <p>
+	 * Writes a string as its length in bytes followed by its UTF-8 bytes (-1
+	 * for null), up to MAXIMUM_LENGTH bytes.
+	 * </p>
+	 */
+	private static void writeString(DataOutputStream output, String string)
+			throws IOException {
+		if (string == null) {
+			output.writeInt(-1);
+			return;
+		}
+
+		byte[] bytes = string.getBytes(Preferences.UTF8);
+
+		if (bytes.length > MAXIMUM_LENGTH)
+			throw new IOException("Annotation too long to be stored: "
+					+ bytes.length + " bytes");
+
+		output.writeInt(bytes.length);
+		output.write(bytes);
+	}
+
+}
@@ -0,0 +1,125 @@
+package external.concurrency;
+
+import java.util.concurrent.Callable;
+
+import core.Document;
+import core.Text;
+import external.ManageExternalTools;
+
+/**
+ * <p>
+ * This class defines the annotation of a single document text with the
+ * external tools.
+ * </p>
+ * <p>
+ * The text is chunked, POS annotated and annotated with named entities. The
+ * annotations are only stored in the text when all of them have succeeded.
+ * The annotations of a text already annotated are taken from the
+ * AnnotationCache.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class AnnotationTask implements Callable<Document> {
+
+	/**
+	 * <p>
+	 * Document to be annotated.
+	 * </p>
+	 **/
+	private Document document;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new AnnotationTask.
+	 * </p>
+	 *
+	 * @param document
+	 *            the document whose text will be annotated.
+	 */
+	public AnnotationTask(Document document) {
+		this.document = document;
+	}
+
+	/**
+	 * <p>
+	 * Annotates the document text.
+	 * </p>
+	 *
+	 * @return the annotated document.
+	 */
+	public Document call() throws Exception {
+		Text text = document.getText();
+		String original = text.getOriginal();
+
+		// A text already annotated, and not changed since, is not sent to the
+		// external tools again.
+		String[] annotations = AnnotationCache.get(original);
+
+		if (annotations == null) {
+			String chunked = ManageExternalTools.chunk(original);
+			String posTagged = ManageExternalTools.posAnnotation(original);
+			String ner = ManageExternalTools
+					.namedEntityNERAnnotation(posTagged);
+			ner = ManageExternalTools.ruleBasedNERAnnotation(ner);
+
+			annotations = keep(original, chunked, posTagged, ner);
+		}
+
+		annotate(text, annotations);
+
+		return document;
+	}
+
+	/**
+	 * <p>
+	 * Keeps the annotations of a text in the AnnotationCache.
+	 * </p>
+	 * <p>
+	 * A failed tool gives an empty annotation, which is not kept, so that the
+	 * text is annotated again in the next run.
+	 * </p>
+	 *
+	 * @return the chunked, POS-tagged and named entity annotated text.
+	 */
+	static String[] keep(String original, String chunked, String posTagged,
+			String ner) {
+		if (!isEmpty(chunked) && !isEmpty(posTagged) && !isEmpty(ner))
+			AnnotationCache.put(original, chunked, posTagged, ner);
+
+		return new String[] { chunked, posTagged, ner };
+	}
+
+	/**
+	 * <p>
+	 * Stores the annotations in a text.
+	 * </p>
+	 *
+	 * @param annotations
+	 *            the chunked, POS-tagged and named entity annotated text.
+	 */
+	static void annotate(Text text, String[] annotations) {
+		text.setChunked(annotations[0]);
+		text.setPosTagged(annotations[1]);
+		text.setNamedEntityAnnotation(annotations[2]);
+	}
+
+	/**
+	 * <p>
+	 * Checks if an annotation is missing.
+	 * </p>
+	 */
+	private static boolean isEmpty(String annotation) {
+		return annotation == null || annotation.length() == 0;
+	}
+
+	/** Getters & Setters **/
+	public Document getDocument() {
+		return document;
+	}
+
+}
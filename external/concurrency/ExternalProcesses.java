@@ -0,0 +1,96 @@
+package external.concurrency;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import preferences.Preferences;
+
+/**
+ * <p>
+ * This class limits the number of external processes (LX-Suite and LX-NER
+ * runs) running at the same time, whatever the number of threads that
+ * request them, and counts the processes in flight.
+ * </p>
+ * <p>
+ * Each run must acquire a permit before it starts and release it when it
+ * ends. The number of permits is EXTERNAL_PROCESSES, read when the first
+ * permit is requested.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class ExternalProcesses {
+
+	/**
+	 * <p>
+	 * Permits of the external processes.
+	 * </p>
+	 **/
+	private static Semaphore permits;
+	/**
+	 * <p>
+	 * Number of external processes running.
+	 * </p>
+	 **/
+	private static final AtomicInteger inFlight = new AtomicInteger();
+	/**
+	 * <p>
+	 * Largest number of external processes that ran at the same time.
+	 * </p>
+	 **/
+	private static final AtomicInteger peak = new AtomicInteger();
+
+	/**
+	 * <p>
+	 * Waits for a permit to start an external process.
+	 * </p>
+	 * <p>
+	 * The wait is not interrupted: a permit is released as soon as a running
+	 * process ends.
+	 * </p>
+	 */
+	public static void acquire() {
+		permits().acquireUninterruptibly();
+
+		int running = inFlight.incrementAndGet();
+		int largest;
+
+		while (running > (largest = peak.get())
+				&& !peak.compareAndSet(largest, running))
+			;
+	}
+
+	/**
+	 * <p>
+	 * Releases the permit of an external process that ended.
+	 * </p>
+	 */
+	public static void release() {
+		inFlight.decrementAndGet();
+		permits().release();
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the permits, creating them on first use.
+	 * </p>
+	 */
+	private static synchronized Semaphore permits() {
+		if (permits == null)
+			permits = new Semaphore(
+					Math.max(1, Preferences.EXTERNAL_PROCESSES), true);
+
+		return permits;
+	}
+
+	/** Getters & Setters **/
+	public static int getInFlight() {
+		return inFlight.get();
+	}
+
+	public static int getPeak() {
+		return peak.get();
+	}
+
+}
@@ -0,0 +1,168 @@
+package external.concurrency;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import preferences.Preferences;
+
+/**
+ * <p>
+ * This class manages a process-wide pool of runners of an external tool that
+ * are not known to be safe to share between threads, such as the LX-NER
+ * runners.
+ * </p>
+ * <p>
+ * A thread borrows a runner, uses it alone and returns it, so the runners
+ * outlive the (possibly short-lived) threads that use them. A runner that
+ * failed is discarded instead, and a new one is created in its place. The
+ * runners are created on demand, up to EXTERNAL_PROCESSES, the number of
+ * external processes that run at the same time (see ExternalProcesses), and
+ * are reused by the following requests.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public abstract class RunnerPool<T> {
+
+	/**
+	 * <p>
+	 * Number of runners currently owned by the pool.
+	 * </p>
+	 **/
+	private int created;
+	/**
+	 * <p>
+	 * Runners waiting for a request.
+	 * </p>
+	 **/
+	private BlockingQueue<T> idle;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new empty RunnerPool.
+	 * </p>
+	 */
+	public RunnerPool() {
+		this.created = 0;
+		this.idle = new LinkedBlockingQueue<T>();
+	}
+
+	/**
+	 * <p>
+	 * Creates a new runner.
+	 * </p>
+	 *
+	 * @return the runner.
+	 */
+	protected abstract T create();
+
+	/**
+	 * <p>
+	 * Retrieves a runner, waiting for one to be returned if all the runners
+	 * are busy.
+	 * </p>
+	 * <p>
+	 * The wait is not interrupted: a runner is returned as soon as the
+	 * external process that uses it ends.
+	 * </p>
+	 *
+	 * @return a runner, to be returned (see giveBack) or discarded (see
+	 *         discard) when it is no longer used.
+	 */
+	public T borrow() {
+		boolean interrupted = false;
+
+		try {
+			T runner = idle.poll();
+
+			// Waits in short steps, so that the room left by a runner that
+			// could not be created is noticed by the waiting requests.
+			while (runner == null) {
+				if (reserve()) {
+					boolean built = false;
+
+					try {
+						runner = create();
+						built = true;
+					} finally {
+						if (!built)
+							discard();
+					}
+				} else {
+					try {
+						runner = idle.poll(1, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+			}
+
+			return runner;
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * <p>
+	 * Returns a borrowed runner to the pool.
+	 * </p>
+	 *
+	 * @param runner
+	 *            the runner.
+	 */
+	public void giveBack(T runner) {
+		idle.offer(runner);
+	}
+
+	/**
+	 * <p>
+	 * Discards a borrowed runner that failed, since it may be left in a broken
+	 * state; its room is taken by a new runner when needed.
+	 * </p>
+	 *
+	 * @param runner
+	 *            the runner.
+	 */
+	public void discard(T runner) {
+		discard();
+	}
+
+	/**
+	 * <p>
+	 * Reserves room for a new runner, if the pool is not full.
+	 * </p>
+	 *
+	 * @return true if a new runner can be created; false otherwise.
+	 */
+	private synchronized boolean reserve() {
+		if (created < Math.max(1, Preferences.EXTERNAL_PROCESSES)) {
+			created++;
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * <p>
+	 * Releases the room of a runner that could not be created or was
+	 * discarded.
+	 * </p>
+	 */
+	private synchronized void discard() {
+		created--;
+	}
+
+	/** Getters & Setters **/
+	public synchronized int getCreated() {
+		return created;
+	}
+
+}
@@ -0,0 +1,183 @@
+package external.suite;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import preferences.Regex;
+
+/**
+ * <p>
+ * This class reads the sentences of an LX-Suite annotated text, one at a time.
+ * </p>
+ * <p>
+ * Each sentence is delimited by the sentence start and end marks, in a single
+ * line, as found by Regex.SENTENCE_PATTERN. The text is read as the sentences
+ * are requested, so only the current sentence is kept in memory, instead of
+ * matching the whole text at once.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class SentenceReader {
+
+	/**
+	 * <p>
+	 * Size of the buffer of characters read from the text.
+	 * </p>
+	 **/
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * <p>
+	 * The annotated text.
+	 * </p>
+	 **/
+	private Reader reader;
+	/**
+	 * <p>
+	 * Characters read from the text and not yet consumed.
+	 * </p>
+	 **/
+	private char[] buffer;
+	private int position;
+	private int limit;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new SentenceReader.
+	 * </p>
+	 *
+	 * @param reader
+	 *            the annotated text.
+	 */
+	public SentenceReader(Reader reader) {
+		this.reader = reader;
+		this.buffer = new char[BUFFER_SIZE];
+		this.position = 0;
+		this.limit = 0;
+	}
+
+	/**
+	 * <p>
+	 * Reads the next sentence of the text.
+	 * </p>
+	 *
+	 * @return the sentence content, between the sentence marks; null if there
+	 *         are no more sentences.
+	 * @throws IOException
+	 *             if the text cannot be read.
+	 */
+	public String next() throws IOException {
+		String start = Regex.SENTENCE_START, end = Regex.SENTENCE_END;
+
+		while (true) {
+			// Finds the next sentence start mark...
+			for (int matched = 0; matched < start.length();) {
+				int c = read();
+
+				if (c < 0)
+					return null;
+
+				matched = advance(start, matched, (char) c);
+			}
+
+			// ... and keeps the sentence up to the first end mark in the same
+			// line.
+			StringBuilder sentence = new StringBuilder();
+			int matched = 0;
+
+			while (matched < end.length()) {
+				int c = read();
+
+				if (c < 0)
+					return null;
+
+				if (isLineTerminator((char) c))
+					break;
+
+				sentence.append((char) c);
+				matched = advance(end, matched, (char) c);
+			}
+
+			if (matched == end.length()) {
+				sentence.setLength(sentence.length() - end.length());
+				return sentence.toString();
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * Closes the text.
+	 * </p>
+	 *
+	 * @throws IOException
+	 *             if the text cannot be closed.
+	 */
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * <p>
+	 * Advances the match of a sentence mark with a new character.
+	 * </p>
+	 * <p>
+	 * A sentence mark only repeats its first character at its start, so a
+	 * character that breaks a match can only restart it.
+	 * </p>
+	 *
+	 * @param mark
+	 *            the sentence mark.
+	 * @param matched
+	 *            the number of characters of the mark already matched.
+	 * @param c
+	 *            the new character.
+	 * @return the number of characters of the mark matched.
+	 */
+	private static int advance(String mark, int matched, char c) {
+		if (mark.charAt(matched) == c)
+			return matched + 1;
+
+		return mark.charAt(0) == c ? 1 : 0;
+	}
+
+	/**
+	 * <p>
+	 * Checks if a character ends a line, as defined by the regular
+	 * expressions.
+	 * </p>
+	 */
+	private static boolean isLineTerminator(char c) {
+		return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028'
+				|| c == '\u2029';
+	}
+
+	/**
+	 * <p>
+	 * Reads a character of the text.
+	 * </p>
+	 *
+	 * @return the character; -1 at the end of the text.
+	 * @throws IOException
+	 *             if the text cannot be read.
+	 */
+	private int read() throws IOException {
+		if (position == limit) {
+			limit = reader.read(buffer, 0, buffer.length);
+			position = 0;
+
+			if (limit <= 0) {
+				limit = 0;
+				return -1;
+			}
+		}
+
+		return buffer[position++];
+	}
+
+}
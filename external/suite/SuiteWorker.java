@@ -0,0 +1,351 @@
+package external.suite;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+import preferences.Preferences;
+
+/**
+ * <p>
+ * This class defines a long-lived LX-Suite tagger process.
+ * </p>
+ * <p>
+ * The process is started once and annotates many texts, which are exchanged
+ * through its standard input and output as frames. Each frame is a line
+ * holding the number of bytes of the payload, followed by the UTF-8 encoded
+ * payload. An empty request frame is a health check, and must be answered by
+ * an empty frame.
+ * </p>
+ * <p>
+ * Each answer must arrive within LXSUITE_TIMEOUT milliseconds: otherwise the
+ * request fails instead of blocking, and the worker must be restarted. The
+ * answer is only read when it is available, since a blocked read would not
+ * end even if the process was killed.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class SuiteWorker {
+
+	/**
+	 * <p>
+	 * Time, in milliseconds, between two checks for the tagger answer.
+	 * </p>
+	 **/
+	private static final long POLL_INTERVAL = 5;
+
+	/**
+	 * <p>
+	 * Command that starts the tagger process.
+	 * </p>
+	 **/
+	private String command;
+	/**
+	 * <p>
+	 * The tagger process.
+	 * </p>
+	 **/
+	private Process process;
+	/**
+	 * <p>
+	 * Stream used to send frames to the tagger.
+	 * </p>
+	 **/
+	private OutputStream toTagger;
+	/**
+	 * <p>
+	 * Stream used to receive frames from the tagger.
+	 * </p>
+	 **/
+	private InputStream fromTagger;
+	/**
+	 * <p>
+	 * Time of the last successful exchange with the tagger.
+	 * </p>
+	 **/
+	private long lastUsed;
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new SuiteWorker and starts its tagger process.
+	 * </p>
+	 *
+	 * @param command
+	 *            the command that starts the tagger process.
+	 * @throws IOException
+	 *             if the process cannot be started.
+	 */
+	public SuiteWorker(String command) throws IOException {
+		this.command = command;
+		start();
+	}
+
+	/**
+	 * <p>
+	 * Starts the tagger process.
+	 * </p>
+	 *
+	 * @throws IOException
+	 *             if the process cannot be started.
+	 */
+	private void start() throws IOException {
+		process = Runtime.getRuntime().exec(command);
+		toTagger = new BufferedOutputStream(process.getOutputStream());
+		fromTagger = new BufferedInputStream(process.getInputStream());
+		lastUsed = System.currentTimeMillis();
+
+		// The error stream is consumed so that a verbose tagger never blocks.
+		Thread drainer = new Thread(new StreamDrainer(process.getErrorStream()),
+				"suite-worker-stderr");
+		drainer.setDaemon(true);
+		drainer.start();
+	}
+
+	/**
+	 * <p>
+	 * Annotates the given text.
+	 * </p>
+	 *
+	 * @param text
+	 *            the text to be annotated.
+	 * @return the annotated text, as written by the tagger.
+	 * @throws IOException
+	 *             if the exchange with the tagger fails, or does not end in
+	 *             time.
+	 */
+	public String annotate(String text) throws IOException {
+		return new String(exchange(text.getBytes(Preferences.UTF8)),
+				Preferences.UTF8);
+	}
+
+	/**
+	 * <p>
+	 * Checks if the tagger process is running and answering.
+	 * </p>
+	 * <p>
+	 * The tagger is only asked for an answer if it has not been used in the
+	 * given interval.
+	 * </p>
+	 *
+	 * @param interval
+	 *            the time, in milliseconds, after which the tagger must be
+	 *            asked for an answer.
+	 * @return true if the tagger is healthy; false otherwise.
+	 */
+	public boolean isHealthy(long interval) {
+		if (!isAlive())
+			return false;
+
+		if (System.currentTimeMillis() - lastUsed < interval)
+			return true;
+
+		try {
+			return exchange(new byte[0]).length == 0;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Checks if the tagger process is still running.
+	 * </p>
+	 *
+	 * @return true if the process is running; false otherwise.
+	 */
+	public boolean isAlive() {
+		try {
+			process.exitValue();
+			return false;
+		} catch (IllegalThreadStateException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Kills the tagger process and starts a new one.
+	 * </p>
+	 *
+	 * @throws IOException
+	 *             if the new process cannot be started.
+	 */
+	public void restart() throws IOException {
+		destroy();
+		start();
+	}
+
+	/**
+	 * <p>
+	 * Kills the tagger process.
+	 * </p>
+	 */
+	public void destroy() {
+		try {
+			toTagger.close();
+		} catch (IOException e) {
+			// The process is being killed anyway.
+		}
+		process.destroy();
+	}
+
+	/**
+	 * <p>
+	 * Sends a frame to the tagger and receives its answer, which must arrive
+	 * within LXSUITE_TIMEOUT milliseconds.
+	 * </p>
+	 *
+	 * @param payload
+	 *            the request payload.
+	 * @return the answer payload.
+	 * @throws IOException
+	 *             if the exchange fails, or does not end in time.
+	 */
+	private byte[] exchange(byte[] payload) throws IOException {
+		long deadline = Preferences.LXSUITE_TIMEOUT > 0 ? System
+				.currentTimeMillis() + Preferences.LXSUITE_TIMEOUT : 0;
+
+		writeFrame(payload);
+		byte[] answer = readFrame(deadline);
+		lastUsed = System.currentTimeMillis();
+
+		return answer;
+	}
+
+	/**
+	 * <p>
+	 * Sends a frame to the tagger.
+	 * </p>
+	 *
+	 * @param payload
+	 *            the frame payload.
+	 * @throws IOException
+	 *             if the frame cannot be written.
+	 */
+	private void writeFrame(byte[] payload) throws IOException {
+		toTagger.write((payload.length + "\n").getBytes(Preferences.UTF8));
+		toTagger.write(payload);
+		toTagger.flush();
+	}
+
+	/**
+	 * <p>
+	 * Receives a frame from the tagger.
+	 * </p>
+	 *
+	 * @param deadline
+	 *            the time by which the frame must be received (0 for no
+	 *            limit).
+	 * @return the frame payload.
+	 * @throws IOException
+	 *             if the frame cannot be read, is malformed, or is not
+	 *             received in time.
+	 */
+	private byte[] readFrame(long deadline) throws IOException {
+		ByteArrayOutputStream header = new ByteArrayOutputStream();
+		awaitAnswer(deadline);
+		int current = fromTagger.read();
+
+		while (current != '\n') {
+			if (current < 0)
+				throw new EOFException("Tagger closed its output: " + command);
+			if (current != '\r')
+				header.write(current);
+			awaitAnswer(deadline);
+			current = fromTagger.read();
+		}
+
+		int length;
+		try {
+			length = Integer.parseInt(header.toString(Preferences.UTF8).trim());
+		} catch (NumberFormatException e) {
+			throw new IOException("Malformed frame header from tagger: "
+					+ header.toString(Preferences.UTF8));
+		}
+
+		byte[] payload = new byte[length];
+		int read = 0;
+
+		while (read < length) {
+			awaitAnswer(deadline);
+			int count = fromTagger.read(payload, read, length - read);
+			if (count < 0)
+				throw new EOFException("Tagger closed its output: " + command);
+			read += count;
+		}
+
+		return payload;
+	}
+
+	/**
+	 * <p>
+	 * Waits until there is something to read from the tagger.
+	 * </p>
+	 *
+	 * @param deadline
+	 *            the time by which something must be available (0 for no
+	 *            limit).
+	 * @throws IOException
+	 *             if the tagger ended, or the deadline has passed.
+	 */
+	private void awaitAnswer(long deadline) throws IOException {
+		if (deadline <= 0)
+			return;
+
+		while (fromTagger.available() == 0) {
+			// Whatever a finished process wrote is already available.
+			if (!isAlive())
+				throw new EOFException("Tagger closed its output: " + command);
+			if (System.currentTimeMillis() >= deadline)
+				throw new IOException("Tagger did not answer in "
+						+ Preferences.LXSUITE_TIMEOUT + " ms: " + command);
+
+			try {
+				Thread.sleep(POLL_INTERVAL);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException(
+						"Interrupted while waiting for the tagger: " + command);
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * Discards everything written to a stream.
+	 * </p>
+	 */
+	private static class StreamDrainer implements Runnable {
+
+		private InputStream stream;
+
+		public StreamDrainer(InputStream stream) {
+			this.stream = stream;
+		}
+
+		public void run() {
+			byte[] buffer = new byte[4096];
+			try {
+				while (stream.read(buffer) >= 0)
+					;
+			} catch (IOException e) {
+				// The process has ended.
+			}
+		}
+	}
+
+	/** Getters & Setters **/
+	public String getCommand() {
+		return command;
+	}
+
+}
@@ -0,0 +1,266 @@
+package external.suite;
+
+import java.io.IOException;
+import java.util.Hashtable;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * This class manages a pool of long-lived LX-Suite tagger processes that run
+ * the same command.
+ * </p>
+ * <p>
+ * Processes are started on demand, up to the pool size, and are reused by the
+ * following requests. A process that stops answering is restarted.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class SuiteWorkerPool {
+
+	/**
+	 * <p>
+	 * Time, in milliseconds, after which an idle process is asked for an
+	 * answer before being reused.
+	 * </p>
+	 **/
+	private static final long HEALTH_CHECK_INTERVAL = 30000;
+
+	/**
+	 * <p>
+	 * Pools already created, indexed by their command.
+	 * </p>
+	 **/
+	private static Hashtable<String, SuiteWorkerPool> pools = new Hashtable<String, SuiteWorkerPool>();
+
+	/**
+	 * <p>
+	 * Command that starts the tagger processes.
+	 * </p>
+	 **/
+	private String command;
+	/**
+	 * <p>
+	 * Maximum number of processes.
+	 * </p>
+	 **/
+	private int size;
+	/**
+	 * <p>
+	 * Number of processes currently owned by the pool.
+	 * </p>
+	 **/
+	private int created;
+	/**
+	 * <p>
+	 * Processes waiting for a request.
+	 * </p>
+	 **/
+	private BlockingQueue<SuiteWorker> idle;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new SuiteWorkerPool.
+	 * </p>
+	 *
+	 * @param command
+	 *            the command that starts the tagger processes.
+	 * @param size
+	 *            the maximum number of processes.
+	 */
+	private SuiteWorkerPool(String command, int size) {
+		this.command = command;
+		this.size = Math.max(1, size);
+		this.created = 0;
+		this.idle = new LinkedBlockingQueue<SuiteWorker>();
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the pool of processes that run the given command, creating it
+	 * if needed.
+	 * </p>
+	 *
+	 * @param command
+	 *            the command that starts the tagger processes.
+	 * @param size
+	 *            the maximum number of processes, used if the pool is created.
+	 * @return the pool of processes for the command.
+	 */
+	public static synchronized SuiteWorkerPool getPool(String command,
+			int size) {
+		if (pools.isEmpty())
+			Runtime.getRuntime().addShutdownHook(new Thread() {
+				public void run() {
+					shutdownAll();
+				}
+			});
+
+		SuiteWorkerPool pool = pools.get(command);
+
+		if (pool == null) {
+			pool = new SuiteWorkerPool(command, size);
+			pools.put(command, pool);
+		}
+
+		return pool;
+	}
+
+	/**
+	 * <p>
+	 * Kills the processes of every pool.
+	 * </p>
+	 */
+	public static synchronized void shutdownAll() {
+		for (SuiteWorkerPool pool : pools.values())
+			pool.shutdown();
+
+		pools.clear();
+	}
+
+	/**
+	 * <p>
+	 * Annotates the given text with one of the pool processes.
+	 * </p>
+	 * <p>
+	 * If the process fails, it is restarted and the text is submitted once
+	 * more.
+	 * </p>
+	 *
+	 * @param text
+	 *            the text to be annotated.
+	 * @return the annotated text; null if the text could not be annotated.
+	 */
+	public String annotate(String text) {
+		SuiteWorker worker = null;
+
+		try {
+			worker = borrow();
+
+			try {
+				return worker.annotate(text);
+			} catch (IOException e) {
+				worker.restart();
+				return worker.annotate(text);
+			}
+		} catch (Exception e) {
+			System.out
+					.println("============= ERROR in class [SuiteWorkerPool.annotate].\nException trace:");
+			System.out.println(e.toString());
+			e.printStackTrace();
+
+			if (worker != null) {
+				worker.destroy();
+				discard();
+				worker = null;
+			}
+
+			if (e instanceof InterruptedException)
+				Thread.currentThread().interrupt();
+
+			return null;
+		} finally {
+			if (worker != null)
+				idle.offer(worker);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Retrieves a healthy process, waiting for one to be released if all the
+	 * processes are busy.
+	 * </p>
+	 *
+	 * @return a healthy process.
+	 * @throws IOException
+	 *             if a process cannot be started.
+	 * @throws InterruptedException
+	 *             if the current thread is interrupted while waiting.
+	 */
+	private SuiteWorker borrow() throws IOException, InterruptedException {
+		SuiteWorker worker = idle.poll();
+
+		// Waits in short steps, so that the room left by a killed process is
+		// noticed by the waiting requests.
+		while (worker == null) {
+			if (reserve()) {
+				try {
+					return new SuiteWorker(command);
+				} catch (IOException e) {
+					discard();
+					throw e;
+				}
+			}
+
+			worker = idle.poll(1, TimeUnit.SECONDS);
+		}
+
+		if (!worker.isHealthy(HEALTH_CHECK_INTERVAL)) {
+			try {
+				worker.restart();
+			} catch (IOException e) {
+				worker.destroy();
+				discard();
+				throw e;
+			}
+		}
+
+		return worker;
+	}
+
+	/**
+	 * <p>
+	 * Reserves room for a new process, if the pool is not full.
+	 * </p>
+	 *
+	 * @return true if a new process can be started; false otherwise.
+	 */
+	private synchronized boolean reserve() {
+		if (created < size) {
+			created++;
+			return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * <p>
+	 * Releases the room of a process that has been killed.
+	 * </p>
+	 */
+	private synchronized void discard() {
+		created--;
+	}
+
+	/**
+	 * <p>
+	 * Kills the idle processes of this pool.
+	 * </p>
+	 */
+	private void shutdown() {
+		SuiteWorker worker = idle.poll();
+
+		while (worker != null) {
+			worker.destroy();
+			discard();
+			worker = idle.poll();
+		}
+	}
+
+	/** Getters & Setters **/
+	public String getCommand() {
+		return command;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+}
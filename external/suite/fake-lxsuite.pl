@@ -0,0 +1,82 @@
+#!/usr/bin/perl
+#
+# Stand-in for the LX-Suite taggers, used to run the summarizer without
+# LX-Suite installed.
+#
+# Usage:
+#   fake-lxsuite.pl chunk|pos          long-lived worker (framed protocol)
+#   fake-lxsuite.pl chunk|pos --once   reads the whole input, as LX-Suite does
+#
+# Framed protocol: each frame is a line with the payload length in bytes,
+# followed by the UTF-8 payload. An empty request is a health check and is
+# answered by an empty frame.
+#
+# The output only imitates the LX-Suite format: sentences are delimited by
+# <s></s> inside a <p></p>, punctuation is split from the words, and every
+# word is annotated as token/LEMMA/CN (punctuation as token/PNT).
+
+use strict;
+use warnings;
+use Encode qw(decode encode);
+
+my $mode = shift @ARGV || 'pos';
+my $once = (@ARGV && $ARGV[0] eq '--once');
+
+binmode STDIN;
+binmode STDOUT;
+$| = 1;
+
+if ($once) {
+	local $/;
+	my $input = <STDIN>;
+	$input = '' unless defined $input;
+	print encode('UTF-8', annotate(decode('UTF-8', $input))), "\n";
+	exit 0;
+}
+
+while (defined(my $header = <STDIN>)) {
+	$header =~ s/\s+$//;
+	next if $header eq '';
+	die "fake-lxsuite: malformed frame header '$header'\n"
+		unless $header =~ /^\d+$/;
+
+	my $payload = '';
+	while (length($payload) < $header) {
+		my $read = read(STDIN, $payload, $header - length($payload),
+			length($payload));
+		die "fake-lxsuite: truncated frame\n" unless $read;
+	}
+
+	my $output = $header == 0 ? ''
+		: encode('UTF-8', annotate(decode('UTF-8', $payload)));
+	print length($output), "\n", $output;
+}
+
+sub annotate {
+	my ($text) = @_;
+	my @sentences = grep { /\S/ } split /(?<=[.!?])\s+/, $text;
+	my $output = '<p>';
+
+	foreach my $sentence (@sentences) {
+		$sentence =~ s/^\s+|\s+$//g;
+		$output .= '<s>'
+			. ($mode eq 'chunk' ? $sentence : tag($sentence))
+			. '</s>';
+	}
+
+	return $output . '</p>';
+}
+
+sub tag {
+	my ($sentence) = @_;
+	my @tokens;
+
+	foreach my $word (split /\s+/, $sentence) {
+		my ($pre, $core, $post) = $word =~ /^(\p{P}*)(.*?)(\p{P}*)$/;
+		push @tokens, map { "$_/PNT" } split //, $pre;
+		push @tokens, $core . '/' . uc($core) . '/CN' if length $core;
+		push @tokens, map { "$_/PNT" } split //, $post;
+	}
+
+	return ' ' . join(' ', @tokens) . ' ';
+}
@@ -1,5 +1,7 @@
 package options;
 
+import java.util.Map;
+
 import preferences.Preferences;
 
 /**
@@ -36,6 +38,13 @@ public abstract class Option {
 	 * </p>
 	 **/
 	private String documentsLocation;
+	/**
+	 * <p>
+	 * Documents texts submitted directly, indexed by document name (null to
+	 * read the documents from the documents location).
+	 * </p>
+	 **/
+	private Map<String, String> documentTexts;
 
 	/**
 	 * <p>
@@ -69,6 +78,10 @@ public abstract class Option {
 		return documentsLocation;
 	}
 
+	public Map<String, String> getDocumentTexts() {
+		return documentTexts;
+	}
+
 	/** Setters **/
 	public void setFunction(Preferences.Function function) {
 		this.function = function;
@@ -85,4 +98,8 @@ public abstract class Option {
 	public void setDocumentsLocation(String documentsLocation) {
 		this.documentsLocation = documentsLocation;
 	}
+
+	public void setDocumentTexts(Map<String, String> documentTexts) {
+		this.documentTexts = documentTexts;
+	}
 }
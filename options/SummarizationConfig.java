@@ -0,0 +1,128 @@
+package options;
+
+import preferences.Preferences;
+
+/**
+ * <p>
+ * This class defines the settings of a single summarization request.
+ * </p>
+ * <p>
+ * A configuration is never changed after it is built: each change builds a
+ * new configuration, so the controllers of concurrent requests never see the
+ * settings of each other. The static fields of Preferences (SUMMARY_TYPE,
+ * MAX_KEYWORDS and OUTPUT_FILE) are only the defaults of a new configuration.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class SummarizationConfig {
+
+	/**
+	 * <p>
+	 * Summary type.
+	 * </p>
+	 **/
+	private final Preferences.FINAL_SUMMARY_TYPE summaryType;
+	/**
+	 * <p>
+	 * Maximum number of keywords extracted.
+	 * </p>
+	 **/
+	private final int maxKeywords;
+	/**
+	 * <p>
+	 * File in which the summary is written.
+	 * </p>
+	 **/
+	private final String outputFile;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new SummarizationConfig.
+	 * </p>
+	 *
+	 * @param summaryType
+	 *            the summary type.
+	 * @param maxKeywords
+	 *            the maximum number of keywords extracted.
+	 * @param outputFile
+	 *            the file in which the summary is written.
+	 */
+	public SummarizationConfig(Preferences.FINAL_SUMMARY_TYPE summaryType,
+			int maxKeywords, String outputFile) {
+		this.summaryType = summaryType;
+		this.maxKeywords = maxKeywords;
+		this.outputFile = outputFile;
+	}
+
+	/**
+	 * <p>
+	 * Builds a new SummarizationConfig with the current defaults.
+	 * </p>
+	 *
+	 * @return the configuration defined by Preferences.
+	 */
+	public static SummarizationConfig defaults() {
+		return new SummarizationConfig(Preferences.SUMMARY_TYPE,
+				Preferences.MAX_KEYWORDS, Preferences.OUTPUT_FILE);
+	}
+
+	/**
+	 * <p>
+	 * Builds a copy of this configuration with another summary type.
+	 * </p>
+	 *
+	 * @param summaryType
+	 *            the summary type.
+	 * @return the new configuration.
+	 */
+	public SummarizationConfig withSummaryType(
+			Preferences.FINAL_SUMMARY_TYPE summaryType) {
+		return new SummarizationConfig(summaryType, maxKeywords, outputFile);
+	}
+
+	/**
+	 * <p>
+	 * Builds a copy of this configuration with another maximum number of
+	 * keywords.
+	 * </p>
+	 *
+	 * @param maxKeywords
+	 *            the maximum number of keywords extracted.
+	 * @return the new configuration.
+	 */
+	public SummarizationConfig withMaxKeywords(int maxKeywords) {
+		return new SummarizationConfig(summaryType, maxKeywords, outputFile);
+	}
+
+	/**
+	 * <p>
+	 * Builds a copy of this configuration with another output file.
+	 * </p>
+	 *
+	 * @param outputFile
+	 *            the file in which the summary is written.
+	 * @return the new configuration.
+	 */
+	public SummarizationConfig withOutputFile(String outputFile) {
+		return new SummarizationConfig(summaryType, maxKeywords, outputFile);
+	}
+
+	/** Getters **/
+	public Preferences.FINAL_SUMMARY_TYPE getSummaryType() {
+		return summaryType;
+	}
+
+	public int getMaxKeywords() {
+		return maxKeywords;
+	}
+
+	public String getOutputFile() {
+		return outputFile;
+	}
+
+}
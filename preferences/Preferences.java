@@ -2,10 +2,8 @@ package preferences;
 
 import java.io.File;
 import java.net.URL;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -15,7 +13,7 @@ import java.util.Scanner;
 import java.util.Set;
 import java.util.TreeSet;
 
-import core.Connective;
+import core.ConnectiveLexicon;
 import core.Document;
 import core.NamedEntity;
 import core.Paragraph;
@@ -61,8 +59,12 @@ public class Preferences {
 	 * </p>
 	 */
 	public static String CONNECTIVES_FILE;
-	private static final String CONNECTIVES_FILE_SPLITTER = ";;";
-	public static int MAX_CONNECTIVES;
+	/**
+	 * <p>
+	 * Connectives lexicon last loaded.
+	 * </p>
+	 */
+	private static ConnectiveLexicon connectiveLexicon;
 
 	/**
 	 * <p>
@@ -112,6 +114,27 @@ public class Preferences {
 	// public static final double SENTENCE_SIMILIARITY_THRESHOLD = 0.75;
 	public static final double SIMPLIFIED_SENTENCE_SIMILIARITY_THRESHOLD = 0.5;
 	public static final double TOPIC_SIMILIARITY_THRESHOLD = 0.5;
+	/**
+	 * <p>
+	 * Determines if only the pairs of sentences that may reach the similarity
+	 * threshold are compared; otherwise, every pair is compared.
+	 * </p>
+	 **/
+	public static boolean SIMILARITY_CANDIDATES = true;
+	/**
+	 * <p>
+	 * Number of threads that compute the similarities between sentences
+	 * (defaults to the number of processors).
+	 * </p>
+	 **/
+	public static int SIMILARITY_THREADS = Runtime.getRuntime()
+			.availableProcessors();
+	/**
+	 * <p>
+	 * Maximum number of subsentences scored while simplifying each sentence.
+	 * </p>
+	 **/
+	public static int SIMPLIFICATION_MAX_SUBSENTENCES = 4096;
 	/**
 	 * <p>
 	 * Occurrence threshold.
@@ -185,6 +208,75 @@ public class Preferences {
 	 * </p>
 	 **/
 	public static final int MAXIMUM_THREADS = 7;
+	/**
+	 * <p>
+	 * Number of documents annotated at the same time (defaults to
+	 * MAXIMUM_THREADS).
+	 * </p>
+	 **/
+	public static int ANNOTATION_THREADS = MAXIMUM_THREADS;
+	/**
+	 * <p>
+	 * Whether each document is annotated in its own virtual thread, when the
+	 * platform provides them (instead of the ANNOTATION_THREADS threads).
+	 * </p>
+	 **/
+	public static boolean VIRTUAL_THREADS = false;
+	/**
+	 * <p>
+	 * Whether the documents are annotated in a pipeline of stages (POS
+	 * annotation, NER and rule-based NER, with the chunking beside them),
+	 * instead of one whole document by each thread.
+	 * </p>
+	 **/
+	public static boolean ANNOTATION_PIPELINE = true;
+	/**
+	 * <p>
+	 * Maximum number of external processes (LX-Suite and LX-NER runs) running
+	 * at the same time.
+	 * </p>
+	 **/
+	public static int EXTERNAL_PROCESSES = MAXIMUM_THREADS;
+	/**
+	 * <p>
+	 * Maximum number of annotated documents kept in memory between runs (0
+	 * to keep none).
+	 * </p>
+	 **/
+	public static int ANNOTATION_CACHE_SIZE = 100;
+	/**
+	 * <p>
+	 * Directory in which the annotated documents are kept between processes
+	 * (null to keep them only in memory).
+	 * </p>
+	 **/
+	public static String ANNOTATION_STORE;
+	/**
+	 * <p>
+	 * Port on which the summarization service listens.
+	 * </p>
+	 **/
+	public static int SERVICE_PORT = 8080;
+	/**
+	 * <p>
+	 * Number of summaries built at the same time by the summarization
+	 * service.
+	 * </p>
+	 **/
+	public static int SERVICE_THREADS = 2;
+	/**
+	 * <p>
+	 * Number of requests the summarization service keeps waiting for a free
+	 * thread; the following ones are refused.
+	 * </p>
+	 **/
+	public static int SERVICE_QUEUE_SIZE = 16;
+	/**
+	 * <p>
+	 * Number of folders summarized at the same time in SUM mode.
+	 * </p>
+	 **/
+	public static int BATCH_THREADS = 1;
 
 	/**
 	 * <p>
@@ -268,6 +360,33 @@ public class Preferences {
 	 * </p>
 	 */
 	public static String LXSUITE_CHUNKER;
+	/**
+	 * <p>
+	 * Command that starts a long-lived LX-Suite pos-annotation worker (null to
+	 * run LXSUITE_POSANNOTATION once per text).
+	 * </p>
+	 */
+	public static String LXSUITE_POS_WORKER;
+	/**
+	 * <p>
+	 * Command that starts a long-lived LX-Suite chunker worker (null to run
+	 * LXSUITE_CHUNKER once per text).
+	 * </p>
+	 */
+	public static String LXSUITE_CHUNK_WORKER;
+	/**
+	 * <p>
+	 * Maximum number of long-lived workers for each LX-Suite command.
+	 * </p>
+	 */
+	public static int LXSUITE_WORKERS = MAXIMUM_THREADS;
+	/**
+	 * <p>
+	 * Maximum time, in milliseconds, that a long-lived LX-Suite worker takes
+	 * to answer a request before being restarted (0 for no limit).
+	 * </p>
+	 */
+	public static long LXSUITE_TIMEOUT = 60000;
 	/**
 	 * <p>
 	 * LX-Suite running path.
@@ -287,6 +406,32 @@ public class Preferences {
 	 * </p>
 	 **/
 	public static String PARSER_MODEL_FILE;
+	/**
+	 * <p>
+	 * Maximum number of parse trees kept in memory.
+	 * </p>
+	 **/
+	public static int PARSE_CACHE_SIZE = 10000;
+	/**
+	 * <p>
+	 * File in which the parse trees are kept between runs (null to keep them
+	 * only in memory).
+	 * </p>
+	 **/
+	public static String PARSE_CACHE_FILE;
+	/**
+	 * <p>
+	 * Maximum number of parsers loaded at the same time (each one keeps its
+	 * own copy of the model).
+	 * </p>
+	 **/
+	public static int PARSER_POOL_SIZE = 1;
+	/**
+	 * <p>
+	 * Maximum time, in milliseconds, to parse a sentence (0 for no limit).
+	 * </p>
+	 **/
+	public static long PARSE_TIMEOUT = 60000;
 
 	/**
 	 * <p>
@@ -1443,6 +1588,14 @@ public class Preferences {
 						LXSUITE_POSANNOTATION = splitted[1];
 					else if (splitted[0].equals("LXSUITE_CHUNK"))
 						LXSUITE_CHUNKER = splitted[1];
+					else if (splitted[0].equals("LXSUITE_POS_WORKER"))
+						LXSUITE_POS_WORKER = splitted[1];
+					else if (splitted[0].equals("LXSUITE_CHUNK_WORKER"))
+						LXSUITE_CHUNK_WORKER = splitted[1];
+					else if (splitted[0].equals("LXSUITE_WORKERS"))
+						LXSUITE_WORKERS = (new Integer(splitted[1])).intValue();
+					else if (splitted[0].equals("LXSUITE_TIMEOUT"))
+						LXSUITE_TIMEOUT = (new Long(splitted[1])).longValue();
 					else if (splitted[0].equals("LXSUITE"))
 						LXSUITE = splitted[1];
 					else if (splitted[0].equals("INPUT_DEFAULT_LOCATION"))
@@ -1460,6 +1613,14 @@ public class Preferences {
 						// PARSER_MODEL_FILE = CONSTITUENCY_PARSER +
 						// splitted[1];
 						PARSER_MODEL_FILE = splitted[1];
+					else if (splitted[0].equals("PARSE_CACHE_SIZE"))
+						PARSE_CACHE_SIZE = (new Integer(splitted[1])).intValue();
+					else if (splitted[0].equals("PARSE_CACHE_FILE"))
+						PARSE_CACHE_FILE = splitted[1];
+					else if (splitted[0].equals("PARSER_POOL_SIZE"))
+						PARSER_POOL_SIZE = (new Integer(splitted[1])).intValue();
+					else if (splitted[0].equals("PARSE_TIMEOUT"))
+						PARSE_TIMEOUT = (new Long(splitted[1])).longValue();
 					else if (splitted[0].equals("STATISTICS_LOCATION")) {
 						STATISTICS_LOCATION = splitted[1];
 						DEMO_FILE = STATISTICS_LOCATION + DEMO_FILE;
@@ -1479,6 +1640,38 @@ public class Preferences {
 						CONNECTIVES_FILE = splitted[1];
 					else if (splitted[0].equals("WEKA_BINARY_MODEL_FILE"))
 						WEKA_BINARY_MODEL_FILE = splitted[1];
+					else if (splitted[0].equals("ANNOTATION_THREADS"))
+						ANNOTATION_THREADS = (new Integer(splitted[1]))
+								.intValue();
+					else if (splitted[0].equals("ANNOTATION_PIPELINE"))
+						ANNOTATION_PIPELINE = splitted[1].equals("TRUE");
+					else if (splitted[0].equals("VIRTUAL_THREADS"))
+						VIRTUAL_THREADS = splitted[1].equals("TRUE");
+					else if (splitted[0].equals("EXTERNAL_PROCESSES"))
+						EXTERNAL_PROCESSES = (new Integer(splitted[1]))
+								.intValue();
+					else if (splitted[0].equals("ANNOTATION_CACHE_SIZE"))
+						ANNOTATION_CACHE_SIZE = (new Integer(splitted[1]))
+								.intValue();
+					else if (splitted[0].equals("ANNOTATION_STORE"))
+						ANNOTATION_STORE = splitted[1];
+					else if (splitted[0].equals("SERVICE_PORT"))
+						SERVICE_PORT = (new Integer(splitted[1])).intValue();
+					else if (splitted[0].equals("SERVICE_THREADS"))
+						SERVICE_THREADS = (new Integer(splitted[1])).intValue();
+					else if (splitted[0].equals("SERVICE_QUEUE_SIZE"))
+						SERVICE_QUEUE_SIZE = (new Integer(splitted[1]))
+								.intValue();
+					else if (splitted[0].equals("BATCH_THREADS"))
+						BATCH_THREADS = (new Integer(splitted[1])).intValue();
+					else if (splitted[0].equals("SIMILARITY_CANDIDATES"))
+						SIMILARITY_CANDIDATES = splitted[1].equals("TRUE");
+					else if (splitted[0].equals("SIMILARITY_THREADS"))
+						SIMILARITY_THREADS = (new Integer(splitted[1]))
+								.intValue();
+					else if (splitted[0].equals("SIMPLIFICATION_MAX_SUBSENTENCES"))
+						SIMPLIFICATION_MAX_SUBSENTENCES = (new Integer(
+								splitted[1])).intValue();
 
 					// else if (splitted[0].equals("SENTENCE_SCORE"))
 					// SENTENCE_SCORE = new Double(splitted[1]).doubleValue();
@@ -1636,98 +1829,104 @@ public class Preferences {
 
 	public static void setMaxKeywords(int totalWords) {
 		// MAX_KEYWORDS = 50;
-		Preferences.MAX_KEYWORDS = (new Double(
-				Math.sqrt((double) totalWords / 2))).intValue();
+		Preferences.MAX_KEYWORDS = maxKeywords(totalWords);
+	}
+
+	/**
+	 * <p>
+	 * Computes the maximum number of keywords for a summary.
+	 * </p>
+	 * 
+	 * @param totalWords
+	 *            the maximum number of summary words.
+	 * @return the maximum number of keywords.
+	 */
+	public static int maxKeywords(int totalWords) {
+		return (new Double(Math.sqrt((double) totalWords / 2))).intValue();
 	}
 
 	public static void setFinalSummaryType(String type) {
+		SUMMARY_TYPE = parseFinalSummaryType(type);
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the summary type with the given name.
+	 * </p>
+	 * 
+	 * @param type
+	 *            the summary type name.
+	 * @return the summary type; SIMPLIFIED if the name is unknown.
+	 */
+	public static FINAL_SUMMARY_TYPE parseFinalSummaryType(String type) {
+		FINAL_SUMMARY_TYPE summaryType = findFinalSummaryType(type);
+
+		return summaryType != null ? summaryType : FINAL_SUMMARY_TYPE.SIMPLIFIED;
+	}
+
+	/**
+	 * <p>
+	 * Checks if the given name is the name of a summary type.
+	 * </p>
+	 * 
+	 * @param type
+	 *            the summary type name.
+	 * @return true if the name is known; false otherwise.
+	 */
+	public static boolean isFinalSummaryType(String type) {
+		return findFinalSummaryType(type) != null;
+	}
 
+	/**
+	 * <p>
+	 * Retrieves the summary type with the given name.
+	 * </p>
+	 * 
+	 * @param type
+	 *            the summary type name.
+	 * @return the summary type; null if the name is unknown.
+	 */
+	private static FINAL_SUMMARY_TYPE findFinalSummaryType(String type) {
 		if (type.equals("SIMPLIFIED"))
-			SUMMARY_TYPE = FINAL_SUMMARY_TYPE.SIMPLIFIED;
+			return FINAL_SUMMARY_TYPE.SIMPLIFIED;
 		else if (type.equals("NON-SIMPLIFIED"))
-			SUMMARY_TYPE = FINAL_SUMMARY_TYPE.NONSIMPLIFIED;
+			return FINAL_SUMMARY_TYPE.NONSIMPLIFIED;
 		else if (type.equals("NON-POST-PROCESSED"))
-			SUMMARY_TYPE = FINAL_SUMMARY_TYPE.NONPOSTPROCESSED;
+			return FINAL_SUMMARY_TYPE.NONPOSTPROCESSED;
 		else if (type.equals("RANDOM-BASELINE"))
-			SUMMARY_TYPE = FINAL_SUMMARY_TYPE.RANDOMBASELINE;
+			return FINAL_SUMMARY_TYPE.RANDOMBASELINE;
 		else if (type.equals("SIMPLIFICATION-BASELINE"))
-			SUMMARY_TYPE = FINAL_SUMMARY_TYPE.SIMPLIFICATIONBASELINE;
+			return FINAL_SUMMARY_TYPE.SIMPLIFICATIONBASELINE;
 		else if (type.equals("PARAGRAPHS-BASELINE"))
-			SUMMARY_TYPE = FINAL_SUMMARY_TYPE.PARAGRAPHBASELINE;
+			return FINAL_SUMMARY_TYPE.PARAGRAPHBASELINE;
 		else if (type.equals("CONNECTIVES-BASELINE"))
-			SUMMARY_TYPE = FINAL_SUMMARY_TYPE.CONNECTIVESBASELINE;
+			return FINAL_SUMMARY_TYPE.CONNECTIVESBASELINE;
 		else if (type.equals("POST-PROCESS-WITHOUT-SUMMARY"))
-			SUMMARY_TYPE = FINAL_SUMMARY_TYPE.ONLYPOSTPROCESSEDNOSUMMARY;
+			return FINAL_SUMMARY_TYPE.ONLYPOSTPROCESSEDNOSUMMARY;
 		else if (type.equals("REPLACECONNECTIVES"))
-			SUMMARY_TYPE = FINAL_SUMMARY_TYPE.REPLACECONNECTIVES;
+			return FINAL_SUMMARY_TYPE.REPLACECONNECTIVES;
 		else if (type.equals("REPLACEPARAGRAPHS"))
-			SUMMARY_TYPE = FINAL_SUMMARY_TYPE.REPLACEPARAGRAPHS;
+			return FINAL_SUMMARY_TYPE.REPLACEPARAGRAPHS;
 		else
-			SUMMARY_TYPE = FINAL_SUMMARY_TYPE.SIMPLIFIED;
+			return null;
 	}
 
-	public static Hashtable<String, List<Connective>> loadAnnotatedConnectives() {
-
-		Hashtable<String, List<Connective>> annotatedConnectives = new Hashtable<String, List<Connective>>();
-
-		try {
-			Scanner s = new Scanner(new File(CONNECTIVES_FILE));
-			List<Connective> connectives = null;
-			// Read preferences file
-			while (s.hasNext()) {
-				String line = s.nextLine(), currentClass = "";
-
-				if (!line.startsWith("#") && !line.equals("")) {
-
-					String[] tokens = line.split(CONNECTIVES_FILE_SPLITTER);
-					currentClass = tokens[0] + Regex.ANNOTATION_SPLITTER
-							+ tokens[1] + Regex.ANNOTATION_SPLITTER;
-					connectives = new ArrayList<Connective>();
-
-					// System.out.println("\n\nClass:" + currentClass);
-
-					int totalConnectives = 0, currentMax = 0;
-
-					while (s.hasNext()) {
-						line = s.nextLine();
-						if (!line.startsWith("#")) {
-
-							if (line.equals(""))
-								break;
-
-							String[] types = line
-									.split(Preferences.CONNECTIVES_FILE_SPLITTER);
-
-							Connective connective = new Connective(types[0],
-									types[1], types[2], types[3], currentClass,
-									types[4]);
-							connectives.add(connective);
-
-							totalConnectives++;
-
-							if (totalConnectives > currentMax)
-								currentMax = totalConnectives;
-
-						}
-
-					}
-
-					if (currentMax > MAX_CONNECTIVES)
-						MAX_CONNECTIVES = currentMax;
+	/**
+	 * <p>
+	 * Retrieves the connectives lexicon, which is read again only when the
+	 * connectives file changes.
+	 * </p>
+	 *
+	 * @return the connectives lexicon.
+	 */
+	public static synchronized ConnectiveLexicon getConnectiveLexicon() {
 
-					annotatedConnectives.put(currentClass, connectives);
-				}
+		File file = new File(CONNECTIVES_FILE);
 
-			}
-			s.close();
-		} catch (Exception e) {
-			System.out
-					.println("============= ERROR in class [Preferences.loadConnectives()].\nException trace:");
-			System.out.println(e.toString());
-			e.printStackTrace();
-		}
+		if (connectiveLexicon == null || connectiveLexicon.isModified(file))
+			connectiveLexicon = new ConnectiveLexicon(file);
 
-		return annotatedConnectives;
+		return connectiveLexicon;
 	}
 
 	public static Set<String> getDiscourseRelationClasses() {
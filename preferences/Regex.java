@@ -2,6 +2,7 @@ package preferences;
 
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -163,6 +164,151 @@ public class Regex {
 	public static final String INFINITIVE_VERB = "INF";
 	public static final String CONDITIONAL_VERB = "c";
 	
+	/** <p>Maximum number of patterns kept by the compile cache (enough for the patterns built for every connective).</p> **/
+	private static final int PATTERN_CACHE_SIZE = 4096;
+	/** <p>Patterns built at run time, already compiled.</p> **/
+	private static final ConcurrentHashMap<String, Pattern> PATTERN_CACHE = new ConcurrentHashMap<String, Pattern>();
+	
+	/** <p>Word containing an end of sentence symbol.</p> **/
+	private static final Pattern ENDS_SENTENCE_PATTERN = Pattern.compile(".*?" + END_SENTENCE + ".*?");
+	/** <p>Word containing a punctuation mark.</p> **/
+	private static final Pattern CONTAINS_PUNCTUATION_PATTERN = Pattern.compile(".*?" + PUNCTUATION_CLASS + ".*");
+	/** <p>Word made of punctuation marks.</p> **/
+	private static final Pattern ONLY_PUNCTUATION_PATTERN = Pattern.compile(PUNCTUATION_CLASS + "+");
+	/** <p>Word containing a left whitespace.</p> **/
+	private static final Pattern LEFT_SPACE_PATTERN = Pattern.compile(".*" + LEFT_SPACE + ".*");
+	/** <p>Word containing a right whitespace.</p> **/
+	private static final Pattern RIGHT_SPACE_PATTERN = Pattern.compile(".*" + RIGHT_SPACE + ".*");
+	/** <p>Non-word symbol.</p> **/
+	private static final Pattern NON_WORD_SYMBOL_PATTERN = Pattern.compile("(?:" + NON_WORD_SYMBOL + ")");
+	/** <p>Non-word symbols at the end of a word.</p> **/
+	private static final Pattern POST_NON_WORD_PATTERN = Pattern.compile("\\S+?((?:" + NON_WORD_SYMBOL + ")+)$");
+	/** <p>Non-word symbols at the beginning of a word.</p> **/
+	private static final Pattern PRE_NON_WORD_PATTERN = Pattern.compile("^((?:" + NON_WORD_SYMBOL + ")+)\\S+");
+	/** <p>Non-word symbol with its whitespace annotations.</p> **/
+	private static final Pattern NON_WORD_PATTERN = Pattern.compile("(?:" + "(?:" + LEFT_SPACE + ")?" + NON_WORD_SYMBOL + "(?:" + RIGHT_SPACE + ")?" + ")");
+	/** <p>Ordinal token.</p> **/
+	private static final Pattern ORDINAL_TOKEN_PATTERN = Pattern.compile("(?:" + "(?:" + ORDINAL_TOKEN + ")" + ")");
+	/** <p>Compound word, ordinal token or compound number.</p> **/
+	private static final Pattern COMPOUND_TOKEN_PATTERN = Pattern.compile("(?:" + "(?:" + COMPOUND_WORD + ")" 
+			+ "|" + "(?:" + ORDINAL_TOKEN + ")"
+			+ "|" + "(?:" + COMPOUND_NUMBER + ")"
+			+ ")");
+	/** <p>Contraction.</p> **/
+	private static final Pattern CONTRACTION_PATTERN = Pattern.compile(CONTRACTION);
+	/** <p>Each of the quotes.</p> **/
+	private static final Pattern[] QUOTE_PATTERNS = compileAll(QUOTES);
+	/** <p>Main quote.</p> **/
+	private static final Pattern QUOTE_PATTERN = Pattern.compile("(" + QUOTE + ")");
+	/** <p>Each of the brackets.</p> **/
+	private static final Pattern[] BRACKET_PATTERNS = compileAll(BRACKETS[0]);
+	/** <p>Each of the brackets, converted to be parsed.</p> **/
+	private static final Pattern[] CONVERTED_BRACKET_PATTERNS = compileAll(BRACKETS[1]);
+	/** <p>Word token.</p> **/
+	private static final Pattern WORD_TOKEN_PATTERN = Pattern.compile("(" + CONTRACTED_WORD + "|" + COMPOUND_WORD + "|" + WORD + "|" + DIGIT + ")");
+	/** <p>Token of an annotated word.</p> **/
+	private static final Pattern TOKEN_PATTERN = Pattern.compile(TOKEN);
+	/** <p>Annotation of an annotated word.</p> **/
+	private static final Pattern ANNOTATION_PATTERN = Pattern.compile(ANNOTATION);
+	/** <p>Lemma of an annotated word.</p> **/
+	private static final Pattern LEMMA_PATTERN = Pattern.compile(LEMMA);
+	/** <p>Spaces between tokens.</p> **/
+	private static final Pattern SPACES_PATTERN = Pattern.compile(" +");
+	/** <p>Whitespace annotations.</p> **/
+	private static final Pattern SPACE_ANNOTATION_PATTERN = Pattern.compile("(?:\\*/|\\\\\\*)");
+	/** <p>Annotation that follows a token.</p> **/
+	private static final Pattern TOKEN_ANNOTATION_PATTERN = Pattern.compile("/.*");
+	/** <p>No-break space.</p> **/
+	private static final Pattern NO_BREAK_SPACE_PATTERN = Pattern.compile("\\u00A0");
+	/** <p>Starting caption.</p> **/
+	private static final Pattern CAPTION_PATTERN = Pattern.compile("^" + STARTING_CAPTION + ".*");
+	/** <p>Starting section.</p> **/
+	private static final Pattern SECTION_PATTERN = Pattern.compile("^" + STARTING_SECTION + ".*");
+	/** <p>Tokenized final sentence punctuation.</p> **/
+	private static final String FINAL_PUNCTUATION = " (" + END_SENTENCE + ") ?";
+	private static final Pattern FINAL_PUNCTUATION_PATTERN = Pattern.compile(FINAL_PUNCTUATION);
+	/** <p>Tokenized clitic.</p> **/
+	private static final Pattern CLITIC_PATTERN = Pattern.compile(" (-\\S+?)");
+	/** <p>Tokenized contraction.</p> **/
+	private static final Pattern CONTRACTION_SPACE_PATTERN = Pattern.compile("(" + CONTRACTION + ") ");
+	/** <p>Tokenized quoted passage.</p> **/
+	private static final Pattern QUOTED_PATTERN = Pattern.compile(" " + QUOTE + " " + "(.*?)" + " " + QUOTE + " ");
+	/** <p>Tokenized quote after a word.</p> **/
+	private static final Pattern QUOTE_AFTER_PATTERN = Pattern.compile("(\\S+)" +  " " + QUOTE + " ");
+	/** <p>Tokenized quote before a word.</p> **/
+	private static final Pattern QUOTE_BEFORE_PATTERN = Pattern.compile(" ?" + QUOTE + " " + "(\\S+)");
+	/** <p>Tokenized comma.</p> **/
+	private static final Pattern COMMA_PATTERN = Pattern.compile(" (" + COMMA + ") ");
+	/** <p>Tokenized opening bracket.</p> **/
+	private static final Pattern OPENING_BRACKET_PATTERN = Pattern.compile(" ?(" + openingBracketsRegex() + ") ");
+	/** <p>Tokenized closing bracket.</p> **/
+	private static final Pattern CLOSING_BRACKET_PATTERN = Pattern.compile(" (" + closingBracketsRegex() + ") ");
+	/** <p>Punctuation with the spaces around it.</p> **/
+	private static final Pattern PUNCTUATION_SPACES_PATTERN = Pattern.compile("(?: +)?(" + PUNCTUATION_CLASS + "+)(?: +)?");
+	/** <p>Punctuation with the spaces around it, followed by the remainder.</p> **/
+	private static final Pattern PUNCTUATION_REMAINDER_PATTERN = Pattern.compile("(?: +)?(" + PUNCTUATION_CLASS + "+)(?: +)?" + "(.*?)");
+	/** <p>Separated dashes.</p> **/
+	private static final Pattern DASHES_PATTERN = Pattern.compile("( " + DASH + "+? +?" + DASH + "+? )");
+	/** <p>Two commas in a row.</p> **/
+	private static final Pattern TWO_COMMAS_PATTERN = Pattern.compile("(" + COMMA + " +?" + COMMA + ")");
+	/** <p>Comma followed by an end of sentence token.</p> **/
+	private static final Pattern COMMA_END_PATTERN = Pattern.compile(COMMA + " +?(" + "(?:" + END_SENTENCE + ")+?)");
+	/** <p>Comma followed by a quote.</p> **/
+	private static final Pattern COMMA_QUOTE_PATTERN = Pattern.compile(COMMA + " +?(" + "(?:" + QUOTE + "))");
+	/** <p>End of sentence.</p> **/
+	private static final Pattern END_SENTENCE_PATTERN = Pattern.compile("(?:" + END_SENTENCE + ")$");
+	/** <p>Punctuation at the beginning of a passage.</p> **/
+	private static final Pattern STARTING_PUNCTUATION_PATTERN = Pattern.compile("^" + PUNCTUATION_CLASS);
+	/** <p>Punctuation at the end of a passage.</p> **/
+	private static final Pattern ENDING_PUNCTUATION_PATTERN = Pattern.compile(PUNCTUATION_CLASS + "$");
+	/** <p>Annotated verb.</p> **/
+	private static final Pattern VERB_PATTERN = Pattern.compile("(" + NONWHITESPACE_REGEX + ANY_VERB + ")");
+	/** <p>Sentence.</p> **/
+	public static final Pattern SENTENCE_PATTERN = Pattern.compile(SENTENCE);
+	/** <p>Sentence starting with a heading (e.g. the name of a place and a dash).</p> **/
+	private static final Pattern INITIAL_STUFF_PATTERN = Pattern.compile("^( (?:(?:(?:"+LETTER+"+ )+)?[(]"+LETTER+"+[)] [-]" + "|" +
+			"(?:(?:"+LETTER+"+[, ])+) (?:"+LETTER+")+ [-]"+ "|"+ 
+			"(?:"+LETTER+"+ )+[-]))" + " " + UPPER_LETTER + ".*?$");
+	
+	/**
+	 * <p>Retrieves the compiled version of a pattern built at run time.</p>
+	 * <p>The patterns are kept in a cache shared by every thread, read without
+	 * locking. The cache is cleared when it exceeds PATTERN_CACHE_SIZE, which
+	 * only happens if the patterns are built from unbounded input.</p>
+	 * 
+	 * @param regex the pattern.
+	 * @return the compiled pattern.
+	 */
+	public static Pattern compile(String regex){
+		Pattern pattern = PATTERN_CACHE.get(regex);
+		
+		if (pattern == null){
+			pattern = Pattern.compile(regex);
+			
+			if (PATTERN_CACHE.size() >= PATTERN_CACHE_SIZE)
+				PATTERN_CACHE.clear();
+			
+			// Two threads may compile the same pattern: both keep the first.
+			Pattern kept = PATTERN_CACHE.putIfAbsent(regex, pattern);
+			if (kept != null)
+				pattern = kept;
+		}
+		
+		return pattern;
+	}
+	
+	/**
+	 * <p>Compiles each of the given patterns.</p>
+	 */
+	private static Pattern[] compileAll(String[] regexes){
+		Pattern[] patterns = new Pattern[regexes.length];
+		
+		for (int i = 0; i < regexes.length; i++)
+			patterns[i] = Pattern.compile(regexes[i]);
+		
+		return patterns;
+	}
+	
 	public static boolean isStopWord(String annotation){
 		
 		return annotation.equals("CJ") // conjunctions
@@ -215,7 +361,7 @@ public class Regex {
 	 * @return true if the word is punctuation symbol ending the sentence; false otherwise.
 	 */
 	public static final boolean endsSentence(String word){
-		return word.matches(".*?" + END_SENTENCE +".*?");
+		return ENDS_SENTENCE_PATTERN.matcher(word).matches();
 	}
 	
 	/**
@@ -225,7 +371,7 @@ public class Regex {
 	 * @return true if the word contains a punctuation mark; false otherwise.
 	 */
 	public static final boolean containsPunctuation(String word){
-		return word.matches(".*?"+PUNCTUATION_CLASS+".*");
+		return CONTAINS_PUNCTUATION_PATTERN.matcher(word).matches();
 	}
 	
 	/**
@@ -236,22 +382,20 @@ public class Regex {
 	 */
 	public static final int numberPostNonWordTokens(String word){
 		int tokens = 0;
-		String postTokens = "\\S+?((?:" + NON_WORD_SYMBOL + ")+)$",
-		     compoundWord = "(?:" + "(?:" + ORDINAL_TOKEN + ")" + ")";
 
-		Matcher ma = Pattern.compile(postTokens).matcher(word.trim());
+		Matcher ma = POST_NON_WORD_PATTERN.matcher(word.trim());
 		
 		if (ma.find()){
 			String group = ma.group(1);
 
-			ma = Pattern.compile("(?:" + NON_WORD_SYMBOL + ")").matcher(group);
+			ma = NON_WORD_SYMBOL_PATTERN.matcher(group);
 
 			while(ma.find())
 				tokens ++;
 		}
 		
 		
-		ma = Pattern.compile(compoundWord).matcher(word.trim());
+		ma = ORDINAL_TOKEN_PATTERN.matcher(word.trim());
 
 		while (ma.find())
 			tokens --;
@@ -268,12 +412,12 @@ public class Regex {
 	public static final int numberPreNonWordTokens(String word){
 		int tokens = 0;
 		
-		Matcher ma = Pattern.compile("^((?:" + NON_WORD_SYMBOL + ")+)\\S+").matcher(word.trim());
+		Matcher ma = PRE_NON_WORD_PATTERN.matcher(word.trim());
 		
 		if (ma.find()){
 			String group = ma.group(1);
 
-			ma = Pattern.compile("(?:" + NON_WORD_SYMBOL + ")").matcher(group);
+			ma = NON_WORD_SYMBOL_PATTERN.matcher(group);
 
 			while(ma.find())
 				tokens ++;
@@ -291,20 +435,14 @@ public class Regex {
 	public static final int numberNonWordTokens(String word){
 		int tokens = 0;
 
-		String nonWord = "(?:" + "(?:" + LEFT_SPACE + ")?" + NON_WORD_SYMBOL + "(?:" + RIGHT_SPACE + ")?" + ")",
-		  compoundWord = "(?:" + "(?:" + COMPOUND_WORD + ")" 
-		  				 + "|" + "(?:" + ORDINAL_TOKEN + ")"
-		  				 + "|" + "(?:" + COMPOUND_NUMBER + ")"
-		  				 + ")";
-
-		Matcher ma = Pattern.compile(nonWord).matcher(word.trim());
+		Matcher ma = NON_WORD_PATTERN.matcher(word.trim());
 		
 		while (ma.find())
 			tokens ++;
 		//  Removes the token "-" that was counted as a non-word token, because
 		// it is part of the compound word, thus it should not be counted as a
 		// non-word symbol.
-		ma = Pattern.compile(compoundWord).matcher(word.trim());
+		ma = COMPOUND_TOKEN_PATTERN.matcher(word.trim());
 
 		while (ma.find())
 			tokens --;
@@ -319,7 +457,7 @@ public class Regex {
 	 * @return true if the word contains a punctuation mark; false otherwise.
 	 */
 	public static final boolean hasOnlyPunctuation(String word){
-		return word.matches(PUNCTUATION_CLASS+"+");
+		return ONLY_PUNCTUATION_PATTERN.matcher(word).matches();
 	}
 	
 	
@@ -340,7 +478,7 @@ public class Regex {
 	 * @return true if the word contains a left whitespace; false otherwise.
 	 */
 	public static final boolean hasLeftWhiteSpace(String word){
-		return word.matches(".*" + LEFT_SPACE + ".*");
+		return LEFT_SPACE_PATTERN.matcher(word).matches();
 	}
 	
 	/**
@@ -350,7 +488,7 @@ public class Regex {
 	 * @return true if the word contains a right whitespace; false otherwise.
 	 */
 	public static final boolean hasRightWhiteSpace(String word){
-		return word.matches(".*" + RIGHT_SPACE + ".*");
+		return RIGHT_SPACE_PATTERN.matcher(word).matches();
 	}
 	
 	/**
@@ -474,7 +612,7 @@ public class Regex {
 	 * @return a String containing the corrected word.
 	 */
 	public static final String correctContraction(String contracted, String suffix){
-		return contracted.replaceAll(CONTRACTION, suffix);
+		return CONTRACTION_PATTERN.matcher(contracted).replaceAll(suffix);
 	}
 	
 	/**
@@ -488,7 +626,7 @@ public class Regex {
 		String corrected = text;
 		
 		for (int i = 0; i < QUOTES.length; i++)
-			corrected = corrected.replaceAll(QUOTES[i], QUOTE); 
+			corrected = QUOTE_PATTERNS[i].matcher(corrected).replaceAll(QUOTE); 
 		
 		return corrected;
 	}
@@ -535,8 +673,7 @@ public class Regex {
 		
 		int number = 0;
 		
-		String pattern = "(" + Regex.QUOTE + ")";
-		Matcher ma = Pattern.compile(pattern).matcher(sentence);
+		Matcher ma = QUOTE_PATTERN.matcher(sentence);
 		
 		while (ma.find())
 			number ++;
@@ -648,7 +785,7 @@ public class Regex {
 		String right = text;
 		
 		for (int i = 0; i < BRACKETS[0].length; i ++)
-			right = right.replaceAll(BRACKETS[0][i], BRACKETS[1][i]);
+			right = BRACKET_PATTERNS[i].matcher(right).replaceAll(BRACKETS[1][i]);
 
 		return right;
 	}
@@ -665,7 +802,7 @@ public class Regex {
 		String right = text;
 
 		for (int i = 0; i < BRACKETS[0].length; i ++)
-			right = right.replaceAll(BRACKETS[1][i], BRACKETS[0][i]);
+			right = CONVERTED_BRACKET_PATTERNS[i].matcher(right).replaceAll(BRACKETS[0][i]);
 
 		return right;
 	}
@@ -727,7 +864,7 @@ public class Regex {
 	public static String getWordToken(String word) {
 		String token = "";
 		
-		Matcher ma = Pattern.compile("(" + CONTRACTED_WORD + "|" + COMPOUND_WORD + "|" + WORD + "|" + DIGIT + ")").matcher(word.trim());
+		Matcher ma = WORD_TOKEN_PATTERN.matcher(word.trim());
 		
 		if (ma.find())
 			token = ma.group(1);
@@ -748,7 +885,7 @@ public class Regex {
 	public static final String getToken(String word){
 		String token = "";
 		
-		Matcher ma = Pattern.compile(TOKEN).matcher(word.trim());
+		Matcher ma = TOKEN_PATTERN.matcher(word.trim());
 		
 		if (ma.find())
 			token = ma.group(1);
@@ -765,7 +902,7 @@ public class Regex {
 	public static final String getAnnotation(String word){
 		String annotation = "";
 		
-		Matcher ma = Pattern.compile(ANNOTATION).matcher(word.trim());
+		Matcher ma = ANNOTATION_PATTERN.matcher(word.trim());
 		
 		if (ma.find())
 			annotation = ma.group(1);
@@ -782,7 +919,7 @@ public class Regex {
 	public static final String getLemma(String word){
 		String lemma = "";
 		
-		Matcher ma = Pattern.compile(LEMMA).matcher(word.trim());
+		Matcher ma = LEMMA_PATTERN.matcher(word.trim());
 		
 		if (ma.find())
 			lemma = ma.group(1);
@@ -809,11 +946,11 @@ public class Regex {
 	 */
 	public static String[] tokens2parse(String text) {
 		
-		String[] tokens = (text.trim()).split(" +");
+		String[] tokens = SPACES_PATTERN.split(text.trim());
 		
 		for (int i = 0; i < tokens.length; i++) {
-			tokens[i] = tokens[i].replaceAll("(?:\\*/|\\\\\\*)", "");
-			tokens[i] = tokens[i].replaceFirst("/.*", "");
+			tokens[i] = SPACE_ANNOTATION_PATTERN.matcher(tokens[i]).replaceAll("");
+			tokens[i] = TOKEN_ANNOTATION_PATTERN.matcher(tokens[i]).replaceFirst("");
 			tokens[i] = Regex.convertBrackets(tokens[i]);
 		}
 			
@@ -823,13 +960,13 @@ public class Regex {
 	public static String tokenized2parse(String text) {
 		
 		String sentence = "";
-		String trimmed = (text.replaceAll("\\u00A0", "")).trim();
+		String trimmed = (NO_BREAK_SPACE_PATTERN.matcher(text).replaceAll("")).trim();
 		
-		String[] tokens = trimmed.split(" +");
+		String[] tokens = SPACES_PATTERN.split(trimmed);
 		
 		for (int i = 0; i < tokens.length; i++) {
-			tokens[i] = tokens[i].replaceAll("(?:\\*/|\\\\\\*)", "");
-			tokens[i] = tokens[i].replaceFirst("/.*", "");
+			tokens[i] = SPACE_ANNOTATION_PATTERN.matcher(tokens[i]).replaceAll("");
+			tokens[i] = TOKEN_ANNOTATION_PATTERN.matcher(tokens[i]).replaceFirst("");
 			tokens[i] = Regex.convertBrackets(tokens[i]);
 			sentence += tokens[i] + " ";
 		}
@@ -847,10 +984,10 @@ public class Regex {
 	public static String tokenize(String text) {
 		
 		String tokenized = "";
-		String[] tokens = text.split(" +");
+		String[] tokens = SPACES_PATTERN.split(text);
 		
 		for (int i = 0; i < tokens.length; i++) {
-			tokens[i] = tokens[i].replaceFirst("/.*", "");
+			tokens[i] = TOKEN_ANNOTATION_PATTERN.matcher(tokens[i]).replaceFirst("");
 			tokenized += tokens[i] + " ";
 		}
 		
@@ -933,7 +1070,7 @@ public class Regex {
 	 * @return true if the sentence is a caption; false otherwise.
 	 */
 	public static boolean isCaption(String sentence){
-		return sentence.trim().matches("^" + STARTING_CAPTION + ".*");
+		return CAPTION_PATTERN.matcher(sentence.trim()).matches();
 	}
 	
 	/**
@@ -944,7 +1081,7 @@ public class Regex {
 	 * @return true if the sentence is a section starter; false otherwise.
 	 */
 	public static boolean isSection(String sentence){
-		return sentence.trim().matches("^" + STARTING_SECTION + ".*");
+		return SECTION_PATTERN.matcher(sentence.trim()).matches();
 	}
 
 	/**
@@ -978,7 +1115,7 @@ public class Regex {
 	 * @return true if the complete sentence contains the passage; false otherwise. 
 	 */
 	public static boolean containsPassage(String sentence, String passage){
-		Matcher ma = Pattern.compile(".*?" + passage + ".*?").matcher(sentence);
+		Matcher ma = compile(".*?" + passage + ".*?").matcher(sentence);
 		
 		return ma.find();
 	}
@@ -992,7 +1129,16 @@ public class Regex {
 	 */
 	public static String[] getUntokenizedLeavesTokens(Tree leaves) {
 		
-		String strLeaves = Utils.printTreeLeaves(leaves);
+		return untokenizeLeaves(Utils.printTreeLeaves(leaves));
+	}
+	
+	/**
+	 * <p>Untokenizes the given tree leaves and retrieves an array of tokens.</p>
+	 * 
+	 * @param strLeaves the tree leaves, separated by spaces.
+	 * @return an array of the untokenized leaves.
+	 */
+	public static String[] untokenizeLeaves(String strLeaves) {
 		
 		strLeaves = untokenizeBrackets(strLeaves);
 		strLeaves = Regex.revertBrackets(strLeaves);
@@ -1004,7 +1150,7 @@ public class Regex {
 		strLeaves = untokenizeFinalPunctuation(strLeaves);
 		
 		
-		return strLeaves.split(" +");
+		return SPACES_PATTERN.split(strLeaves);
 	}
 	
 	/**
@@ -1016,12 +1162,11 @@ public class Regex {
 	 */
 	private static String untokenizeFinalPunctuation(String tokenized) {
 		
-		String pattern = " (" + Regex.END_SENTENCE + ") ?";
-		Matcher ma = Pattern.compile(pattern).matcher(tokenized);
+		Matcher ma = FINAL_PUNCTUATION_PATTERN.matcher(tokenized);
 		
 		while (ma.find()){
 			String group = ma.group(1);
-			tokenized = tokenized.replaceFirst(pattern, group + " ");
+			tokenized = FINAL_PUNCTUATION_PATTERN.matcher(tokenized).replaceFirst(group + " ");
 		}
 		
 		return tokenized.trim();
@@ -1036,12 +1181,11 @@ public class Regex {
 	 */
 	private static String untokenizeClitics(String tokenized) {
 		
-		String pattern = " (-\\S+?)";
-		Matcher ma = Pattern.compile(pattern).matcher(tokenized);
+		Matcher ma = CLITIC_PATTERN.matcher(tokenized);
 
 		while (ma.find()){
 			String word = ma.group(1);//, clitic = ma.group(2);
-			tokenized = tokenized.replaceFirst(pattern, word);
+			tokenized = CLITIC_PATTERN.matcher(tokenized).replaceFirst(word);
 		}
 		return tokenized;
 	}
@@ -1055,12 +1199,11 @@ public class Regex {
 	 */
 	private static String untokenizeContractions(String tokenized) {
 		
-		String pattern = "(" + Regex.CONTRACTION + ") ";
-		Matcher ma = Pattern.compile(pattern).matcher(tokenized);
+		Matcher ma = CONTRACTION_SPACE_PATTERN.matcher(tokenized);
 		
 		while (ma.find()){
 			String group = ma.group(1);
-			tokenized = tokenized.replaceFirst(pattern, group);
+			tokenized = CONTRACTION_SPACE_PATTERN.matcher(tokenized).replaceFirst(group);
 		}
 		
 		return tokenized;
@@ -1076,30 +1219,27 @@ public class Regex {
 	private static String untokenizeQuotes(String tokenized) {
 		
 		String modified = tokenized;
-		String pattern = " " + Regex.QUOTE + " " + "(.*?)" + " " + Regex.QUOTE + " ";
-		Matcher ma = Pattern.compile(pattern).matcher(modified);
+		Matcher ma = QUOTED_PATTERN.matcher(modified);
 		
 		
 		while (ma.find()){
 			String group = ma.group(1);
-			modified = modified.replaceFirst(pattern, " " + Regex.QUOTE + group + Regex.QUOTE + " ");
+			modified = QUOTED_PATTERN.matcher(modified).replaceFirst(" " + Regex.QUOTE + group + Regex.QUOTE + " ");
 		}
 		
 		if (modified.equals(tokenized)){
 			
-			pattern = "(\\S+)" +  " " + Regex.QUOTE + " ";
-			ma = Pattern.compile(pattern).matcher(modified);
+			ma = QUOTE_AFTER_PATTERN.matcher(modified);
 
 			if (ma.find()){
 				String group = ma.group(1);
-				modified = modified.trim().replaceFirst(pattern, group + Regex.QUOTE + " ");
+				modified = QUOTE_AFTER_PATTERN.matcher(modified.trim()).replaceFirst(group + Regex.QUOTE + " ");
 			}
 
-			pattern = " ?" + Regex.QUOTE + " " + "(\\S+)";
-			ma = Pattern.compile(pattern).matcher(modified);
+			ma = QUOTE_BEFORE_PATTERN.matcher(modified);
 			if (ma.find()){
 				String group = ma.group(1);
-				modified = modified.trim().replaceFirst(pattern, " " + Regex.QUOTE + group);
+				modified = QUOTE_BEFORE_PATTERN.matcher(modified.trim()).replaceFirst(" " + Regex.QUOTE + group);
 			}
 		}
 			
@@ -1117,12 +1257,11 @@ public class Regex {
 	 */
 	private static String untokenizeCommas(String tokenized) {
 		
-		String pattern = " (" + Regex.COMMA + ") ";
-		Matcher ma = Pattern.compile(pattern).matcher(tokenized);
+		Matcher ma = COMMA_PATTERN.matcher(tokenized);
 		
 		while (ma.find()){
 			String group = ma.group(1);
-			tokenized = tokenized.replaceFirst(pattern, group + " ");
+			tokenized = COMMA_PATTERN.matcher(tokenized).replaceFirst(group + " ");
 		}
 		
 		return tokenized;
@@ -1137,20 +1276,18 @@ public class Regex {
 	 */
 	private static String untokenizeBrackets(String tokenized) {
 		
-		String pattern = " ?(" + Regex.openingBracketsRegex() + ") ";  
-		Matcher ma = Pattern.compile(pattern).matcher(tokenized);
+		Matcher ma = OPENING_BRACKET_PATTERN.matcher(tokenized);
 		
 		while (ma.find()){
 			String group = ma.group(1);
-			tokenized = tokenized.replaceFirst(pattern, " " + group);
+			tokenized = OPENING_BRACKET_PATTERN.matcher(tokenized).replaceFirst(" " + group);
 		}
 		
-		pattern = " (" + Regex.closingBracketsRegex() + ") ";  
-		ma = Pattern.compile(pattern).matcher(tokenized);
+		ma = CLOSING_BRACKET_PATTERN.matcher(tokenized);
 		
 		while (ma.find()){
 			String group = ma.group(1);
-			tokenized = tokenized.replaceFirst(pattern, group + " ");
+			tokenized = CLOSING_BRACKET_PATTERN.matcher(tokenized).replaceFirst(group + " ");
 		}
 		
 		return tokenized;
@@ -1164,7 +1301,7 @@ public class Regex {
 	 * @return a String[] containing all the tokens.
 	 */
 	public static String[] getSentenceTokens(Sentence sentence){
-		return sentence.getPosTagged().split(" +");
+		return SPACES_PATTERN.split(sentence.getPosTagged());
 	}
 
 	/**
@@ -1177,30 +1314,27 @@ public class Regex {
 	public static String correctPunctuationSpaces(String sentence) {
 		
 		String corrected = sentence;
-		String punctuation = "(?: +)?(" + Regex.PUNCTUATION_CLASS + "+)(?: +)?";
-		String pattern = punctuation + "(.*?)"; 
-		Matcher ma = Pattern.compile(pattern).matcher(corrected);
+		Matcher ma = PUNCTUATION_REMAINDER_PATTERN.matcher(corrected);
 		
 		if (ma.find()){
 			String group = ma.group(1),
 				   remainder = ma.group(2);
 			
 			if (Regex.isOpeningBracket(group))
-				corrected = corrected.replaceFirst(punctuation, " " + group);
+				corrected = PUNCTUATION_SPACES_PATTERN.matcher(corrected).replaceFirst(" " + group);
 			else if (Regex.isClosingBracket(group) 
 					|| Regex.isComma(group)
 					|| Regex.endsSentence(group))
-				corrected = corrected.replaceFirst(punctuation, group + " ");
+				corrected = PUNCTUATION_SPACES_PATTERN.matcher(corrected).replaceFirst(group + " ");
 				
 			correctPunctuationSpaces(remainder);
 		}
 		
-		pattern = "( " + Regex.DASH + "+? +?" + Regex.DASH + "+? )";
-		ma = Pattern.compile(pattern).matcher(corrected);
+		ma = DASHES_PATTERN.matcher(corrected);
 		
 		while (ma.find()){
 			String group = ma.group(1);
-			corrected = corrected.replaceFirst(group, " ");
+			corrected = compile(group).matcher(corrected).replaceFirst(" ");
 		}
 		
 		return corrected.trim();
@@ -1214,7 +1348,7 @@ public class Regex {
 	 */
 	public static final int numberOfExtraTokens(String passage){
 		
-		String[] tokens = passage.split(" +");
+		String[] tokens = SPACES_PATTERN.split(passage);
 		int contractions = 0;
 		
 		for (int i = 0; i < tokens.length; i++) {
@@ -1242,33 +1376,30 @@ public class Regex {
 		corrected = Regex.correctPunctuationSpaces(corrected);	
 		
 		// Two commas in a row.
-		String pattern = "(" + Regex.COMMA + " +?" + Regex.COMMA + ")";
-		Matcher ma = Pattern.compile(pattern).matcher(corrected);
+		Matcher ma = TWO_COMMAS_PATTERN.matcher(corrected);
 		
 		while (ma.find()){
 			String group = ma.group(1);
-			corrected = corrected.replaceFirst(group, Regex.COMMA);
+			corrected = compile(group).matcher(corrected).replaceFirst(Regex.COMMA);
 		}
 		
 		// Comma followed by an end of sentence token.
-		pattern = Regex.COMMA + " +?(" + "(?:" + Regex.END_SENTENCE + ")+?)";
-		ma = Pattern.compile(pattern).matcher(corrected);
+		ma = COMMA_END_PATTERN.matcher(corrected);
 		
 		while (ma.find()){
 			String group = ma.group(1);
-			corrected = corrected.replaceFirst(pattern, group);
+			corrected = COMMA_END_PATTERN.matcher(corrected).replaceFirst(group);
 		}
 
 		// Comma followed by a quote.
-		pattern = Regex.COMMA + " +?(" + "(?:" + Regex.QUOTE + "))";
-		ma = Pattern.compile(pattern).matcher(corrected);
+		ma = COMMA_QUOTE_PATTERN.matcher(corrected);
 		
 		while (ma.find()){
 			String group = ma.group(1);
-			corrected = corrected.replaceFirst(pattern, group);
+			corrected = COMMA_QUOTE_PATTERN.matcher(corrected).replaceFirst(group);
 		}
 		
-		if (!corrected.matches("(?:" + Regex.END_SENTENCE + ")$"))
+		if (!END_SENTENCE_PATTERN.matcher(corrected).matches())
 			corrected = corrected.trim() + Regex.FULLSTOP;
 		
 		
@@ -1288,9 +1419,9 @@ public class Regex {
 		
 		String inText = passage;
 		
-		inText = inText.replaceAll("^"+Regex.PUNCTUATION_CLASS, "");
-		inText = inText.replaceAll(Regex.PUNCTUATION_CLASS+"$", "");
-		inText = inText.replaceAll(" +", " ");
+		inText = STARTING_PUNCTUATION_PATTERN.matcher(inText).replaceAll("");
+		inText = ENDING_PUNCTUATION_PATTERN.matcher(inText).replaceAll("");
+		inText = SPACES_PATTERN.matcher(inText).replaceAll(" ");
 		
 				
 		return inText;
@@ -1301,10 +1432,7 @@ public class Regex {
 
 //		System.out.println("FIRST_"+sentence);
 		String verb = "";
-		String pattern = 
-				"(" + Regex.NONWHITESPACE_REGEX + Regex.ANY_VERB
-				+ ")";
-		Matcher ma = Pattern.compile(pattern).matcher(sentence);
+		Matcher ma = VERB_PATTERN.matcher(sentence);
 
 		if (ma.find())
 			verb = ma.group(1);
@@ -1316,8 +1444,7 @@ public class Regex {
 		
 //		System.out.println("LAST_"+sentence);
 		String verb = "";
-		String pattern = "(" + Regex.NONWHITESPACE_REGEX + Regex.ANY_VERB + ")";
-		Matcher ma = Pattern.compile(pattern).matcher(sentence);
+		Matcher ma = VERB_PATTERN.matcher(sentence);
 
 		while (ma.find())
 			verb = ma.group(1);
@@ -1375,18 +1502,12 @@ public class Regex {
 
 	public static String removeInitialStuff(String chunked) {
 		String corrected = "";
-		Matcher ma = Pattern.compile(Regex.SENTENCE).matcher(chunked);
+		Matcher ma = SENTENCE_PATTERN.matcher(chunked);
 
 		while (ma.find()){
 			String sentence = ma.group(1);
 
-			String startingPattern = 
-					"^( (?:(?:(?:"+Regex.LETTER+"+ )+)?[(]"+Regex.LETTER+"+[)] [-]" + "|" +
-							"(?:(?:"+Regex.LETTER+"+[, ])+) (?:"+Regex.LETTER+")+ [-]"+ "|"+ 
-							"(?:"+Regex.LETTER+"+ )+[-]))";
-			String pattern = startingPattern 
-					+ " " + Regex.UPPER_LETTER + ".*?$"; 
-			Matcher inside = Pattern.compile(pattern).matcher(sentence);
+			Matcher inside = INITIAL_STUFF_PATTERN.matcher(sentence);
 
 //			System.out.println("\n\n\nBEFORE_"+sentence);
 
@@ -7,9 +7,12 @@ import java.io.PrintWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.DateFormat;
 import java.text.DecimalFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -25,14 +28,21 @@ import java.util.regex.Pattern;
 import summarization.Summary;
 
 import aux.SentenceCluster;
+import aux.SimilarityCandidates;
+import aux.SimilarityMatrix;
+import aux.TopK;
 import aux.WordCluster;
 
 import core.Connective;
+import core.ConnectiveIndex;
 import core.Document;
+import core.KeywordSet;
 import core.ManageTrees;
 import core.NamedEntity;
 import core.Sentence;
 import core.SingleWord;
+import core.SymbolTable;
+import core.TermIndex;
 import core.Word;
 import edu.stanford.nlp.ling.StringLabelFactory;
 import edu.stanford.nlp.trees.LabeledScoredTreeFactory;
@@ -54,6 +64,50 @@ import edu.stanford.nlp.trees.tregex.TregexPattern;
  */
 public class Utils {
 
+	/**
+	 * <p>
+	 * Named entity annotation.
+	 * </p>
+	 **/
+	private static final Pattern NAMED_ENTITY_PATTERN = Pattern
+			.compile("<NAMEX TYPE=\"(...)\">(.*?)</NAMEX>");
+	/**
+	 * <p>
+	 * Annotated comma that separates two named entities.
+	 * </p>
+	 **/
+	private static final Pattern ENTITY_COMMA_PATTERN = Pattern.compile("(?:"
+			+ Regex.LEFT_SPACE + ")?" + Regex.COMMA + Regex.RIGHT_SPACE
+			+ Regex.ANNOTATION_SPLITTER + Regex.PUNCTUATION);
+	/**
+	 * <p>
+	 * Named entity that contains an annotated comma.
+	 * </p>
+	 **/
+	private static final Pattern ENTITIES_PATTERN = Pattern.compile(".+?"
+			+ ENTITY_COMMA_PATTERN.pattern() + ".+");
+	/**
+	 * <p>
+	 * Named entity annotation placed before the first sentence.
+	 * </p>
+	 **/
+	private static final Pattern INITIAL_ENTITY_PATTERN = Pattern
+			.compile("^(<NAMEX TYPE=\"...\">)(<p> <s>) ");
+	/**
+	 * <p>
+	 * Annotated token that starts with a word.
+	 * </p>
+	 **/
+	private static final Pattern WORD_START_PATTERN = Pattern.compile("^"
+			+ Regex.LETTER + "+.*?$");
+	/**
+	 * <p>
+	 * Punctuation mark.
+	 * </p>
+	 **/
+	private static final Pattern PUNCTUATION_PATTERN = Pattern
+			.compile(Regex.PUNCTUATION_CLASS);
+
 	/**
 	 * <p>
 	 * Computes the similarity between the two given sentences.
@@ -87,90 +141,73 @@ public class Utils {
 		}
 		
 		
-		LinkedList<Word> currentWords = new LinkedList<Word>(s1.getWords());
-		LinkedList<Word> submittedWords = new LinkedList<Word>(s2.getWords());
+		// The words are compared through their keys, interned in the same
+		// symbol table: two words represent each other if and only if they
+		// share a key.
+		SymbolTable symbols = s1.getSymbols();
+		if (symbols == null)
+			symbols = s2.getSymbols();
+		if (symbols == null)
+			symbols = new SymbolTable();
+
+		int[][] currentWords = s1.getWordKeys(symbols);
+		int[][] submittedWords = s2.getWordKeys(symbols);
+		int totalCurrent = s1.getTotalWords(), totalSubmitted = s2.getTotalWords();
 
-		double avSubsequences = 0, newOverlap = 0;
+		double avSubsequences = 0;
 
 		// Computes common subsequences between the two sentences.
-		LinkedList<Integer> subsequences = new LinkedList<Integer>();
+		int subsequences = 0;
 
 		int i = 0, j = 0, subsequence = 0;
-		for (; i < s1.getTotalWords(); i++) {
-			SingleWord currentWord = (SingleWord) currentWords.get(i);
+		for (; i < totalCurrent; i++) {
+			int[] currentWord = currentWords[i];
 
-			for (j = subsequence; j < s2.getTotalWords(); j++) {
-				SingleWord submittedWord = (SingleWord) submittedWords.get(j);
+			for (j = subsequence; j < totalSubmitted; j++) {
+				int[] submittedWord = submittedWords[j];
 				
-				if (currentWord.represents(submittedWord)) {
+				if (TermIndex.shareKey(currentWord, submittedWord)) {
 					subsequence = 0;
 					
-					while (((i + subsequence) < s1.getTotalWords() && (j + subsequence) < s2.getTotalWords())
-							&& currentWord.represents(submittedWord)) {
+					while (((i + subsequence) < totalCurrent && (j + subsequence) < totalSubmitted)
+							&& TermIndex.shareKey(currentWord, submittedWord)) {
 
-						currentWord = (SingleWord) currentWords.get(i + subsequence);
-						submittedWord = (SingleWord) submittedWords.get(j + subsequence);
-						
-//						 System.out.println("[Utils] " +
-//						 "[c_"+(i+subsequence)+"] "+currentWord.getOriginal()
-//						 +
-//						 "\t[s_"+(j+subsequence)+"] "+submittedWord.getOriginal());
-//						  DEBUG
+						currentWord = currentWords[i + subsequence];
+						submittedWord = submittedWords[j + subsequence];
 
-						if (currentWord.represents(submittedWord))
+						if (TermIndex.shareKey(currentWord, submittedWord))
 							subsequence++;
 					}
-					// subsequence--;
-//					System.out.println("\tsubsequence: " + subsequence);
+
 					if (subsequence > 1) {
+						double sequence = (double) subsequence;
 
-						subsequences.add(new Integer(subsequence));
-						// i += (subsequence-1);
+						avSubsequences += ((sequence / totalCurrent) + (sequence / totalSubmitted));
+						subsequences++;
 						i += subsequence;
-						
-						// avSubsequences += subsequence;// / biggestSentence);
-//						 System.out.println("[Sentence] " +
-//						 "Subsequence: "+subsequence+"\tavgSub_"+avSubsequences);
-						// //DEBUG
 					} else
 						i++;
-					
-//					newOverlap += subsequence;
 				}
 			}
 		}
 		
 		double overlap = 0;
 
-		if (subsequences.size() == 0)
+		if (subsequences == 0)
 			avSubsequences = 0;
-		else {
-			for (Integer subseq : subsequences) {
-				double sequence = (double) subseq.intValue();
-
-				avSubsequences += ((sequence / s1.getTotalWords()) + (sequence / s2.getTotalWords()));// / biggestSentence;
-				// avSubsequences += (sequence / (this.totalWords +
-				// sentence.getTotalWords()));
-				
-//				System.out.println("---- "+subsequence.intValue());
-			}
-
-			if (subsequences.size() == 1)
-				avSubsequences = avSubsequences / 2;
-			else
-				avSubsequences = avSubsequences / subsequences.size();
-		}
+		else if (subsequences == 1)
+			avSubsequences = avSubsequences / 2;
+		else
+			avSubsequences = avSubsequences / subsequences;
 		
 		
 		int commonWords = 0;
 		
-		for (i = 0; i < s1.getTotalWords(); i++) {
-			SingleWord currentWord = (SingleWord) currentWords.get(i);
+		for (i = 0; i < totalCurrent; i++) {
+			int[] currentWord = currentWords[i];
 
-			for (j = 0; j < s2.getTotalWords(); j++) {
-				SingleWord submittedWord = (SingleWord) submittedWords.get(j);
-				
-				if (currentWord.represents(submittedWord)) {
+			for (j = 0; j < totalSubmitted; j++) {
+				if (TermIndex.shareKey(currentWord, submittedWords[j])) {
 					commonWords ++;
 					break;
 				}
@@ -392,9 +429,26 @@ public class Utils {
 	 */
 	public static Collection<Word> extractKeywords(
 			Collection<Sentence> sentences) {
+		return extractKeywords(sentences, Preferences.MAX_KEYWORDS);
+	}
+
+	/**
+	 * <p>
+	 * Selects the keywords from the given collection of sentences.
+	 * </p>
+	 * 
+	 * @param sentences
+	 *            the sentences to get the keywords.
+	 * @param maxKeywords
+	 *            the maximum number of keywords.
+	 * 
+	 * @return the collection of keywords for the given sentences.
+	 */
+	public static Collection<Word> extractKeywords(
+			Collection<Sentence> sentences, int maxKeywords) {
 
-		LinkedList<Word> allWords = new LinkedList<Word>();
-		LinkedList<Word> words = new LinkedList<Word>();
+		ArrayList<Word> allWords = new ArrayList<Word>();
+		ArrayList<Word> words = new ArrayList<Word>();
 		LinkedList<Word> namedEntities = new LinkedList<Word>();
 		LinkedList<Word> keywords = new LinkedList<Word>();
 
@@ -405,6 +459,9 @@ public class Utils {
 
 		namedEntities = new LinkedList<Word>(filterNamedEntities(namedEntities));
 
+		// The words already selected, indexed to be searched by their keys.
+		KeywordSet found = new KeywordSet();
+
 		Iterator<Word> iWords = allWords.iterator();
 		while (iWords.hasNext()) {
 
@@ -426,13 +483,18 @@ public class Utils {
 				}
 			}
 
-			if (keyword != null && !isWordInCollection(words, keyword))// &&
-																		// !isInCollection(neKeywords,
-																		// keyword))
+			if (keyword != null && !found.contains(keyword)) {// &&
+																// !isInCollection(neKeywords,
+																// keyword))
+				found.add(keyword);
 				words.add(keyword);
+			}
 		}
 
-		Collections.sort(words, Preferences.COMPARE_WORD_SCORE);
+		// Only the predefined number of best words is kept, so the words are
+		// not all sorted.
+		List<Word> best = TopK.select(words, maxKeywords,
+				Preferences.COMPARE_WORD_SCORE);
 
 //		LinkedList<Word> keywordsWithNamedEntities = new LinkedList<Word>(words);
 		// sara@2013-08-05 deixou-se de usar as NEs como keywords por um tf.idf nelas não ser computável.
@@ -454,9 +516,7 @@ public class Utils {
 
 		// From the sorted collection of words, we'll only keep the predefined
 		// number of keywords.
-		for (int i = 0; i < Preferences.MAX_KEYWORDS
-				&& i < words.size(); i++) {
-			Word keyword = words.get(i);
+		for (Word keyword : best) {
 			SingleWord newKeyword = new SingleWord((SingleWord)keyword);
 			newKeyword.updateExtraScore(Preferences.KEYWORD_SCORE);
 			keywords.add(newKeyword);
@@ -471,9 +531,14 @@ public class Utils {
 	
 	public static Collection<Word> extractKeywordsWithoutNEs(
 			Collection<Sentence> sentences) {
+		return extractKeywordsWithoutNEs(sentences, Preferences.MAX_KEYWORDS);
+	}
+
+	public static Collection<Word> extractKeywordsWithoutNEs(
+			Collection<Sentence> sentences, int maxKeywords) {
 
-		LinkedList<Word> allWords = new LinkedList<Word>();
-		LinkedList<Word> words = new LinkedList<Word>();
+		ArrayList<Word> allWords = new ArrayList<Word>();
+		ArrayList<Word> words = new ArrayList<Word>();
 //		LinkedList<Word> namedEntities = new LinkedList<Word>();
 		LinkedList<Word> keywords = new LinkedList<Word>();
 
@@ -484,6 +549,9 @@ public class Utils {
 
 //		namedEntities = new LinkedList<Word>(filterNamedEntities(namedEntities));
 
+		// The words already selected, indexed to be searched by their keys.
+		KeywordSet found = new KeywordSet();
+
 		Iterator<Word> iWords = allWords.iterator();
 		while (iWords.hasNext()) {
 
@@ -505,13 +573,18 @@ public class Utils {
 				}
 			}
 
-			if (keyword != null && !isWordInCollection(words, keyword))// &&
-																		// !isInCollection(neKeywords,
-																		// keyword))
+			if (keyword != null && !found.contains(keyword)) {// &&
+																// !isInCollection(neKeywords,
+																// keyword))
+				found.add(keyword);
 				words.add(keyword);
+			}
 		}
 
-		Collections.sort(words, Preferences.COMPARE_WORD_SCORE);
+		// Only the predefined number of best words is kept, so the words are
+		// not all sorted.
+		List<Word> best = TopK.select(words, maxKeywords,
+				Preferences.COMPARE_WORD_SCORE);
 
 //		LinkedList<Word> keywordsWithNamedEntities = new LinkedList<Word>();
 //
@@ -531,9 +604,7 @@ public class Utils {
 
 		// From the sorted collection of words, we'll only keep the predefined
 		// number of keywords.
-		for (int i = 0; i < Preferences.MAX_KEYWORDS
-				&& i < words.size(); i++) {
-			Word keyword = words.get(i);
+		for (Word keyword : best) {
 			// Word keyword = words.get(i);
 			// keyword.addExtraScore(Preferences.WORD_EXTRA_SCORE_DEFAULT_VALUE);
 			// // É feito depois deste método acabar para todas as palavras
@@ -644,6 +715,22 @@ public class Utils {
 	 * @return the updated collection of words.
 	 */
 	public static Collection<Word> updateKeywordsScore(Collection<Word> sentenceWords, Collection<Word> keywords) {
+		return updateKeywordsScore(sentenceWords, new KeywordSet(keywords));
+	}
+
+	/**
+	 * <p>
+	 * Updates scores of words which are global keywords.
+	 * </p>
+	 * 
+	 * @param sentenceWords
+	 *            the collection of words in the sentence.
+	 * @param keywords
+	 *            the indexed keywords.
+	 * 
+	 * @return the updated collection of words.
+	 */
+	public static Collection<Word> updateKeywordsScore(Collection<Word> sentenceWords, KeywordSet keywords) {
 
 		Collection<Word> words = new LinkedList<Word>(sentenceWords);
 
@@ -977,6 +1064,34 @@ public class Utils {
 		return formatter.format(number);
 	}
 
+	/**
+	 * <p>
+	 * Computes the hash of a string.
+	 * </p>
+	 * 
+	 * @param text
+	 *            the string.
+	 * @return the hexadecimal SHA-1 hash of the string.
+	 */
+	public static String hash(String text) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(
+					text.getBytes(Preferences.UTF8));
+			StringBuilder hash = new StringBuilder();
+
+			for (byte b : digest)
+				hash.append(Integer.toHexString((b & 0xff) | 0x100)
+						.substring(1));
+
+			return hash.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform provides SHA-1.
+			throw new IllegalStateException(e);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
 	/**
 	 * <p>
 	 * Extracts the Named Entities in the sentence.
@@ -990,20 +1105,16 @@ public class Utils {
 
 		Collection<Word> namedEntities = new LinkedList<Word>();
 		Collection<SingleWord> words = new LinkedList<SingleWord>();
-		String pattern = "<NAMEX TYPE=\"(...)\">(.*?)</NAMEX>";
-		Matcher ma = Pattern.compile(pattern).matcher(sentence.getNeAnnotation());
+		Matcher ma = NAMED_ENTITY_PATTERN.matcher(sentence.getNeAnnotation());
 
 		while (ma.find()) {
 
 			String type = ma.group(1), entity = ma.group(2);
-			String commaSplitter = "(?:" + Regex.LEFT_SPACE + ")?"
-					+ Regex.COMMA + Regex.RIGHT_SPACE
-					+ Regex.ANNOTATION_SPLITTER + Regex.PUNCTUATION;
 
 			// Correction of NERs error when it groups two entities separated by
 			// a comma.
-			if (entity.trim().matches(".+?" + commaSplitter + ".+")) {
-				String[] entities = entity.split(commaSplitter);
+			if (ENTITIES_PATTERN.matcher(entity.trim()).matches()) {
+				String[] entities = ENTITY_COMMA_PATTERN.split(entity);
 				words = buildNamedEntityWords(entities[0], sentence.getWords());
 
 				if (words.size() > 0) {
@@ -1104,12 +1215,11 @@ public class Utils {
 
 		String corrected = nerAnnotated;
 
-		String pattern = "^(<NAMEX TYPE=\"...\">)(<p> <s>) ";
-		Matcher ma = Pattern.compile(pattern).matcher(corrected);
+		Matcher ma = INITIAL_ENTITY_PATTERN.matcher(corrected);
 
 		while (ma.find()) {
 			String namex = ma.group(1), sentenceTags = ma.group(2);
-			corrected = (corrected.replaceFirst(pattern, "")).trim();
+			corrected = (INITIAL_ENTITY_PATTERN.matcher(corrected).replaceFirst("")).trim();
 			corrected = sentenceTags + " " + namex + corrected;
 		}
 
@@ -1625,6 +1735,13 @@ public class Utils {
 
 		HashMap<String, SentenceCluster> clusters = new HashMap<String, SentenceCluster>();
 
+		// Pairs of sentences that cannot reach the threshold are not compared.
+		SimilarityCandidates candidates = (Preferences.SIMILARITY_CANDIDATES ? new SimilarityCandidates(
+				sentences, Preferences.SIMPLIFIED_SENTENCE_SIMILIARITY_THRESHOLD)
+				: null);
+		SimilarityMatrix matrix = new SimilarityMatrix(sentences, candidates,
+				Preferences.SIMILARITY_THREADS);
+
 		Iterator<Sentence> itOriginal = sentences.iterator();
 
 		while (itOriginal.hasNext()) {
@@ -1635,9 +1752,12 @@ public class Utils {
 			while (it2Compare.hasNext()) {
 				Sentence toCompare = it2Compare.next();
 
+				if (!matrix.isCandidate(sentence, toCompare))
+					continue;
+
 				if (!sentence.sameSentence(toCompare)){
 				
-					double similarity = Utils.computeSentence2SentenceSimilarity(sentence, toCompare);
+					double similarity = matrix.similarity(sentence, toCompare);
 
 					if (similarity >= Preferences.SIMPLIFIED_SENTENCE_SIMILIARITY_THRESHOLD) {
 
@@ -1819,7 +1939,7 @@ public class Utils {
 				String strSentence = sentence.getSentence().trim();
 				String lastChar = "" + strSentence.charAt(strSentence.length()-1);
 
-				if (lastChar.matches(Regex.PUNCTUATION_CLASS))
+				if (PUNCTUATION_PATTERN.matcher(lastChar).matches())
 					strSentence = strSentence.substring(0, strSentence.length()-1) + ".";
 				else
 					strSentence += ".";
@@ -1918,7 +2038,7 @@ public class Utils {
 		while (it.hasNext()){
 			String current = it.next();
 			
-			if (current.matches("^"+Regex.LETTER+"+.*?$")){
+			if (WORD_START_PATTERN.matcher(current).matches()){
 				lastWords.addFirst(current);
 //				lastWords.add(Regex.getPOS(current));
 				i ++;
@@ -1959,7 +2079,7 @@ public class Utils {
 			
 			String current = it.next();
 			
-			if (current.matches("^"+Regex.LETTER+"+.*?$")){
+			if (WORD_START_PATTERN.matcher(current).matches()){
 				firstWords.add(current);
 //				firstWords.add(Regex.getPOS(current));
 //				firstWords.add(Regex.getLemma(current));
@@ -2042,7 +2162,7 @@ public class Utils {
 						String pattern = "^"
 								+ connective2Search 
 								+ "(.*)$";
-						Matcher m = Pattern.compile(pattern).matcher(sentence.getSentence());
+						Matcher m = Regex.compile(pattern).matcher(sentence.getSentence());
 
 //						System.out.println("\n\n\n\n"+pattern+"\n"+sentence.getSentence());
 						// Se a frase começar com este conector
@@ -2055,7 +2175,7 @@ public class Utils {
 						else{
 
 							pattern = "^(.*?)" + Regex.COMMA + Regex.BLANK_SPACE + connective.toPrint() + Regex.COMMA + Regex.BLANK_SPACE + "?" + "(.*)$";
-							m = Pattern.compile(pattern).matcher(sentence.getSentence());
+							m = Regex.compile(pattern).matcher(sentence.getSentence());
 
 
 							if (m.find()){
@@ -2083,80 +2203,36 @@ public class Utils {
 	public static LinkedList<Sentence> removeAllConnectives(
 			Collection<Connective> connectives,
 			Collection<Sentence> sentences) {
+		return removeAllConnectives(new ConnectiveIndex(connectives), sentences);
+	}
+
+	/**
+	 * <p>Removes the connectives found at the start of the sentences, or between commas in
+	 * the middle of them.</p>
+	 * @param connectives the index of the connectives to be removed.
+	 * @param sentences the sentences.
+	 * @return the sentences without connectives.
+	 */
+	public static LinkedList<Sentence> removeAllConnectives(
+			ConnectiveIndex connectives,
+			Collection<Sentence> sentences) {
 		//  Vamos remover *todos* os conectores encontrados nos inícios das frases, para que não
 		// tenhamos relações entre frases que não façam sentido.
 		LinkedList<Sentence> modifiedSentences = new LinkedList<Sentence>();
-		
+
 		for (Sentence sentence : sentences){
 			
-			
-//			System.out.println("Sentence_"+sentence.getSentence() + "\n\tisTitle "+sentence.isTitle());
 			Sentence newSentence = new Sentence(sentence);
-			
-			boolean found = false;
 
 			if (!newSentence.isTitle()){
 
-				for (Connective connective : connectives){
-					
-//					System.out.println("\\tConnective_" + connective.toPrint());
-
-					if (!containsComplexConnective(sentence.getSentence(), connective, connectives)){
-
-						String connective2Search = Regex.capitalizeFirst(connective.toPrint()) 
-								+ "(?:"+Regex.COMMA+")"; //"|"+Regex.BLANK_SPACE+")";
-						String pattern = "^"
-								+ connective2Search 
-								+ "(.*)$";
-						Matcher m = Pattern.compile(pattern).matcher(sentence.getSentence());
-
-//						System.out.println("\n\n\n\n"+pattern+"\n"+sentence.getSentence());
-						// Se a frase começar com este conector
-						if (m.find()){
-							String newString = m.group(1);
-							pattern = "^" + "(?:" + Regex.capitalizeFirst(connective.searchVersion()) + "|" + connective.searchVersion() + ")"
-									+ "(?: "+Regex.COMMA2SEARCH+")" //"|"+Regex.BLANK_SPACE+")"
-									+ "(.*)$";
-							
-							System.out.println("\n\n"+pattern+"\n"+sentence.getPosTagged());
-							
-							m = Pattern.compile(pattern).matcher(sentence.getPosTagged());
-							m.find();
-							String pos = m.group(1);
-							
-							System.out.println("\t"+newString+"\n"+pos);
+				String[] removed = connectives.removeConnective(sentence.getSentence(), sentence.getPosTagged());
 
-							newSentence.updateString(Regex.capitalizeFirst(newString), pos);
-							modifiedSentences.add(newSentence);
-							found = true;
-							break;
-						}
-						else{
-
-							pattern = "^(.*?)" + Regex.COMMA + Regex.BLANK_SPACE + connective.toPrint() + Regex.COMMA + Regex.BLANK_SPACE + "?" + "(.*)$";
-							m = Pattern.compile(pattern).matcher(sentence.getSentence());
-
-
-							if (m.find()){
-								String newString = m.group(1) + Regex.BLANK_SPACE +  m.group(2);
-								pattern = "^(.*?)" + Regex.BLANK_SPACE + Regex.COMMA2SEARCH + Regex.BLANK_SPACE + connective.searchVersion() + Regex.BLANK_SPACE + Regex.COMMA2SEARCH + Regex.BLANK_SPACE + "?" + "(.*)$";
-								m = Pattern.compile(pattern).matcher(sentence.getPosTagged());
-								m.find();
-								String pos = m.group(1) + Regex.BLANK_SPACE + m.group(2);
-
-//								System.out.println("\t"+newString+"\n"+pos);
-								newSentence.updateString(Regex.capitalizeFirst(newString), pos);
-								modifiedSentences.add(newSentence);
-								found = true;
-								break;
-							}
-						}
-					}
-				}
+				if (removed != null)
+					newSentence.updateString(Regex.capitalizeFirst(removed[0]), removed[1]);
 			}
 			
-			if (!found)
-				modifiedSentences.add(newSentence);
+			modifiedSentences.add(newSentence);
 		}
 
 		return modifiedSentences;
@@ -2183,7 +2259,7 @@ public class Utils {
 								+ Regex.capitalizeFirst(connective.toPrint()) 
 									+ "(?:"+Regex.BLANK_SPACE +"|"+Regex.COMMA2SEARCH+")" 
 								+ "(.*)$";
-						Matcher m = Pattern.compile(pattern).matcher(sentence.getSentence());
+						Matcher m = Regex.compile(pattern).matcher(sentence.getSentence());
 
 //						System.out.println(pattern+"\n"+sentence.getSentence());
 
@@ -2191,7 +2267,7 @@ public class Utils {
 						if (m.find()){
 							String newString = m.group(1);
 							pattern = "^" + Regex.capitalizeFirst(connective.searchVersion()) + "(.*)$";
-							m = Pattern.compile(pattern).matcher(sentence.getPosTagged());
+							m = Regex.compile(pattern).matcher(sentence.getPosTagged());
 							m.find();
 							String pos = m.group(1);
 
@@ -2203,13 +2279,13 @@ public class Utils {
 						else{
 
 							pattern = "^(.*?)" + Regex.COMMA + Regex.BLANK_SPACE + connective.toPrint() + Regex.COMMA + Regex.BLANK_SPACE + "?" + "(.*)$";
-							m = Pattern.compile(pattern).matcher(sentence.getSentence());
+							m = Regex.compile(pattern).matcher(sentence.getSentence());
 
 
 							if (m.find()){
 								String newString = m.group(1) + Regex.BLANK_SPACE +  m.group(2);
 								pattern = "^(.*?)" + Regex.BLANK_SPACE + Regex.COMMA2SEARCH + Regex.BLANK_SPACE + connective.searchVersion() + Regex.BLANK_SPACE + Regex.COMMA2SEARCH + Regex.BLANK_SPACE + "?" + "(.*)$";
-								m = Pattern.compile(pattern).matcher(sentence.getPosTagged());
+								m = Regex.compile(pattern).matcher(sentence.getPosTagged());
 								m.find();
 								String pos = m.group(1) + Regex.BLANK_SPACE + m.group(2);
 
@@ -2244,25 +2320,6 @@ public class Utils {
 		return list;
 	}
 
-	/**
-	 * <p>Filters a list of connectives based on their subtypes.</p>
-	 * @param connectives complete list of connectives.
-	 * @param subtype the subtype to be filtered.
-	 * @return a list of connectives from the desired subtype.
-	 */
-	public static List<Connective> filterBySubtype(List<Connective> connectives, String subtype) {
-		
-		List<Connective> fromSubtype = new LinkedList<Connective>();
-		
-		for (Connective connective : connectives){
-			if (connective.getSubtype().equals(subtype))
-				fromSubtype.add(connective);
-		}
-		
-		return fromSubtype.size() > 0 ? fromSubtype : connectives;
-	}
-	
-	
 	private static boolean containsComplexConnective(String sentence, Connective connective, Collection<Connective> connectives) {
 
 		// TODO antes de vs. antes
@@ -2278,14 +2335,14 @@ public class Utils {
 
 			for (Connective current : connectives){
 				
-				if (!current.searchVersionWithoutAnnotation().matches(connective.searchVersionWithoutAnnotation())){
+				if (!Regex.compile(connective.searchVersionWithoutAnnotation()).matcher(current.searchVersionWithoutAnnotation()).matches()){
 					
 					splitted = current.searchVersionWithoutAnnotation().split(Regex.BLANK_SPACE);
 
 					if (splitted != null && splitted.length > 1){
 
 						String pattern = ".*?" + Regex.BLANK_SPACE + connective.searchVersionWithoutAnnotation() + ".*?";
-						Matcher ma = Pattern.compile(pattern).matcher(Regex.BLANK_SPACE + current.searchVersionWithoutAnnotation());
+						Matcher ma = Regex.compile(pattern).matcher(Regex.BLANK_SPACE + current.searchVersionWithoutAnnotation());
 //						Matcher ma = Pattern.compile(pattern).matcher(Regex.WHITESPACE + current.searchVersionWithoutAnnotation());
 //						System.out.println("\t\t"+current.searchVersionWithoutAnnotation());
 //						System.out.println("\t\t"+pattern);
@@ -2302,7 +2359,7 @@ public class Utils {
 										+ "|" + Regex.capitalizeFirst(current.searchVersionWithoutAnnotation()) 
 									+ ")"
 									+ ".*?" + "$";
-							ma = Pattern.compile(pattern).matcher(sentence);
+							ma = Regex.compile(pattern).matcher(sentence);
 
 							
 							
@@ -0,0 +1,426 @@
+package run;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import options.SumOptions;
+import options.SummarizationConfig;
+import preferences.Preferences;
+import summarization.Summary;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import controllers.SumController;
+import external.ClassificationModels;
+import external.ManageExternalTools;
+
+/**
+ * <p>
+ * This class runs the summarizer as a long-running HTTP service.
+ * </p>
+ * <p>
+ * The preferences, the parser, the connectives and the classification models
+ * are loaded once, when the service starts, and shared by every request. Each
+ * summary is requested by a POST to <code>/summarize</code>, whose body holds
+ * the documents in UTF-8, separated by form feed characters. The optional
+ * query parameters are <code>type</code> (the summary type, as in
+ * SUM mode), <code>compression</code> (the compression rate, in ]0, 1]) and
+ * <code>query</code> (the user keywords). The response is the summary text;
+ * malformed queries, unknown types, the types that build no summary and
+ * invalid compression rates are refused with 400.
+ * </p>
+ * <p>
+ * The summaries are built by a fixed number of threads (SERVICE_THREADS),
+ * and at most SERVICE_QUEUE_SIZE requests wait for a free thread: the
+ * following ones are refused with 503, until a summary ends. To run the
+ * service without LX-Suite, the LX-Suite commands may point to the stand-in
+ * external/suite/fake-lxsuite.pl.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class SummarizationService {
+
+	/**
+	 * <p>
+	 * Path of the summarization requests.
+	 * </p>
+	 **/
+	private static final String CONTEXT = "/summarize";
+	/**
+	 * <p>
+	 * Separator of the documents in the request body.
+	 * </p>
+	 **/
+	private static final String DOCUMENT_SEPARATOR = "\f";
+
+	/**
+	 * <p>
+	 * HTTP server.
+	 * </p>
+	 **/
+	private HttpServer server;
+	/**
+	 * <p>
+	 * Threads that build the summaries, with a bounded queue of requests.
+	 * </p>
+	 **/
+	private ThreadPoolExecutor workers;
+	/**
+	 * <p>
+	 * Threads that handle the connections, waiting for the summaries.
+	 * </p>
+	 **/
+	private ExecutorService handlers;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new SummarizationService, loading the preferences and the
+	 * external tools.
+	 * </p>
+	 */
+	public SummarizationService() {
+		Preferences.load();
+		ManageExternalTools.load();
+		warmUp();
+	}
+
+	/**
+	 * <p>
+	 * Starts the service.
+	 * </p>
+	 *
+	 * @param port
+	 *            the port on which the service listens.
+	 * @throws IOException
+	 *             if the port cannot be used.
+	 */
+	public void start(int port) throws IOException {
+		int threads = Math.max(1, Preferences.SERVICE_THREADS);
+		int queueSize = Math.max(1, Preferences.SERVICE_QUEUE_SIZE);
+
+		workers = new ThreadPoolExecutor(threads, threads, 0L,
+				TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(
+						queueSize));
+		// A connection is handled while its summary is built or waits in the
+		// queue, and then refused; the remaining connections wait to be
+		// accepted.
+		handlers = Executors.newFixedThreadPool(threads + queueSize + 1);
+
+		server = HttpServer.create(new InetSocketAddress(port), 0);
+		server.createContext(CONTEXT, new SummaryHandler());
+		server.setExecutor(handlers);
+		server.start();
+
+		System.out.println("[Summarization service listening on port "
+				+ server.getAddress().getPort() + "]");
+	}
+
+	/**
+	 * <p>
+	 * Stops the service, after the summaries being built or waiting in the
+	 * queue end.
+	 * </p>
+	 * <p>
+	 * The requests received while the service stops are refused with 503.
+	 * </p>
+	 */
+	public void stop() {
+		workers.shutdown();
+
+		try {
+			workers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		// The summaries are built: the handlers only have to send them.
+		server.stop(1);
+		handlers.shutdown();
+
+		try {
+			handlers.awaitTermination(1, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * <p>
+	 * Loads the models that would otherwise be loaded by the first request.
+	 * </p>
+	 */
+	private void warmUp() {
+		try {
+			if (Preferences.CONNECTIVES_FILE != null)
+				Preferences.getConnectiveLexicon();
+			if (Preferences.WEKA_BINARY_MODEL_FILE != null)
+				ClassificationModels
+						.getClassifier(Preferences.WEKA_BINARY_MODEL_FILE);
+		} catch (Exception e) {
+			System.out
+					.println("============= ERROR in class [SummarizationService.warmUp].\nException trace:");
+			System.out.println(e.toString());
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * <p>
+	 * Builds the summary of the given documents.
+	 * </p>
+	 *
+	 * @param texts
+	 *            the documents texts, indexed by document name.
+	 * @param type
+	 *            the summary type.
+	 * @param compression
+	 *            the compression rate.
+	 * @param query
+	 *            the user keywords.
+	 * @return the summary text.
+	 */
+	public static String summarize(Map<String, String> texts,
+			Preferences.FINAL_SUMMARY_TYPE type, double compression,
+			String query) {
+		SumController sc = new SumController();
+
+		SumOptions options = new SumOptions(compression,
+				Preferences.OutputType.TEXT, query);
+		options.setDocumentTexts(texts);
+		sc.setConfig(SummarizationConfig.defaults().withSummaryType(type));
+		sc.submitOptions(options);
+
+		Summary summary = sc.summarize();
+
+		return summary == null ? "" : summary.toString();
+	}
+
+	/**
+	 * <p>
+	 * Splits the request body in documents.
+	 * </p>
+	 *
+	 * @param body
+	 *            the request body.
+	 * @return the non-empty documents texts, indexed by document name.
+	 */
+	private static Map<String, String> splitDocuments(String body) {
+		Map<String, String> texts = new LinkedHashMap<String, String>();
+
+		for (String text : body.split(DOCUMENT_SEPARATOR))
+			if (text.trim().length() > 0)
+				texts.put("document" + (texts.size() + 1) + ".txt", text);
+
+		return texts;
+	}
+
+	/**
+	 * <p>
+	 * Reads the parameters of a request query.
+	 * </p>
+	 */
+	private static Map<String, String> parseQuery(String query)
+			throws UnsupportedEncodingException {
+		Map<String, String> parameters = new HashMap<String, String>();
+
+		if (query == null)
+			return parameters;
+
+		for (String parameter : query.split("&")) {
+			int equals = parameter.indexOf('=');
+
+			if (equals > 0)
+				parameters.put(
+						URLDecoder.decode(parameter.substring(0, equals),
+								Preferences.UTF8),
+						URLDecoder.decode(parameter.substring(equals + 1),
+								Preferences.UTF8));
+		}
+
+		return parameters;
+	}
+
+	/**
+	 * <p>
+	 * Reads the request body.
+	 * </p>
+	 */
+	private static String read(InputStream body) throws IOException {
+		Reader reader = new InputStreamReader(body, Preferences.UTF8);
+		StringBuilder text = new StringBuilder();
+		char[] buffer = new char[8192];
+		int read;
+
+		while ((read = reader.read(buffer)) > 0)
+			text.append(buffer, 0, read);
+
+		return text.toString();
+	}
+
+	/**
+	 * <p>
+	 * Sends the response of a request.
+	 * </p>
+	 */
+	private static void respond(HttpExchange exchange, int status,
+			String response) throws IOException {
+		byte[] bytes = response.getBytes(Preferences.UTF8);
+
+		exchange.getResponseHeaders().set("Content-Type",
+				"text/plain; charset=" + Preferences.UTF8);
+		exchange.sendResponseHeaders(status, bytes.length);
+
+		OutputStream output = exchange.getResponseBody();
+		output.write(bytes);
+		output.close();
+	}
+
+	/**
+	 * <p>
+	 * Handles the summarization requests.
+	 * </p>
+	 */
+	private class SummaryHandler implements HttpHandler {
+
+		public void handle(HttpExchange exchange) throws IOException {
+			try {
+				if (!exchange.getRequestMethod().equals("POST")) {
+					respond(exchange, 405, "Only POST requests are accepted.\n");
+					return;
+				}
+
+				Map<String, String> parameters;
+
+				try {
+					parameters = parseQuery(exchange.getRequestURI()
+							.getRawQuery());
+				} catch (IllegalArgumentException e) {
+					// The query has malformed escapes.
+					respond(exchange, 400, "Invalid query.\n");
+					return;
+				}
+
+				final Map<String, String> texts = splitDocuments(read(exchange
+						.getRequestBody()));
+
+				if (texts.isEmpty()) {
+					respond(exchange, 400, "No documents were submitted.\n");
+					return;
+				}
+
+				String typeName = parameters.containsKey("type") ? parameters
+						.get("type") : "SIMPLIFIED";
+
+				if (!Preferences.isFinalSummaryType(typeName)) {
+					respond(exchange, 400, "Unknown summary type.\n");
+					return;
+				}
+
+				final Preferences.FINAL_SUMMARY_TYPE type = Preferences
+						.parseFinalSummaryType(typeName);
+				final double compression;
+
+				try {
+					compression = parameters.containsKey("compression") ? Double
+							.parseDouble(parameters.get("compression"))
+							: Preferences.DEFAULT_COMPRESSION_RATE;
+				} catch (NumberFormatException e) {
+					respond(exchange, 400, "Invalid compression rate.\n");
+					return;
+				}
+
+				final String query = parameters.containsKey("query") ? parameters
+						.get("query") : "";
+
+				if (!SumController.hasSummary(type)) {
+					respond(exchange, 400, "The summary type has no summary.\n");
+					return;
+				}
+
+				if (!(compression > 0 && compression <= 1)) {
+					respond(exchange, 400, "Invalid compression rate.\n");
+					return;
+				}
+
+				Future<String> summary;
+
+				try {
+					summary = workers.submit(new Callable<String>() {
+						public String call() throws Exception {
+							return summarize(texts, type, compression, query);
+						}
+					});
+				} catch (RejectedExecutionException e) {
+					if (workers.isShutdown()) {
+						respond(exchange, 503, "The service is stopping.\n");
+						return;
+					}
+
+					// Every thread is busy and the queue is full.
+					exchange.getResponseHeaders().set("Retry-After", "1");
+					respond(exchange, 503, "The service is busy.\n");
+					return;
+				}
+
+				respond(exchange, 200, summary.get());
+			} catch (ExecutionException e) {
+				System.out
+						.println("============= ERROR in class [SummarizationService.handle].\nException trace:");
+				System.out.println(e.getCause().toString());
+				e.getCause().printStackTrace();
+				respond(exchange, 500, "The summary could not be built.\n");
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				respond(exchange, 503, "The service is stopping.\n");
+			} catch (RuntimeException e) {
+				System.out
+						.println("============= ERROR in class [SummarizationService.handle].\nException trace:");
+				System.out.println(e.toString());
+				e.printStackTrace();
+				respond(exchange, 500, "The request could not be handled.\n");
+			} finally {
+				exchange.close();
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * Runs the summarization service.
+	 * </p>
+	 *
+	 * @param args
+	 *            , the port (optional; SERVICE_PORT by default).
+	 */
+	public static void main(String[] args) throws IOException {
+		SummarizationService service = new SummarizationService();
+		service.start(args.length > 0 ? Integer.parseInt(args[0])
+				: Preferences.SERVICE_PORT);
+	}
+
+}
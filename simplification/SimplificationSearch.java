@@ -0,0 +1,530 @@
+package simplification;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import preferences.Regex;
+import core.ManageTrees;
+import core.Phrase;
+import core.Sentence;
+import core.Word;
+import edu.stanford.nlp.trees.Tree;
+
+/**
+ * <p>
+ * This class searches the set of removable phrases whose removal leaves the
+ * subsentence with the highest score.
+ * </p>
+ * <p>
+ * Each set of phrases is scored from the leaves it keeps, exactly as
+ * Sentence.buildSubSentence scores the subsentence, but without copying the
+ * tree nor annotating the subsentence. Sets of phrases that remove the same
+ * leaves (nested or repeated phrases) are scored only once.
+ * </p>
+ * <p>
+ * Only subsentences with at most the given number of words are candidates. A
+ * set of phrases still being decided is discarded before being scored when
+ * even removing every undecided phrase leaves too many words, or when no
+ * subsentence it leads to may score higher than the best one found: the
+ * words surely kept and the words that may be kept bound the score of its
+ * subsentences. When no subsentence fits the word budget, the search is run
+ * again without it.
+ * </p>
+ * <p>
+ * The search ends when no subsentence may have a higher score than the best
+ * one found, or when the maximum number of scored subsentences is reached. In
+ * the latter case, the subsentences already scored include the removal of
+ * each phrase alone, and the greedy growth of the best of them.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class SimplificationSearch {
+
+	/**
+	 * <p>
+	 * Sentence to be simplified.
+	 * </p>
+	 **/
+	private Sentence sentence;
+	/**
+	 * <p>
+	 * Phrases that may be removed.
+	 * </p>
+	 **/
+	private Phrase[] phrases;
+	/**
+	 * <p>
+	 * Leaves of the sentence tree, without annotation.
+	 * </p>
+	 **/
+	private String[] leaves;
+	/**
+	 * <p>
+	 * Leaves covered by each phrase.
+	 * </p>
+	 **/
+	private BitSet[] phraseLeaves;
+	/**
+	 * <p>
+	 * For each phrase, the previous phrases with the same tree (only the first
+	 * of them is removed from the tree).
+	 * </p>
+	 **/
+	private boolean[][] sameTree;
+	/**
+	 * <p>
+	 * Maximum number of subsentences scored.
+	 * </p>
+	 **/
+	private int maximumSubsentences;
+	/**
+	 * <p>
+	 * Maximum number of words of a candidate subsentence.
+	 * </p>
+	 **/
+	private int wordBudget;
+	/**
+	 * <p>
+	 * Highest score a subsentence may have.
+	 * </p>
+	 **/
+	private double maximumScore;
+	/**
+	 * <p>
+	 * Score of the subsentence left when every leaf is removed (the tree is
+	 * then kept as it was); null until it is needed.
+	 * </p>
+	 **/
+	private Double unchangedScore;
+
+	/**
+	 * <p>
+	 * Scores already computed, indexed by the removed leaves (NaN if the
+	 * subsentence is not a candidate).
+	 * </p>
+	 **/
+	private HashMap<BitSet, Double> scores;
+	/**
+	 * <p>
+	 * Best set of phrases found.
+	 * </p>
+	 **/
+	private boolean[] best;
+	/**
+	 * <p>
+	 * Score of the best set of phrases found.
+	 * </p>
+	 **/
+	private double bestScore;
+	/**
+	 * <p>
+	 * Whether a subsentence was discarded for exceeding the word budget.
+	 * </p>
+	 **/
+	private boolean overBudget;
+
+	/**
+	 * <p>
+	 * Constructor.
+	 * </p>
+	 * <p>
+	 * Builds a new SimplificationSearch.
+	 * </p>
+	 *
+	 * @param sentence
+	 *            the sentence to be simplified.
+	 * @param tree
+	 *            the sentence tree.
+	 * @param phrases
+	 *            the phrases that may be removed, which are subtrees of the
+	 *            sentence tree.
+	 * @param maximumSubsentences
+	 *            the maximum number of subsentences scored.
+	 * @param wordBudget
+	 *            the maximum number of words of a candidate subsentence.
+	 */
+	public SimplificationSearch(Sentence sentence, Tree tree,
+			List<Phrase> phrases, int maximumSubsentences, int wordBudget) {
+		this.sentence = sentence;
+		this.phrases = phrases.toArray(new Phrase[phrases.size()]);
+		this.maximumSubsentences = Math.max(1, maximumSubsentences);
+		this.wordBudget = wordBudget;
+		this.scores = new HashMap<BitSet, Double>();
+		this.bestScore = Double.NEGATIVE_INFINITY;
+		this.overBudget = false;
+
+		List<Tree> treeLeaves = tree.getLeaves();
+		IdentityHashMap<Tree, Integer> positions = new IdentityHashMap<Tree, Integer>();
+		this.leaves = new String[treeLeaves.size()];
+
+		for (int i = 0; i < leaves.length; i++) {
+			Tree leaf = treeLeaves.get(i);
+			positions.put(leaf, i);
+			leaves[i] = ManageTrees.getLeafNode(leaf.nodeString());
+		}
+
+		int total = this.phrases.length;
+		this.phraseLeaves = new BitSet[total];
+		this.sameTree = new boolean[total][total];
+
+		for (int k = 0; k < total; k++) {
+			Tree phraseTree = this.phrases[k].getPhraseTree();
+			phraseLeaves[k] = new BitSet(leaves.length);
+
+			for (Tree leaf : phraseTree.getLeaves()) {
+				Integer position = positions.get(leaf);
+				if (position != null)
+					phraseLeaves[k].set(position);
+			}
+
+			// The phrases are removed as a set of trees, in which equal trees
+			// are kept only once.
+			for (int j = 0; j < k; j++)
+				sameTree[k][j] = phraseTree.equals(this.phrases[j]
+						.getPhraseTree());
+		}
+
+		this.maximumScore = Double.NEGATIVE_INFINITY;
+		for (Word word : sentence.getWords()) {
+			word.computeScore();
+			maximumScore = Math.max(maximumScore, word.getScore());
+		}
+	}
+
+	/**
+	 * <p>
+	 * Searches the phrases to be removed.
+	 * </p>
+	 *
+	 * @return the set of phrases whose removal leaves the best subsentence;
+	 *         null if no phrase can be removed.
+	 */
+	public Set<Phrase> search() {
+		int total = phrases.length;
+
+		searchSubsentences();
+
+		// No subsentence fits the word budget: the best one is chosen anyway.
+		if (best == null && overBudget) {
+			wordBudget = Integer.MAX_VALUE;
+			unchangedScore = null;
+			scores.clear();
+			searchSubsentences();
+		}
+
+		if (best == null)
+			return null;
+
+		Set<Phrase> toRemove = new HashSet<Phrase>();
+		for (int k = 0; k < total; k++)
+			if (best[k])
+				toRemove.add(phrases[k]);
+
+		return toRemove;
+	}
+
+	/**
+	 * <p>
+	 * Scores the candidate subsentences, keeping the best one.
+	 * </p>
+	 */
+	private void searchSubsentences() {
+		int total = phrases.length;
+
+		// Each phrase alone.
+		for (int k = 0; k < total && !isOver(); k++) {
+			boolean[] removed = new boolean[total];
+			removed[k] = true;
+			score(removed);
+		}
+
+		// Greedy growth of the best set.
+		boolean improved = best != null;
+		while (improved && !isOver()) {
+			double current = bestScore;
+
+			for (int k = 0; k < total && !isOver(); k++) {
+				if (!best[k]) {
+					boolean[] removed = best.clone();
+					removed[k] = true;
+					score(removed);
+				}
+			}
+
+			improved = bestScore > current;
+		}
+
+		// Every other set of phrases.
+		if (!isOver())
+			search(0, new boolean[total], new BitSet(leaves.length));
+	}
+
+	/**
+	 * <p>
+	 * Scores every set of phrases that extends the given decisions.
+	 * </p>
+	 *
+	 * @param phrase
+	 *            the next phrase to be decided.
+	 * @param removed
+	 *            the phrases already chosen to be removed.
+	 * @param removedLeaves
+	 *            the leaves covered by the chosen phrases.
+	 */
+	private void search(int phrase, boolean[] removed, BitSet removedLeaves) {
+		if (isOver())
+			return;
+
+		if (phrase == phrases.length) {
+			score(removed);
+			return;
+		}
+
+		if (!isPromising(phrase, removedLeaves))
+			return;
+
+		search(phrase + 1, removed, removedLeaves);
+
+		// A phrase whose leaves are already removed leads to the same
+		// subsentences.
+		BitSet added = contribution(phrase, removed);
+		BitSet leavesWithPhrase = (BitSet) removedLeaves.clone();
+		leavesWithPhrase.or(added);
+
+		if (!leavesWithPhrase.equals(removedLeaves)) {
+			removed[phrase] = true;
+			search(phrase + 1, removed, leavesWithPhrase);
+			removed[phrase] = false;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Checks if the sets of phrases that extend the given decisions may lead
+	 * to a candidate better than the best one found.
+	 * </p>
+	 * <p>
+	 * The words kept whatever the undecided phrases are kept in every such
+	 * subsentence, and the remaining ones may be kept or not. No subsentence
+	 * has a higher score than the one that adds to the former the best of the
+	 * latter, nor fewer words than the former.
+	 * </p>
+	 *
+	 * @param phrase
+	 *            the next phrase to be decided.
+	 * @param removedLeaves
+	 *            the leaves covered by the chosen phrases.
+	 * @return true if the extended sets must be searched; false otherwise.
+	 */
+	private boolean isPromising(int phrase, BitSet removedLeaves) {
+		BitSet removable = (BitSet) removedLeaves.clone();
+
+		for (int k = phrase; k < phrases.length; k++)
+			removable.or(phraseLeaves[k]);
+
+		if (removable.equals(removedLeaves))
+			return true;
+
+		List<Word> surelyKept = keptWords(removable);
+
+		if (surelyKept.size() > wordBudget) {
+			overBudget = true;
+			return false;
+		}
+
+		// Removing every leaf keeps the tree as it was.
+		if (removable.cardinality() == leaves.length) {
+			if (unchangedScore == null)
+				unchangedScore = scoreSubsentence(removable);
+			if (!unchangedScore.isNaN() && unchangedScore > bestScore)
+				return true;
+		}
+
+		IdentityHashMap<Word, Integer> kept = new IdentityHashMap<Word, Integer>();
+		for (Word word : surelyKept) {
+			Integer count = kept.get(word);
+			kept.put(word, count == null ? 1 : count + 1);
+		}
+
+		double sum = 0;
+		int words = 0;
+		List<Double> optional = new ArrayList<Double>();
+
+		for (Word word : keptWords(removedLeaves)) {
+			Integer count = kept.get(word);
+
+			if (count == null)
+				optional.add(word.getScore());
+			else {
+				sum += word.getScore();
+				words++;
+
+				if (count == 1)
+					kept.remove(word);
+				else
+					kept.put(word, count - 1);
+			}
+		}
+
+		// Words that only appear when more leaves are removed (merged tokens)
+		// may be kept as well.
+		for (Word word : kept.keySet())
+			for (int i = kept.get(word); i > 0; i--)
+				optional.add(word.getScore());
+
+		Collections.sort(optional, Collections.reverseOrder());
+
+		for (double score : optional) {
+			if (words > 0 && score <= sum / words)
+				break;
+			sum += score;
+			words++;
+		}
+
+		return words > 0 && sum / words > bestScore;
+	}
+
+	/**
+	 * <p>
+	 * Scores the subsentence left by removing the given phrases, and keeps it
+	 * if it is the best one.
+	 * </p>
+	 *
+	 * @param removed
+	 *            the phrases to be removed.
+	 */
+	private void score(boolean[] removed) {
+		BitSet removedLeaves = new BitSet(leaves.length);
+
+		for (int k = 0; k < phrases.length; k++)
+			if (removed[k])
+				removedLeaves.or(contribution(k, removed));
+
+		if (scores.containsKey(removedLeaves))
+			return;
+
+		double score = scoreSubsentence(removedLeaves);
+		scores.put(removedLeaves, score);
+
+		if (!Double.isNaN(score) && score > bestScore) {
+			bestScore = score;
+			best = removed.clone();
+		}
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the leaves removed by a phrase, given the other phrases
+	 * removed.
+	 * </p>
+	 *
+	 * @param phrase
+	 *            the phrase.
+	 * @param removed
+	 *            the phrases to be removed.
+	 * @return the leaves removed by the phrase.
+	 */
+	private BitSet contribution(int phrase, boolean[] removed) {
+		for (int j = 0; j < phrase; j++)
+			if (removed[j] && sameTree[phrase][j])
+				return new BitSet();
+
+		return phraseLeaves[phrase];
+	}
+
+	/**
+	 * <p>
+	 * Computes the score of the subsentence that keeps the leaves not removed,
+	 * as computed by Sentence.buildSubSentence.
+	 * </p>
+	 *
+	 * @param removedLeaves
+	 *            the removed leaves.
+	 * @return the subsentence score; NaN if the subsentence is empty, has as
+	 *         many words as the sentence or exceeds the word budget.
+	 */
+	private double scoreSubsentence(BitSet removedLeaves) {
+		BitSet removed = removedLeaves;
+
+		// When every leaf is removed, the tree is kept as it was.
+		if (removed.cardinality() == leaves.length)
+			removed = new BitSet(leaves.length);
+
+		double score = 0;
+		int words = 0;
+
+		for (Word word : keptWords(removed)) {
+			word.computeScore();
+			score += word.getScore();
+			words++;
+		}
+
+		if (words == 0 || words == sentence.getTotalWords())
+			return Double.NaN;
+
+		if (words > wordBudget) {
+			overBudget = true;
+			return Double.NaN;
+		}
+
+		return score / (double) words;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the sentence words left by removing the given leaves.
+	 * </p>
+	 *
+	 * @param removedLeaves
+	 *            the removed leaves.
+	 * @return the words kept, in the sentence order.
+	 */
+	private List<Word> keptWords(BitSet removedLeaves) {
+		StringBuilder kept = new StringBuilder();
+
+		for (int i = 0; i < leaves.length; i++)
+			if (!removedLeaves.get(i))
+				kept.append(leaves[i]).append(' ');
+
+		List<Word> words = new ArrayList<Word>();
+
+		if (kept.length() == 0)
+			return words;
+
+		for (String token : Regex.untokenizeLeaves(kept.toString())) {
+			Word word = sentence.getWord(token);
+
+			if (word != null)
+				words.add(word);
+		}
+
+		return words;
+	}
+
+	/**
+	 * <p>
+	 * Checks if the search must end.
+	 * </p>
+	 *
+	 * @return true if no subsentence may be better than the best one found,
+	 *         or if the maximum number of subsentences was scored.
+	 */
+	private boolean isOver() {
+		return bestScore >= maximumScore
+				|| scores.size() >= maximumSubsentences;
+	}
+
+	/** Getters & Setters **/
+	public double getBestScore() {
+		return bestScore;
+	}
+
+}
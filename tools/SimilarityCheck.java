@@ -0,0 +1,261 @@
+package tools;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import preferences.Preferences;
+import preferences.Utils;
+import summarization.Summary;
+import aux.SimilarityCandidates;
+import aux.SimilarityMatrix;
+import controllers.SumController;
+import core.Sentence;
+import core.SingleWord;
+import core.SymbolTable;
+import core.Word;
+
+/**
+ * <p>
+ * This class checks that comparing only the candidate pairs of sentences
+ * (SIMILARITY_CANDIDATES) gives the same similarities and the same clusters
+ * as comparing every pair.
+ * </p>
+ * <p>
+ * For random collections of sentences, built from a small vocabulary so that
+ * they share words, it checks that every pair discarded by the candidates is
+ * below the threshold, that the similarities kept by the SimilarityMatrix are
+ * the ones computed by Utils.computeSentence2SentenceSimilarity, and that
+ * SumController.clusterBySimilarity and Utils.filterSentencesBySimilarity
+ * give the same result in both modes (with their own thresholds).
+ * </p>
+ * <p>
+ * Usage: <code>java tools.SimilarityCheck [collections]</code>. It ends with
+ * status 1 if any check fails.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class SimilarityCheck {
+
+	/**
+	 * <p>
+	 * Lemmas of the random words.
+	 * </p>
+	 **/
+	private static final String[] LEMMAS = { "CASA", "SER", "IR", "CAIR",
+			"DIA", "ANO", "PAÍS", "GOVERNO", "PRESIDENTE", "CIDADE", "NOVO",
+			"GRANDE", "TER", "FAZER", "DIZER", "PARTIDO" };
+	/**
+	 * <p>
+	 * Thresholds checked, including the ones for which every pair is a
+	 * candidate.
+	 * </p>
+	 **/
+	private static final double[] THRESHOLDS = { 0, 0.005, 0.2, 0.5, 0.8 };
+
+	/**
+	 * <p>
+	 * Number of failed checks.
+	 * </p>
+	 **/
+	private static int failures = 0;
+
+	public static void main(String[] args) throws Exception {
+		int collections = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+		Random random = new Random(17);
+		long pairs = 0;
+
+		for (int c = 0; c < collections; c++) {
+			double threshold = THRESHOLDS[c % THRESHOLDS.length];
+			List<Sentence> sentences = sentences(random, 1 + random.nextInt(
+					c % 10 == 0 ? 400 : 80));
+
+			pairs += checkSimilarities(sentences, threshold);
+			if (c % THRESHOLDS.length == 0) {
+				checkClusters(sentences);
+				checkFilter(sentences);
+			}
+		}
+
+		System.out.println("[SimilarityCheck] " + collections
+				+ " collections, " + pairs + " pairs, " + failures
+				+ " failures");
+
+		if (failures > 0)
+			System.exit(1);
+	}
+
+	/**
+	 * <p>
+	 * Checks the similarity of every ordered pair of sentences.
+	 * </p>
+	 *
+	 * @return the number of pairs checked.
+	 */
+	private static long checkSimilarities(List<Sentence> sentences,
+			double threshold) {
+		SimilarityCandidates candidates = new SimilarityCandidates(sentences,
+				threshold);
+		SimilarityMatrix pruned = new SimilarityMatrix(sentences, candidates, 4);
+		SimilarityMatrix every = new SimilarityMatrix(sentences, null, 4);
+		long pairs = 0;
+
+		for (Sentence first : sentences)
+			for (Sentence second : sentences) {
+				if (first == second)
+					continue;
+
+				double similarity = Utils.computeSentence2SentenceSimilarity(
+						first, second);
+				pairs++;
+
+				if (every.similarity(first, second) != similarity)
+					fail("every pair: " + first + " / " + second);
+
+				if (!pruned.isCandidate(first, second)) {
+					if (similarity >= threshold)
+						fail("discarded pair above the threshold " + threshold
+								+ ": " + similarity);
+				} else if (pruned.similarity(first, second) != similarity)
+					fail("candidate pair: " + first + " / " + second);
+			}
+
+		return pairs;
+	}
+
+	/**
+	 * <p>
+	 * Checks the clusters of SumController.clusterBySimilarity (with the
+	 * SENTENCE_SIMILIARITY_THRESHOLD).
+	 * </p>
+	 */
+	private static void checkClusters(List<Sentence> sentences)
+			throws Exception {
+		String pruned = cluster(sentences, true);
+		String every = cluster(sentences, false);
+
+		if (!pruned.equals(every))
+			fail("clusters differ:\n" + pruned + "\n" + every);
+	}
+
+	/**
+	 * <p>
+	 * Clusters the sentences, retrieving the cluster of each sentence and the
+	 * sentences kept.
+	 * </p>
+	 */
+	private static String cluster(List<Sentence> sentences, boolean candidates)
+			throws Exception {
+		Preferences.SIMILARITY_CANDIDATES = candidates;
+
+		for (Sentence sentence : sentences)
+			sentence.setSimilarityKey(-1);
+
+		SumController sc = new SumController();
+		sc.setSummary(new Summary(new LinkedList<Sentence>(sentences)));
+
+		Method clusterBySimilarity = SumController.class
+				.getDeclaredMethod("clusterBySimilarity");
+		clusterBySimilarity.setAccessible(true);
+
+		// The clustering reports each cluster.
+		PrintStream out = System.out;
+		System.setOut(new PrintStream(new OutputStream() {
+			public void write(int b) {
+			}
+		}));
+		try {
+			clusterBySimilarity.invoke(sc);
+		} finally {
+			System.setOut(out);
+		}
+
+		StringBuilder result = new StringBuilder();
+
+		for (Sentence sentence : sentences)
+			result.append(sentence.getSimilarityKey()).append(' ');
+		result.append('|');
+		for (Sentence sentence : sc.getSummary().getSentences())
+			result.append(sentence.getSentence()).append(' ');
+
+		return result.toString();
+	}
+
+	/**
+	 * <p>
+	 * Checks Utils.filterSentencesBySimilarity (with the
+	 * SIMPLIFIED_SENTENCE_SIMILIARITY_THRESHOLD).
+	 * </p>
+	 */
+	private static void checkFilter(List<Sentence> sentences) {
+		Preferences.SIMILARITY_CANDIDATES = true;
+		String pruned = sentences(Utils.filterSentencesBySimilarity(sentences));
+		Preferences.SIMILARITY_CANDIDATES = false;
+		String every = sentences(Utils.filterSentencesBySimilarity(sentences));
+
+		if (!pruned.equals(every))
+			fail("filtered sentences differ");
+	}
+
+	/**
+	 * <p>
+	 * Builds random sentences of a single run.
+	 * </p>
+	 */
+	private static List<Sentence> sentences(Random random, int total) {
+		SymbolTable symbols = new SymbolTable();
+		List<Sentence> sentences = new ArrayList<Sentence>();
+
+		for (int s = 0; s < total; s++) {
+			List<Word> words = new ArrayList<Word>();
+			int length = 1 + random.nextInt(12);
+			// A narrow vocabulary for some sentences makes similar pairs.
+			int vocabulary = random.nextBoolean() ? 4 : LEMMAS.length;
+
+			for (int w = 0; w < length; w++) {
+				String lemma = LEMMAS[random.nextInt(vocabulary)];
+				String word = lemma.toLowerCase();
+
+				words.add(new SingleWord(symbols, 1, s, w + 1, 1, word, word,
+						lemma, "CN"));
+			}
+
+			Sentence sentence = new Sentence("s" + s, words);
+			sentence.setScore(random.nextInt(5));
+			sentences.add(sentence);
+		}
+
+		return sentences;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the strings of the given sentences.
+	 * </p>
+	 */
+	private static String sentences(Iterable<Sentence> sentences) {
+		StringBuilder result = new StringBuilder();
+
+		for (Sentence sentence : sentences)
+			result.append(sentence.getSentence()).append(' ');
+
+		return result.toString();
+	}
+
+	/**
+	 * <p>
+	 * Reports a failed check.
+	 * </p>
+	 */
+	private static void fail(String message) {
+		if (failures++ < 10)
+			System.out.println("[SimilarityCheck] FAILED " + message);
+	}
+
+}
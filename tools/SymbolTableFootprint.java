@@ -0,0 +1,125 @@
+package tools;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import core.SingleWord;
+import core.SymbolTable;
+
+/**
+ * <p>
+ * This class measures the heap kept by the words of a run with and without a
+ * symbol table, and checks that the table of a run is released with its
+ * words.
+ * </p>
+ * <p>
+ * The words are built as WordTokenizer builds them, each one with its own
+ * lemma and annotation strings, from a vocabulary of a few thousand lemmas.
+ * </p>
+ * <p>
+ * Usage: <code>java tools.SymbolTableFootprint [words]</code>. It ends with
+ * status 1 if the table does not reduce the heap kept by the words, or if it
+ * is not released with them.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class SymbolTableFootprint {
+
+	/**
+	 * <p>
+	 * Number of distinct lemmas.
+	 * </p>
+	 **/
+	private static final int VOCABULARY = 5000;
+	/**
+	 * <p>
+	 * POS annotations of the words.
+	 * </p>
+	 **/
+	private static final String[] ANNOTATIONS = { "CN#ms", "CN#fs", "V#pi-3s",
+			"ADJ#ms", "PREP", "DA#ms", "PNT" };
+
+	public static void main(String[] args) throws Exception {
+		int total = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+
+		long plain = footprint(null, total);
+		SymbolTable symbols = new SymbolTable();
+		long interned = footprint(symbols, total);
+
+		WeakReference<SymbolTable> released = new WeakReference<SymbolTable>(
+				symbols);
+		symbols = null;
+		collect();
+
+		System.out.println("[SymbolTableFootprint] " + total + " words: "
+				+ plain / 1024 + " KB without a table, " + interned / 1024
+				+ " KB with a table; table released with the words: "
+				+ (released.get() == null));
+
+		if (interned >= plain || released.get() != null)
+			System.exit(1);
+	}
+
+	/**
+	 * <p>
+	 * Measures the heap kept by the words of a run.
+	 * </p>
+	 *
+	 * @param symbols
+	 *            the symbol table of the run (null for none).
+	 * @param total
+	 *            the number of words.
+	 * @return the heap kept, in bytes (the table included).
+	 */
+	private static long footprint(SymbolTable symbols, int total)
+			throws InterruptedException {
+		collect();
+		long before = used();
+
+		List<SingleWord> words = new ArrayList<SingleWord>(total);
+
+		for (int i = 0; i < total; i++) {
+			int lemma = i % VOCABULARY;
+			String word = "palavra" + lemma;
+
+			words.add(new SingleWord(symbols, word, word, new StringBuilder(
+					"PALAVRA").append(lemma).toString(), new String(
+					ANNOTATIONS[i % ANNOTATIONS.length])));
+		}
+
+		collect();
+		long after = used();
+
+		// Keeps the words reachable until they are measured.
+		if (words.size() != total)
+			throw new IllegalStateException();
+
+		return after - before;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the heap in use.
+	 * </p>
+	 */
+	private static long used() {
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * <p>
+	 * Runs the garbage collector until the heap in use settles.
+	 * </p>
+	 */
+	private static void collect() throws InterruptedException {
+		for (int i = 0; i < 4; i++) {
+			System.gc();
+			Thread.sleep(100);
+		}
+	}
+
+}
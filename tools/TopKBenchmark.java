@@ -0,0 +1,166 @@
+package tools;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import preferences.Preferences;
+import aux.TopK;
+import core.SingleWord;
+import core.Word;
+
+/**
+ * <p>
+ * This class compares the selection of the best keywords by TopK with the
+ * selection by sorting every word, as the keywords were selected before.
+ * </p>
+ * <p>
+ * It first checks, for random collections of words with many ties, that both
+ * select the same words in the same order, and then times both for growing
+ * collections, reporting the median of several runs.
+ * </p>
+ * <p>
+ * Usage: <code>java tools.TopKBenchmark [k]</code>. It ends with status 1 if
+ * the selections differ.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class TopKBenchmark {
+
+	/**
+	 * <p>
+	 * Sizes of the collections timed.
+	 * </p>
+	 **/
+	private static final int[] SIZES = { 1000, 10000, 100000, 1000000 };
+	/**
+	 * <p>
+	 * Number of timed runs of each selection.
+	 * </p>
+	 **/
+	private static final int RUNS = 9;
+
+	public static void main(String[] args) {
+		int k = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+		Random random = new Random(1);
+		int differences = 0;
+
+		for (int t = 0; t < 3000; t++) {
+			List<Word> words = words(random, random.nextInt(200), 10);
+			int size = random.nextInt(60) - 5;
+
+			if (!same(sorted(words, size), selected(words, size)))
+				differences++;
+		}
+
+		System.out.println("[TopKBenchmark] 3000 random selections, "
+				+ differences + " differences");
+
+		for (int size : SIZES) {
+			List<Word> words = words(random, size, Integer.MAX_VALUE);
+			long[] sort = new long[RUNS], heap = new long[RUNS];
+
+			for (int run = 0; run < RUNS; run++) {
+				long start = System.nanoTime();
+				List<Word> x = sorted(words, k);
+				long middle = System.nanoTime();
+				List<Word> y = selected(words, k);
+				long end = System.nanoTime();
+
+				sort[run] = middle - start;
+				heap[run] = end - middle;
+
+				if (!same(x, y))
+					differences++;
+			}
+
+			System.out.println("[TopKBenchmark] " + size + " words, k = " + k
+					+ ": sort " + median(sort) / 1000 + " us, TopK "
+					+ median(heap) / 1000 + " us");
+		}
+
+		if (differences > 0)
+			System.exit(1);
+	}
+
+	/**
+	 * <p>
+	 * Selects the best words by sorting every word.
+	 * </p>
+	 */
+	private static List<Word> sorted(List<Word> words, int k) {
+		LinkedList<Word> sorted = new LinkedList<Word>(words);
+		Collections.sort(sorted, Preferences.COMPARE_WORD_SCORE);
+
+		List<Word> best = new ArrayList<Word>();
+		for (Word word : sorted) {
+			if (best.size() >= k)
+				break;
+			best.add(word);
+		}
+
+		return best;
+	}
+
+	/**
+	 * <p>
+	 * Selects the best words with TopK.
+	 * </p>
+	 */
+	private static List<Word> selected(List<Word> words, int k) {
+		return TopK.select(words, k, Preferences.COMPARE_WORD_SCORE);
+	}
+
+	/**
+	 * <p>
+	 * Checks if two selections hold the very same words, in the same order.
+	 * </p>
+	 */
+	private static boolean same(List<Word> first, List<Word> second) {
+		if (first.size() != second.size())
+			return false;
+
+		for (int i = 0; i < first.size(); i++)
+			if (first.get(i) != second.get(i))
+				return false;
+
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Builds random words, whose scores take the given number of values.
+	 * </p>
+	 */
+	private static List<Word> words(Random random, int total, int scores) {
+		List<Word> words = new ArrayList<Word>(total);
+
+		for (int i = 0; i < total; i++) {
+			SingleWord word = new SingleWord("a", "a", "A", "CN");
+			word.setScore(scores == Integer.MAX_VALUE ? random.nextDouble()
+					: random.nextInt(scores));
+			word.setTFIDF(random.nextInt(3));
+			word.setNumberOfDocs(random.nextInt(3));
+			words.add(word);
+		}
+
+		return words;
+	}
+
+	/**
+	 * <p>
+	 * Retrieves the median of the given times.
+	 * </p>
+	 */
+	private static long median(long[] times) {
+		long[] sorted = times.clone();
+		Arrays.sort(sorted);
+		return sorted[sorted.length / 2];
+	}
+
+}
@@ -0,0 +1,222 @@
+package tools;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import core.SingleWord;
+import core.SymbolTable;
+import core.Word;
+import core.WordTokenizer;
+
+/**
+ * <p>
+ * This class checks the words split by WordTokenizer against a golden corpus
+ * of sentences and the words expected for each one of them.
+ * </p>
+ * <p>
+ * Each case of the corpus is a block of lines, separated from the next one by
+ * an empty line: the original sentence (starting with "&gt; "), the
+ * POS-tagged sentence (starting with "&lt; ") and a line for each expected
+ * word, with its position, number of tokens, original token, word, lemma and
+ * annotation, separated by "|". Lines starting with "#" are comments. Tabs,
+ * line breaks, other control characters and the spaces at the ends of a line
+ * are written as Java escapes (\t, \n, \r, \f, \\ and \\uXXXX).
+ * </p>
+ * <p>
+ * The expected words were given by the regular expressions splitter used
+ * before WordTokenizer, so the check guards the output of the splitter
+ * against changes in its behaviour.
+ * </p>
+ * <p>
+ * Usage: <code>java tools.WordTokenizerCheck [corpus]</code>, where the
+ * corpus defaults to tools/wordtokenizer-golden.txt. It ends with status 1 if
+ * any case fails.
+ * </p>
+ *
+ * @author Sara Botelho Silveira
+ * @version 2.0
+ */
+public class WordTokenizerCheck {
+
+	/**
+	 * <p>
+	 * Golden corpus checked by default.
+	 * </p>
+	 **/
+	private static final String CORPUS = "tools/wordtokenizer-golden.txt";
+
+	public static void main(String[] args) throws IOException {
+		List<List<String>> cases = read(args.length > 0 ? args[0] : CORPUS);
+		int failures = 0;
+
+		for (List<String> lines : cases) {
+			if (lines.size() < 2 || !lines.get(0).startsWith(">")
+					|| !lines.get(1).startsWith("<"))
+				throw new IOException("Malformed case: " + lines);
+
+			String sentence = unescape(lines.get(0).substring(Math.min(2,
+					lines.get(0).length())));
+			String posTagged = unescape(lines.get(1).substring(Math.min(2,
+					lines.get(1).length())));
+			List<String> expected = lines.subList(2, lines.size());
+			List<String> actual = new ArrayList<String>();
+
+			for (Word word : WordTokenizer.splitWords(new SymbolTable(), 1, 1,
+					sentence, posTagged))
+				actual.add(describe((SingleWord) word));
+
+			if (!actual.equals(expected)) {
+				failures++;
+				System.out.println("[WordTokenizerCheck] FAILED " + lines.get(0)
+						+ "\n  expected:\n    " + join(expected)
+						+ "\n  actual:\n    " + join(actual));
+			}
+		}
+
+		System.out.println("[WordTokenizerCheck] " + cases.size() + " cases, "
+				+ failures + " failures");
+
+		if (failures > 0)
+			System.exit(1);
+	}
+
+	/**
+	 * <p>
+	 * Reads the cases of the corpus, each one as its lines without the
+	 * comments.
+	 * </p>
+	 */
+	private static List<List<String>> read(String path) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(
+				new FileInputStream(path), "UTF-8"));
+		List<List<String>> cases = new ArrayList<List<String>>();
+		List<String> lines = new ArrayList<String>();
+
+		try {
+			String line;
+
+			while ((line = reader.readLine()) != null) {
+				if (line.startsWith("#"))
+					continue;
+
+				if (line.length() == 0) {
+					if (!lines.isEmpty())
+						cases.add(lines);
+					lines = new ArrayList<String>();
+				} else
+					lines.add(line);
+			}
+
+			if (!lines.isEmpty())
+				cases.add(lines);
+		} finally {
+			reader.close();
+		}
+
+		return cases;
+	}
+
+	/**
+	 * <p>
+	 * Describes a word as a line of the corpus.
+	 * </p>
+	 */
+	private static String describe(SingleWord word) {
+		return word.getPosition() + "|" + word.getNumberOfTokens() + "|"
+				+ escape(word.getOriginal()) + "|" + escape(word.getWord())
+				+ "|" + escape(word.getLemma()) + "|"
+				+ escape(word.getAnnotation());
+	}
+
+	/**
+	 * <p>
+	 * Writes the characters that cannot be read from a line of the corpus as
+	 * Java escapes.
+	 * </p>
+	 */
+	private static String escape(String text) {
+		StringBuilder escaped = new StringBuilder();
+
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+
+			if (c == '\\')
+				escaped.append("\\\\");
+			else if (c == '\t')
+				escaped.append("\\t");
+			else if (c == '\n')
+				escaped.append("\\n");
+			else if (c == '\r')
+				escaped.append("\\r");
+			else if (c == '\f')
+				escaped.append("\\f");
+			else if (c == '|' || Character.isISOControl(c)
+					|| Character.isSpaceChar(c) && c != ' '
+					|| c == ' ' && (i == 0 || i == text.length() - 1))
+				escaped.append(String.format("\\u%04X", (int) c));
+			else
+				escaped.append(c);
+		}
+
+		return escaped.toString();
+	}
+
+	/**
+	 * <p>
+	 * Reads the Java escapes of a line of the corpus.
+	 * </p>
+	 */
+	private static String unescape(String text) {
+		StringBuilder unescaped = new StringBuilder();
+
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+
+			if (c != '\\' || i + 1 == text.length()) {
+				unescaped.append(c);
+				continue;
+			}
+
+			char next = text.charAt(++i);
+
+			if (next == 't')
+				unescaped.append('\t');
+			else if (next == 'n')
+				unescaped.append('\n');
+			else if (next == 'r')
+				unescaped.append('\r');
+			else if (next == 'f')
+				unescaped.append('\f');
+			else if (next == 'u' && i + 4 < text.length()) {
+				unescaped.append((char) Integer.parseInt(
+						text.substring(i + 1, i + 5), 16));
+				i += 4;
+			} else
+				unescaped.append(next);
+		}
+
+		return unescaped.toString();
+	}
+
+	/**
+	 * <p>
+	 * Joins the lines of a case for a report.
+	 * </p>
+	 */
+	private static String join(List<String> lines) {
+		StringBuilder joined = new StringBuilder();
+
+		for (String line : lines) {
+			if (joined.length() > 0)
+				joined.append("\n    ");
+			joined.append(line);
+		}
+
+		return joined.toString();
+	}
+
+}
@@ -3,14 +3,22 @@ package ui;
 import io.ManageOutput;
 
 import java.io.File;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.LinkedList;
 import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import options.EvalOptions;
 import options.Option;
 import options.SimOptions;
 import options.SumOptions;
+import options.SummarizationConfig;
 import preferences.Preferences;
 import relation.Relation;
 import statistics.Statistic;
@@ -61,9 +69,18 @@ public class UserInterface {
 	 * </p>
 	 */
 	private void buildOutput() {
+		buildOutput(Preferences.OUTPUT_FILE);
+	}
+
+	/**
+	 * <p>
+	 * Builds output in the given file.
+	 * </p>
+	 */
+	private void buildOutput(String outputFile) {
 		IOController mo = new IOController();
 		System.out.println("Print output file...");
-		mo.buildOutput(output);
+		mo.buildOutput(output, outputFile);
 	}
 
 	/**
@@ -311,64 +328,87 @@ public class UserInterface {
 	 * <p>
 	 * Runs the summarization system with default values.
 	 * </p>
+	 * <p>
+	 * The folders are summarized in parallel by BATCH_THREADS threads, but
+	 * their outputs and statistics are written one at a time, by the order of
+	 * the folders names, so they do not depend on which summary ends first. A
+	 * folder whose summary, output or statistics fail is reported and
+	 * skipped.
+	 * </p>
 	 * 
 	 * <p>
 	 * <b>Note:</b>Method to be used by the developer.
 	 * </p>
 	 */
-	public void summarizeByDefault(String query, String type) {
+	public void summarizeByDefault(final String query, final String type) {
 		long startTime = System.currentTimeMillis();
 
 		File homeDirectory = new File(Preferences.INPUT_DIR_LOCATION);
 		File[] folders = homeDirectory.listFiles();
+		Arrays.sort(folders);
 
 		Statistic stats = new Statistic();
-		SumController sc = null;
-
-		for (int i = 0; i < folders.length; i++) {
-			System.out.println("[Processing folder: "
-					+ folders[i].getAbsolutePath() + "]");
-			sc = new SumController();
-
-			options = new SumOptions(Preferences.DEFAULT_COMPRESSION_RATE,
-					Preferences.OutputType.TEXT, query);
-			options.setDocumentsLocation(folders[i].getAbsolutePath());
-			Preferences.OUTPUT_FILE = Preferences.OUTPUT_DEFAULT_LOCATION
-					+ folders[i].getName() + ".txt";
-			sc.submitOptions(options);
-			Summary summary = null;
-
-			Preferences.setFinalSummaryType(type);
-
-			if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.SIMPLIFIED)
-				summary = sc.buildSummary();// DEVE RETORNAR UMA STRING COM A
-											// LOCALIZAÇÃO DOS TEXTOS???
-			else if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.NONSIMPLIFIED)
-				summary = sc.buildNonSimplifiedSummary();
-			else if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.NONPOSTPROCESSED)
-				summary = sc.buildNonPostProcessedSummary();
-			else if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.RANDOMBASELINE)
-				summary = sc.buidRandomSummary();
-			else if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.SIMPLIFICATIONBASELINE)
-				summary = sc.buildSimplificationBaselineSummary();
-			else if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.PARAGRAPHBASELINE)
-				summary = sc.buildParagraphsBaselineSummary();
-			else if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.CONNECTIVESBASELINE)
-				summary = sc.buildConnectivesBaselineSummary();
-			else if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.ONLYPOSTPROCESSEDNOSUMMARY) {
-				((SumOptions) options).setCompressionRate(1);
-				sc.submitOptions(options);
-				summary = sc.postProcessText();
+		int threads = Math.max(1, Preferences.BATCH_THREADS), failures = 0;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		// Summaries submitted and not yet written, by the order of the
+		// folders; only a few summaries wait for the slower ones.
+		LinkedList<Future<SumController>> pending = new LinkedList<Future<SumController>>();
+
+		try {
+			for (int i = 0, next = 0; i < folders.length; i++) {
+				while (next < folders.length && pending.size() < 2 * threads) {
+					final File folder = folders[next++];
+
+					pending.add(pool.submit(new Callable<SumController>() {
+						public SumController call() throws Exception {
+							return summarizeFolder(folder, query, type);
+						}
+					}));
+				}
+
+				SumController sc;
+
+				try {
+					sc = pending.removeFirst().get();
+				} catch (ExecutionException e) {
+					System.out
+							.println("============= ERROR in class [UserInterface.summarizeByDefault] folder "
+									+ folders[i].getName()
+									+ ".\nException trace:");
+					System.out.println(e.getCause().toString());
+					e.getCause().printStackTrace();
+					failures++;
+					continue;
+				}
+
+				try {
+					output = sc.getSummary();
+					buildOutput(sc.getConfig().getOutputFile());
+
+					ManageOutput.printDemoLog(sc.getDemoLog());
+
+					stats.setController(sc);
+					stats.buildStatistics(folders[i].getName(), i + 1);
+				} catch (Exception e) {
+					System.out
+							.println("============= ERROR in class [UserInterface.summarizeByDefault] output of folder "
+									+ folders[i].getName()
+									+ ".\nException trace:");
+					System.out.println(e.toString());
+					e.printStackTrace();
+					failures++;
+				} finally {
+					sc.clear();
+				}
 			}
-
-			output = summary;
-			buildOutput();
-
-			ManageOutput.printDemoLog(sc.getDemoLog());
-
-			stats.setController(sc);
-			stats.buildStatistics(folders[i].getName(), i + 1);
-			sc.clear();
+		} catch (InterruptedException e) {
+			System.out
+					.println("============= ERROR in class [UserInterface.summarizeByDefault].\nException trace:");
+			System.out.println(e.toString());
+			e.printStackTrace();
+			Thread.currentThread().interrupt();
+		} finally {
+			pool.shutdownNow();
 		}
 
 		stats.finishStatistics();
@@ -376,10 +416,50 @@ public class UserInterface {
 		long endTime = System.currentTimeMillis(), execution = endTime
 				- startTime;
 
+		if (failures > 0)
+			System.out.println("\n\n[Failed folders: " + failures + " of "
+					+ folders.length + "]");
+
 		System.out.println("\n\n[Final time: " + new Date(execution).toString()
 				+ "]");
 	}
 
+	/**
+	 * <p>
+	 * Summarizes the documents of a folder with default values.
+	 * </p>
+	 * 
+	 * @param folder
+	 *            the folder.
+	 * @param query
+	 *            the user keywords.
+	 * @param type
+	 *            the summary type.
+	 * @return the controller that built the summary.
+	 */
+	private static SumController summarizeFolder(File folder, String query,
+			String type) {
+		System.out.println("[Processing folder: " + folder.getAbsolutePath()
+				+ "]");
+		SumController sc = new SumController();
+
+		SumOptions options = new SumOptions(
+				Preferences.DEFAULT_COMPRESSION_RATE,
+				Preferences.OutputType.TEXT, query);
+		options.setDocumentsLocation(folder.getAbsolutePath());
+		SummarizationConfig config = SummarizationConfig
+				.defaults()
+				.withSummaryType(Preferences.parseFinalSummaryType(type))
+				.withOutputFile(
+						Preferences.OUTPUT_DEFAULT_LOCATION + folder.getName()
+								+ ".txt");
+		sc.setConfig(config);
+		sc.submitOptions(options);
+		sc.summarize();
+
+		return sc;
+	}
+
 	/**
 	 * <p>
 	 * Runs the summarization system from the servlet.
@@ -403,26 +483,27 @@ public class UserInterface {
 					"");
 			String absolutePath = folders[i].getAbsolutePath();
 			options.setDocumentsLocation(absolutePath);
+			SummarizationConfig config = SummarizationConfig.defaults()
+					.withSummaryType(Preferences.parseFinalSummaryType(type));
+			sc.setConfig(config);
 			sc.submitOptions(options);
 			Summary summary = null;
 
-			Preferences.setFinalSummaryType(type);
-
-			if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.SIMPLIFIED)
+			if (config.getSummaryType() == Preferences.FINAL_SUMMARY_TYPE.SIMPLIFIED)
 				summary = sc.buildSummary();
-			else if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.NONSIMPLIFIED)
+			else if (config.getSummaryType() == Preferences.FINAL_SUMMARY_TYPE.NONSIMPLIFIED)
 				summary = sc.buildNonSimplifiedSummary();
-			else if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.NONPOSTPROCESSED)
+			else if (config.getSummaryType() == Preferences.FINAL_SUMMARY_TYPE.NONPOSTPROCESSED)
 				summary = sc.buildNonPostProcessedSummary();
-			else if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.RANDOMBASELINE)
+			else if (config.getSummaryType() == Preferences.FINAL_SUMMARY_TYPE.RANDOMBASELINE)
 				summary = sc.buidRandomSummary();
-			else if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.SIMPLIFICATIONBASELINE)
+			else if (config.getSummaryType() == Preferences.FINAL_SUMMARY_TYPE.SIMPLIFICATIONBASELINE)
 				summary = sc.buildSimplificationBaselineSummary();
-			else if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.PARAGRAPHBASELINE)
+			else if (config.getSummaryType() == Preferences.FINAL_SUMMARY_TYPE.PARAGRAPHBASELINE)
 				summary = sc.buildParagraphsBaselineSummary();
-			else if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.CONNECTIVESBASELINE)
+			else if (config.getSummaryType() == Preferences.FINAL_SUMMARY_TYPE.CONNECTIVESBASELINE)
 				summary = sc.buildConnectivesBaselineSummary();
-			else if (Preferences.SUMMARY_TYPE == Preferences.FINAL_SUMMARY_TYPE.ONLYPOSTPROCESSEDNOSUMMARY) {
+			else if (config.getSummaryType() == Preferences.FINAL_SUMMARY_TYPE.ONLYPOSTPROCESSEDNOSUMMARY) {
 				((SumOptions) options).setCompressionRate(1);
 				sc.submitOptions(options);
 				summary = sc.postProcessText();